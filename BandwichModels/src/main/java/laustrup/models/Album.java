@@ -1,13 +1,19 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.utilities.collections.sets.Seszt;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -30,25 +36,48 @@ public class Album extends Model {
      */
     private UUID _authorId;
 
+    /**
+     * The positions from 1 of the items by their endpoints, so an item is found without comparing every endpoint.
+     * Is built from the items the first time it is needed, and built again when the items are added to or removed.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient Map<String, Integer> _endpoints;
+
+    /**
+     * The amount of items, that the index of endpoints includes.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient int _indexed;
+
     /**
      * Will translate a transport object of this object into a construct of this object.
      * @param album The transport object to be transformed.
      */
     public Album(Album.DTO album) {
-        super(album);
+        this(album, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param album The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Album(Album.DTO album, ConversionContext context) {
+        super(album, context);
         _items = new Seszt<>();
-        convert(album.getItems());
+        convert(album.getItems(), context);
         _authorId = album.getAuthorId();
     }
 
     /**
      * Will translate some transport objects of this object into a construct of this object.
      * @param dtos The transport objects to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
      * @return The current object of AlbumItems.
      */
-    private Seszt<Item> convert(Item.DTO[] dtos) {
+    private Seszt<Item> convert(Item.DTO[] dtos, ConversionContext context) {
         for (Item.DTO item : dtos)
-            _items.add(new Item(item));
+            _items.add(context.convert(item, Item::new));
 
         return _items;
     }
@@ -132,6 +161,7 @@ public class Album extends Model {
      */
     public Seszt<Item> add(Seszt<Item> items) {
         _items.addAll(items);
+        _endpoints = null;
         return _items;
     }
 
@@ -153,17 +183,78 @@ public class Album extends Model {
      */
     public Seszt<Item> set(Seszt<Item> items) {
         for (Item item : items) {
-            for (int i = 1; i <= _items.size(); i++) {
-                if (_items.Get(i).get_endpoint().equals(item.get_endpoint())) {
-                    _items.set(i,item);
-                    break;
-                }
-            }
+            Integer position = positionOf(item.get_endpoint());
+            if (position != null)
+                _items.set(position - 1, item);
         }
 
         return _items;
     }
 
+    /**
+     * Merges items into the items of the Album in one pass, identified by their endpoints.
+     * Items with a new endpoint are added, items that are different from the item with the same endpoint replaces it,
+     * and items that are the same as the item with the same endpoint are left.
+     * @param items The items that should be in the Album.
+     * @return The counts of the items that are inserted, updated and unchanged.
+     */
+    public Upsert upsert(Collection<Item> items) {
+        Upsert result = new Upsert();
+
+        for (Item item : items) {
+            Integer position = positionOf(item.get_endpoint());
+
+            if (position == null) {
+                _items.add(item);
+                _endpoints.put(item.get_endpoint(), _items.size());
+                _indexed = _items.size();
+                result._inserted++;
+            }
+            else if (_items.Get(position).isSameAs(item))
+                result._unchanged++;
+            else {
+                _items.set(position - 1, item);
+                result._updated++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the position of the item with an endpoint.
+     * The index of endpoints is built again, if it isn't built or the items have been changed without this Album.
+     * @param endpoint The endpoint of the item.
+     * @return The position from 1 or null, if there isn't any item with the endpoint.
+     */
+    private Integer positionOf(String endpoint) {
+        Integer position = endpoints().get(endpoint);
+        if (
+            position != null && (position > _items.size() || !Objects.equals(_items.Get(position).get_endpoint(), endpoint))
+            || position == null && _indexed != _items.size()
+        ) {
+            _endpoints = null;
+            position = endpoints().get(endpoint);
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets the positions of the items by their endpoints, will build them first, if they aren't built yet.
+     * @return The positions from 1 by the endpoints.
+     */
+    private Map<String, Integer> endpoints() {
+        if (_endpoints == null) {
+            _endpoints = new HashMap<>();
+            for (int i = 1; i <= _items.size(); i++)
+                _endpoints.putIfAbsent(_items.Get(i).get_endpoint(), i);
+            _indexed = _items.size();
+        }
+
+        return _endpoints;
+    }
+
     /**
      * Will remove an item of the Album.
      * @param item The item that should be removed from the Album.
@@ -184,6 +275,7 @@ public class Album extends Model {
      * @return All the items of this Album.
      */
     public Seszt<Item> remove(Item[] items) {
+        _endpoints = null;
         return _items.remove(items);
     }
 
@@ -203,6 +295,24 @@ public class Album extends Model {
         });
     }
 
+    /**
+     * The counts of an upsert of items into an Album.
+     */
+    @Getter
+    public static class Upsert {
+
+        /** The amount of items that were added, since their endpoints were new. */
+        private int _inserted;
+
+        /** The amount of items that replaced a different item with the same endpoint. */
+        private int _updated;
+
+        /** The amount of items that were the same as the item with the same endpoint. */
+        private int _unchanged;
+
+        private Upsert() {}
+    }
+
     /**
      * An item of an album that can be either a photos or music.
      * Has a link to the endpoint of the file source.
@@ -211,7 +321,7 @@ public class Album extends Model {
     public static class Item extends Model {
 
         /** Categories the tagged people, who have participated on the item of the album. */
-        private Seszt<UUID> _tags;
+        private UUIDSet _tags;
 
         /** The endpoint for a URL, that is used to get the file of the item. */
         private String _endpoint;
@@ -231,22 +341,19 @@ public class Album extends Model {
          * @param albumItem The transport object to be transformed.
          */
         public Item(DTO albumItem) {
-            super(albumItem);
-            _endpoint = albumItem.getEndpoint();
-            _kind = Kind.valueOf(albumItem.getKind().toString());
-            _tags = new Seszt<>();
-            convert(albumItem.getTags());
+            this(albumItem, new ConversionContext());
         }
 
         /**
-         * Will translate some transport objects of this object into a construct of this object.
-         * @param dtos The transport objects to be transformed.
-         * @return The current object of tags.
+         * Will translate a transport object of this object into a construct of this object.
+         * @param albumItem The transport object to be transformed.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
          */
-        private Seszt<UUID> convert(UUID[] dtos) {
-            Collections.addAll(_tags, dtos);
-
-            return _tags;
+        public Item(DTO albumItem, ConversionContext context) {
+            super(albumItem, context);
+            _endpoint = albumItem.getEndpoint();
+            _kind = Kind.valueOf(albumItem.getKind().toString());
+            _tags = new UUIDSet(albumItem.getTags());
         }
 
         /**
@@ -271,7 +378,7 @@ public class Album extends Model {
             super(title, history, timestamp);
             _endpoint = endpoint;
             _kind = kind;
-            _tags = tags;
+            _tags = new UUIDSet(tags);
             _event = event;
         }
 
@@ -288,16 +395,33 @@ public class Album extends Model {
             super(title);
             _endpoint = endpoint;
             _kind = kind;
-            _tags = tags;
+            _tags = new UUIDSet(tags);
             _event = event;
         }
 
+        /**
+         * Checks if another item has the same values as this item, except its history.
+         * @param item The other item, such as a newer version of this item.
+         * @return True if the title, endpoint, kind, tags, Event and timestamp are the same.
+         */
+        public boolean isSameAs(Item item) {
+            return Objects.equals(_title, item.get_title())
+                    && Objects.equals(_endpoint, item.get_endpoint())
+                    && _kind == item.get_kind()
+                    && Objects.equals(_tags, item.get_tags())
+                    && Objects.equals(
+                            _event != null ? _event.get_primaryId() : null,
+                            item.get_event() != null ? item.get_event().get_primaryId() : null
+                    )
+                    && Objects.equals(_timestamp, item.get_timestamp());
+        }
+
         /**
          * Will add a User as a tag to the item.
          * @param tag The User that will be added as a tag.
          * @return All the tags of the item.
          */
-        public Seszt<UUID> add(UUID tag) {
+        public UUIDSet add(UUID tag) {
             return add(new UUID[]{tag});
         }
 
@@ -306,7 +430,7 @@ public class Album extends Model {
          * @param tags The Users that will be added as tags.
          * @return All the tags of the item.
          */
-        public Seszt<UUID> add(UUID[] tags) {
+        public UUIDSet add(UUID[] tags) {
             return _tags.Add(tags);
         }
 
@@ -315,7 +439,7 @@ public class Album extends Model {
          * @param tag The User that will be removed as a tag.
          * @return All the tags of the item.
          */
-        public Seszt<UUID> remove(UUID tag) {
+        public UUIDSet remove(UUID tag) {
             return remove(new UUID[]{tag});
         }
 
@@ -324,7 +448,7 @@ public class Album extends Model {
          * @param tags The Users that will be removed as tags.
          * @return All the tags of the item.
          */
-        public Seszt<UUID> remove(UUID[] tags) {
+        public UUIDSet remove(UUID[] tags) {
             return _tags.remove(tags);
         }
 
@@ -349,7 +473,7 @@ public class Album extends Model {
          * Is meant to be used as having common fields and be the body of Requests and Responses.
          * Doesn't have any logic.
          */
-        @Getter
+        @Getter @Setter @Mapped
         public static class DTO extends ModelDTO {
 
             /** Categories the tagged people, who have participated on the item of the album. */
@@ -372,15 +496,17 @@ public class Album extends Model {
              * @param item The Object to be converted.
              */
             public DTO(Item item) {
-                super(item);
-                endpoint = item.get_endpoint();
-                kind = DTO.Kind.valueOf(item.get_kind().toString());
-
-                tags = new UUID[item.get_tags().size()];
-                for (int i = 0; i < tags.length; i++)
-                    tags[i] = item.get_tags().get(i);
+                this(item, new ConversionContext());
+            }
 
-                event = new Event.DTO(item.get_event());
+            /**
+             * Converts into this DTO Object.
+             * @param item The Object to be converted.
+             * @param context The context of the conversion, that keeps track of what has already been converted.
+             */
+            public DTO(Item item, ConversionContext context) {
+                super(item, context);
+                AlbumItemMapper.map(item, this, context);
             }
 
             /** An enum that will describe the type of Album. */
@@ -397,7 +523,7 @@ public class Album extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
         /**
@@ -418,11 +544,17 @@ public class Album extends Model {
          * @param album The Object to be converted.
          */
         public DTO(Album album) {
-            super(album);
-            items = new Item.DTO[album.get_items().size()];
-            for (int i = 0; i < items.length; i++)
-                items[i] = new Item.DTO(album.get_items().Get(i+1));
-            authorId = album.get_authorId();
+            this(album, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param album The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Album album, ConversionContext context) {
+            super(album, context);
+            AlbumMapper.map(album, this, context);
         }
     }
 }
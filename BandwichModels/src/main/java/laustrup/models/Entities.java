@@ -0,0 +1,466 @@
+package laustrup.models;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A collection of Models in the order they were added, that are indexed by their ids,
+ * so they can be found, replaced and removed without going through the collection.
+ * Each id can only be in the collection once, like a Seszt, but a Model with an id that is already added will be ignored.
+ * Models without an id are indexed by themselves.
+ * Can also be accessed by position like a Liszt, where Get() is from 1 and get() is from 0,
+ * the positions are found once after each change of the collection.
+ * The Models are kept in persistent collections, so each change creates a new version that shares the rest with the former,
+ * which means that snapshot() and iterating are consistent, even while the collection is changed from another thread.
+ * Changes must still be made from one thread at a time.
+ * @param <E> The type of the Models.
+ */
+public class Entities<E extends Model> extends AbstractCollection<E> {
+
+    /**
+     * The current version of the Models, is replaced by every change.
+     */
+    private volatile State<E> _state;
+
+    /**
+     * Finds the id of a Model, that it is indexed by.
+     */
+    private final Function<? super E, ?> _key;
+
+    /**
+     * Indexes the Models by their primary ids.
+     */
+    public Entities() {
+        this(Model::get_primaryId);
+    }
+
+    /**
+     * @param key Finds the id of a Model, that it should be indexed by, such as Entities.ids() for Models with two ids.
+     */
+    public Entities(Function<? super E, ?> key) {
+        this(key, State.empty());
+    }
+
+    /**
+     * Indexes the Models by their primary ids.
+     * @param elements The Models that should be added in their order, can be null.
+     */
+    public Entities(Collection<? extends E> elements) {
+        this(elements, Model::get_primaryId);
+    }
+
+    /**
+     * @param elements The Models that should be added in their order, can be null.
+     * @param key Finds the id of a Model, that it should be indexed by.
+     */
+    public Entities(Collection<? extends E> elements, Function<? super E, ?> key) {
+        this(key);
+        if (elements != null)
+            addAll(elements);
+    }
+
+    /**
+     * Shares a version of another collection.
+     */
+    private Entities(Function<? super E, ?> key, State<E> state) {
+        _key = key;
+        _state = state;
+    }
+
+    /**
+     * Finds both the primary and secondary id of a Model,
+     * for Models that are a connection between two entities, such as Ratings and Requests.
+     * @return The function that finds both ids.
+     */
+    public static Function<Model, Object> ids() {
+        return model -> model.get_primaryId() != null
+                ? Arrays.asList(model.get_primaryId(), model.get_secondaryId())
+                : null;
+    }
+
+    /**
+     * Creates a collection of the Models as they are now, without copying them.
+     * Later changes of either collection aren't seen by the other.
+     * @return The snapshot with the same Models and ids.
+     */
+    public Entities<E> snapshot() {
+        return new Entities<>(_key, _state);
+    }
+
+    /**
+     * Finds the key of a Model, which is its id or itself, if it doesn't have an id.
+     * @param element The Model to find the key of.
+     * @return The key.
+     */
+    private Object keyOf(E element) {
+        Object key = _key.apply(element);
+        return key != null ? key : element;
+    }
+
+    /**
+     * Finds the Model with an id.
+     * @param id The id that the Model is indexed by.
+     * @return The Model or null, if there isn't any with the id.
+     */
+    public E find(Object id) {
+        return id != null ? _state.find(id) : null;
+    }
+
+    /**
+     * Finds the Model in this collection, that has the same id as another Model.
+     * @param element The other Model, such as an updated version of the Model.
+     * @return The Model in this collection or null, if there isn't any with the same id.
+     */
+    public E find(E element) {
+        return element != null ? _state.find(keyOf(element)) : null;
+    }
+
+    /**
+     * Adds a Model, unless a Model with the same id is already added.
+     * @param element The Model to be added, null is ignored.
+     * @return True if it was added.
+     */
+    @Override
+    public boolean add(E element) {
+        if (element == null)
+            return false;
+
+        State<E> state = _state;
+        Object key = keyOf(element);
+        if (state._slots.containsKey(key))
+            return false;
+
+        _state = new State<>(state._slots.plus(key, state._order.size()), state._order.plus(element), state._size + 1);
+        return true;
+    }
+
+    /**
+     * Adds a Model, unless a Model with the same id is already added.
+     * @param element The Model to be added.
+     * @return This collection.
+     */
+    public Entities<E> Add(E element) {
+        add(element);
+        return this;
+    }
+
+    /**
+     * Adds Models, except those with an id that is already added.
+     * @param elements The Models to be added.
+     * @return This collection.
+     */
+    public Entities<E> Add(E[] elements) {
+        for (E element : elements)
+            add(element);
+
+        return this;
+    }
+
+    /**
+     * Replaces the Model with the same id, it keeps the position of the Model it replaces.
+     * @param element The Model that should replace the Model with the same id.
+     * @return The Model that was replaced or null, if there wasn't any with the same id, then nothing is replaced.
+     */
+    public E set(E element) {
+        State<E> state = _state;
+        Integer slot = state._slots.get(keyOf(element));
+        if (slot == null)
+            return null;
+
+        _state = new State<>(state._slots, state._order.with(slot, element), state._size);
+        return state._order.get(slot);
+    }
+
+    /**
+     * Replaces the Model at a position from 0.
+     * If the new Model has another id, it is indexed by the new id instead.
+     * @param index The position from 0.
+     * @param element The Model that should be at the position.
+     * @return The Model that was replaced.
+     * @throws IndexOutOfBoundsException If there isn't any Model at the position.
+     */
+    public E set(int index, E element) {
+        State<E> state = _state;
+        E previous = get(index);
+        Object previousKey = keyOf(previous), key = keyOf(element);
+        int slot = state._slots.get(previousKey);
+
+        PersistentHashMap<Object, Integer> slots = state._slots;
+        if (!previousKey.equals(key)) {
+            if (slots.containsKey(key))
+                throw new IllegalArgumentException("Another Model already has the id " + key);
+
+            slots = slots.minus(previousKey).plus(key, slot);
+        }
+        _state = new State<>(slots, state._order.with(slot, element), state._size);
+
+        return previous;
+    }
+
+    /**
+     * Replaces the Model at a position from 1.
+     * @param index The position from 1.
+     * @param element The Model that should be at the position.
+     * @return This collection.
+     */
+    public Entities<E> Set(int index, E element) {
+        set(index - 1, element);
+        return this;
+    }
+
+    /**
+     * Gets the Model at a position from 0.
+     * @param index The position from 0.
+     * @return The Model at the position.
+     * @throws IndexOutOfBoundsException If there isn't any Model at the position.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Object[] positions = _state.positions();
+        if (index < 0 || index >= positions.length)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + positions.length);
+
+        return (E) positions[index];
+    }
+
+    /**
+     * Gets the Model at a position from 1.
+     * @param index The position from 1.
+     * @return The Model at the position.
+     */
+    public E Get(int index) {
+        return get(index - 1);
+    }
+
+    /**
+     * Gets the Model that was added first.
+     * @return The first Model.
+     * @throws NoSuchElementException If the collection is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public E getFirst() {
+        Object[] positions = _state.positions();
+        if (positions.length == 0)
+            throw new NoSuchElementException("There are no Models");
+
+        return (E) positions[0];
+    }
+
+    /**
+     * Gets the Model that was added last.
+     * @return The last Model.
+     * @throws NoSuchElementException If the collection is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public E getLast() {
+        Object[] positions = _state.positions();
+        if (positions.length == 0)
+            throw new NoSuchElementException("There are no Models");
+
+        return (E) positions[positions.length - 1];
+    }
+
+    /**
+     * Removes the Model with the same id.
+     * @param element The Model or another version of it.
+     * @return True if a Model was removed.
+     */
+    @Override @SuppressWarnings("unchecked")
+    public boolean remove(Object element) {
+        return element instanceof Model && Remove(keyOf((E) element)) != null;
+    }
+
+    /**
+     * Removes the Models with the same ids.
+     * @param elements The Models or other versions of them.
+     * @return This collection.
+     */
+    public Entities<E> remove(E[] elements) {
+        for (E element : elements)
+            remove(element);
+
+        return this;
+    }
+
+    /**
+     * Removes the Model with an id.
+     * Its position is left empty, until there are more empty positions than Models, then the Models are moved together.
+     * @param id The id that the Model is indexed by.
+     * @return The removed Model or null, if there wasn't any with the id.
+     */
+    public E Remove(Object id) {
+        if (id == null)
+            return null;
+
+        State<E> state = _state;
+        Integer slot = state._slots.get(id);
+        if (slot == null)
+            return null;
+
+        State<E> removed = new State<>(state._slots.minus(id), state._order.with(slot, null), state._size - 1);
+        _state = removed._order.size() - removed._size > Math.max(removed._size, 32)
+                ? removed.compact(this::keyOf)
+                : removed;
+
+        return state._order.get(slot);
+    }
+
+    /**
+     * Checks if there is a Model with the same id.
+     * @param element The Model or another version of it.
+     * @return True if there is a Model with the same id.
+     */
+    @Override @SuppressWarnings("unchecked")
+    public boolean contains(Object element) {
+        return element instanceof Model && _state._slots.containsKey(keyOf((E) element));
+    }
+
+    /**
+     * Checks if there are Models with the same ids as all the Models.
+     * @param elements The Models or other versions of them.
+     * @return True if all of them are here.
+     */
+    public boolean contains(E[] elements) {
+        for (E element : elements)
+            if (!contains(element))
+                return false;
+
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        _state = State.empty();
+    }
+
+    @Override
+    public int size() {
+        return _state._size;
+    }
+
+    /**
+     * Gets the Models of the current version, so they are consistent, even while the collection is changed.
+     * @return The Models in their order.
+     */
+    @Override
+    public Object[] toArray() {
+        return _state.positions().clone();
+    }
+
+    /**
+     * Goes through the Models of the version at the time the iterator is created,
+     * so it isn't affected by changes meanwhile, removing through the iterator changes the collection.
+     * @return The iterator of the Models in their order.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = _state._order.iterator();
+
+        return new Iterator<>() {
+
+            /** The next Model, is null if it isn't found yet. */
+            private E _next;
+
+            /** The Model that was returned last. */
+            private E _last;
+
+            @Override
+            public boolean hasNext() {
+                while (_next == null && iterator.hasNext())
+                    _next = iterator.next();
+
+                return _next != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                _last = _next;
+                _next = null;
+                return _last;
+            }
+
+            @Override
+            public void remove() {
+                if (_last == null)
+                    throw new IllegalStateException("There isn't any Model to remove");
+
+                Entities.this.remove(_last);
+                _last = null;
+            }
+        };
+    }
+
+    /**
+     * A version of the Models, that is never changed.
+     * @param <E> The type of the Models.
+     */
+    private static final class State<E> {
+
+        /** The version without any Models. */
+        private static final State<?> EMPTY = new State<>(PersistentHashMap.empty(), PersistentVector.empty(), 0);
+
+        /** The positions in the order of each Model, by the keys of the Models. */
+        private final PersistentHashMap<Object, Integer> _slots;
+
+        /** The Models in the order they were added, where a removed Model leaves a null. */
+        private final PersistentVector<E> _order;
+
+        /** The amount of Models. */
+        private final int _size;
+
+        /** The Models by their positions without the removed Models, is found the first time it is needed. */
+        private volatile Object[] _positions;
+
+        private State(PersistentHashMap<Object, Integer> slots, PersistentVector<E> order, int size) {
+            _slots = slots;
+            _order = order;
+            _size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> State<E> empty() {
+            return (State<E>) EMPTY;
+        }
+
+        private E find(Object key) {
+            Integer slot = _slots.get(key);
+            return slot != null ? _order.get(slot) : null;
+        }
+
+        private Object[] positions() {
+            Object[] positions = _positions;
+            if (positions == null) {
+                positions = new Object[_size];
+                int index = 0;
+                for (E element : _order)
+                    if (element != null)
+                        positions[index++] = element;
+                _positions = positions;
+            }
+
+            return positions;
+        }
+
+        /**
+         * Creates a version without the empty positions of removed Models.
+         */
+        private State<E> compact(Function<E, Object> key) {
+            PersistentHashMap<Object, Integer> slots = PersistentHashMap.empty();
+            PersistentVector<E> order = PersistentVector.empty();
+            for (E element : _order)
+                if (element != null) {
+                    slots = slots.plus(key.apply(element), order.size());
+                    order = order.plus(element);
+                }
+
+            return new State<>(slots, order, _size);
+        }
+    }
+}
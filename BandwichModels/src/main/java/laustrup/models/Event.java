@@ -1,6 +1,8 @@
 package laustrup.models;
 
 import laustrup.models.users.Participant;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.utilities.collections.sets.Seszt;
@@ -11,6 +13,7 @@ import laustrup.models.chats.messages.Post;
 import laustrup.models.users.ContactInfo;
 import laustrup.models.users.Performer;
 import laustrup.models.users.Venue;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
@@ -96,9 +99,9 @@ public class Event extends Model {
     private Seszt<Ticket.Option> _ticketOptions;
 
     /**
-     * The tickets that have been bought or reserved.
+     * The tickets that have been bought or reserved, by the ids of their participant and this Event.
      */
-    private Seszt<Ticket> _tickets;
+    private Entities<Ticket> _tickets;
 
     /**
      * Different information of contacting.
@@ -108,7 +111,7 @@ public class Event extends Model {
     /**
      * The gigs with times and acts of the Event.
      */
-    private Liszt<Gig> _gigs;
+    private Entities<Gig> _gigs;
 
     /**
      * This venue is the ones responsible for the Event,
@@ -119,46 +122,62 @@ public class Event extends Model {
     /**
      * These requests are needed to make sure, everyone wants to be a part of the Event.
      */
-    private Liszt<Request> _requests;
+    private Entities<Request> _requests;
 
     /**
      * The people that will participate in the Event,
      * not including venues or acts.
      */
-    private Seszt<Participation> _participations;
+    private Entities<Participation> _participations;
 
     /**
      * Post from different people, that will mention contents.
      */
-    private Seszt<Post> _posts;
+    private Entities<Post> _posts;
 
     /**
      * An Album of images, that can be used to promote this Event.
      */
     @Setter
-    private Seszt<Album> _albums;
+    private Entities<Album> _albums;
+
+    /**
+     * An index of the times of the Gigs, that the start, end and overlaps of Gigs are found from.
+     * Is built from the Gigs the first time it is needed and kept up to date by the changes of Gigs through this Event.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient Schedule _schedule;
 
     /**
      * Will translate a transport object of this object into a construct of this object.
      * @param event The transport object to be transformed.
      */
     public Event(DTO event) {
-        super(event);
+        this(event, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param event The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Event(DTO event, ConversionContext context) {
+        super(event, context);
 
         _description = event.getDescription();
 
         ifExists(event.getGigs(), () -> {
-            _gigs = new Liszt<>();
+            _gigs = new Entities<>();
             for (Gig.DTO gig : event.getGigs())
-                _gigs.add(new Gig(gig));
+                _gigs.add(context.convert(gig, Gig::new));
         });
 
-        if (_gigs != null && !_gigs.isEmpty())
-            try {
-                calculateTime();
-            } catch (InputMismatchException e) {
-                Printer.print("End date is before beginning date of " + _title + "...", e);
-            }
+        // The Gigs might still be converting, so the times are those of the DTO, until the Schedule is needed.
+        if (_gigs != null && !_gigs.isEmpty()) {
+            _start = event.getStart();
+            _end = event.getEnd();
+            _duration = event.getLength();
+        }
         else {
             _start = event.getOpenDoors() != null ? event.getOpenDoors() : null;
             _openDoors = _start;
@@ -178,39 +197,39 @@ public class Event extends Model {
         _soldOut = event.getIsSoldOut();
         _ticketOptions = new Seszt<>();
         for (Ticket.Option.DTO option : event.getTicketOptions())
-            _ticketOptions.add(new Ticket.Option(option));
+            _ticketOptions.add(context.convert(option, Ticket.Option::new));
 
-        _tickets = new Seszt<>();
+        _tickets = new Entities<>(Entities.ids());
         for (Ticket.DTO ticket : event.getTickets())
-            _tickets.add(new Ticket(ticket));
+            _tickets.add(context.convert(ticket, Ticket::new));
 
-        _contactInfo = (ContactInfo) ifExists(event.getContactInfo(), e -> new ContactInfo(event.getContactInfo()));
-        _venue = new Venue(event.getVenue());
+        _contactInfo = context.convert(event.getContactInfo(), ContactInfo::new);
+        _venue = context.convert(event.getVenue(), Venue::new);
 
         set_location(event.getLocation());
 
         ifExists(event.getRequests(), () -> {
-            _requests = new Liszt<>();
+            _requests = new Entities<>();
             for (Request.DTO request : event.getRequests())
-                _requests.add(new Request(request));
+                _requests.add(context.convert(request, Request::new));
         });
 
         ifExists(event.getParticipations(), () -> {
-            _participations = new Seszt<>();
+            _participations = new Entities<>(Model::get_secondaryId);
             for (Participation.DTO participation : event.getParticipations())
-                _participations.add(new Participation(participation));
+                _participations.add(context.convert(participation, Participation::new));
         });
 
         ifExists(event.getPosts(), () -> {
-            _posts = new Seszt<>();
+            _posts = new Entities<>();
             for (Post.DTO bulletin : event.getPosts())
-                _posts.add(new Post(bulletin));
+                _posts.add(context.convert(bulletin, Post::new));
         });
 
         ifExists(event.getAlbums(), () -> {
-            _albums = new Seszt<>();
+            _albums = new Entities<>();
             for (Album.DTO album : event.getAlbums())
-                _albums.add(new Album(album));
+                _albums.add(context.convert(album, Album::new));
         });
     }
 
@@ -265,7 +284,7 @@ public class Event extends Model {
         super(id, title == null || title.isEmpty() ? "Untitled event" : title, history, timestamp);
 
         _description = description;
-        _gigs = gigs;
+        _gigs = new Entities<>(gigs);
 
         if (!_gigs.isEmpty())
             try {
@@ -289,7 +308,7 @@ public class Event extends Model {
         _cancelled = isCancelled;
         _soldOut = isSoldOut;
         _ticketOptions = ticketOptions;
-        _tickets = tickets;
+        _tickets = tickets != null ? new Entities<>(tickets, Entities.ids()) : null;
         _contactInfo = contactInfo;
         _venue = venue;
 
@@ -297,11 +316,11 @@ public class Event extends Model {
 
         _requests = requests == null || requests.isEmpty()
             ? generateRequests()
-            : requests
+            : new Entities<>(requests)
         ;
-        _participations = participations;
-        _posts = posts;
-        _albums = albums;
+        _participations = new Entities<>(participations, Model::get_secondaryId);
+        _posts = new Entities<>(posts);
+        _albums = new Entities<>(albums);
     }
 
     /**
@@ -413,13 +432,13 @@ public class Event extends Model {
      * if there is any Requests already, no Requests will be generated.
      * @return The Requests of this Object.
      */
-    private Liszt<Request> generateRequests() {
+    private Entities<Request> generateRequests() {
         if (_requests == null)
-            _requests = new Liszt<>();
+            _requests = new Entities<>();
         if (_requests.isEmpty())
             for (Gig gig : _gigs)
                 for (Performer performer : gig.get_act())
-                    if (!_requests.contains(performer.toString()))
+                    if (_requests.find(performer.get_primaryId()) == null)
                         _requests.add(new Request(performer, this));
 
         return _requests;
@@ -430,7 +449,7 @@ public class Event extends Model {
      * @param participation A User that will join this Event.
      * @return All the Participations of this Event.
      */
-    public Seszt<Participation> add(Participation participation) {
+    public Entities<Participation> add(Participation participation) {
         return _participations.Add(participation);
     }
 
@@ -439,65 +458,80 @@ public class Event extends Model {
      * @param gig A specific Gig of one Performer for a specific time.
      * @return All the Gigs of this Event.
      */
-    public Liszt<Gig> add(Gig gig) { return add(new Gig[]{gig}); }
+    public Entities<Gig> add(Gig gig) { return add(new Gig[]{gig}); }
 
     /**
      * Adds multiple given Gigs to the Liszt of Gigs in the current Event.
+     * Gigs that can't be added are left out, use importGigs() to know which and why.
      * @param gigs Determines some specific Gigs of one MusicalUser for a specific time.
      * @return All the Gigs of the current Event.
      */
-    public Liszt<Gig> add(Gig[] gigs) {
-        gigs = filter(gigs);
+    public Entities<Gig> add(Gig[] gigs) {
+        importGigs(Arrays.asList(gigs));
 
-        if (gigs.length > 0) {
-            _gigs.add(gigs);
-            add(createRequests(gigs));
+        return _gigs;
+    }
+
+    /**
+     * Imports many Gigs at once, such as the lineup of a festival.
+     * The Gigs are sorted by their start and validated in one sweep against the Schedule,
+     * where each accepted Gig is added to the Schedule, so the Gigs are also validated against each other.
+     * The Requests of new Performers are created together and the times of this Event are calculated once.
+     * @param gigs The Gigs that should be added.
+     * @return The Import with the accepted Gigs and the reason of each rejected Gig.
+     */
+    public Import importGigs(Collection<Gig> gigs) {
+        Schedule schedule = schedule();
+        Import result = new Import();
+
+        List<Gig> sorted = new ArrayList<>(gigs.size());
+        for (Gig gig : gigs) {
+            if (gig == null)
+                continue;
+            if (gig.get_start() == null || gig.get_end() == null)
+                result._rejections.put(gig, Import.Rejection.MISSING_TIME);
+            else if (gig.get_end().isBefore(gig.get_start()))
+                result._rejections.put(gig, Import.Rejection.ENDS_BEFORE_START);
+            else
+                sorted.add(gig);
+        }
+        sorted.sort(Comparator.comparing(Gig::get_start));
+
+        for (Gig gig : sorted) {
+            if (schedule.contains(gig) || _gigs.find(gig) != null)
+                result._rejections.put(gig, Import.Rejection.ALREADY_ADDED);
+            else if (schedule.overlaps(gig))
+                result._rejections.put(gig, Import.Rejection.OVERLAPPING);
+            else {
+                schedule.add(gig);
+                result._accepted.add(gig);
+            }
+        }
+
+        if (!result._accepted.isEmpty()) {
+            Gig[] accepted = result._accepted.toArray(new Gig[0]);
+            _gigs.Add(accepted);
+            add(createRequests(accepted));
 
             try {
                 calculateTime();
             } catch (InputMismatchException e) {
                 Printer.print("End date is before beginning date of " + _title + "...", e);
-                _gigs.remove(gigs);
             }
         }
 
-        return _gigs;
+        return result;
     }
 
     /**
-     * Removes all the Gigs, that already exists in this Event.
-     * @param gigs The Gigs that should be filtered.
-     * @return The filtered Gigs.
-     */
-    private Gig[] filter(Gig[] gigs) {
-        Gig[] storage = new Gig[gigs.length];
-
-        for (int i = 0; i < gigs.length; i++)
-            for (Performer stranger : gigs[i].get_act())
-                for (Gig gig : _gigs)
-                    for (Performer performer : gig.get_act())
-                        if (
-                            stranger.get_primaryId() != performer.get_primaryId()
-                            && !gigs[i].get_start().isEqual(gig.get_start())
-                            && !gigs[i].get_end().isEqual(gig.get_end())
-                        )
-                            storage[i] = gigs[i];
-
-        int length = 0;
-        for (Gig value : storage)
-            if (value != null)
-                length++;
-
-        int index = 0;
-        Gig[] filtered = new Gig[length];
-        for (Gig gig : storage) {
-            if (gig != null) {
-                filtered[index] = gig;
-                index++;
-            }
-        }
+     * Gets the Schedule of the Gigs, will build it first, if it isn't built yet.
+     * @return The Schedule of the Gigs.
+     */
+    private Schedule schedule() {
+        if (_schedule == null)
+            _schedule = new Schedule(_gigs);
 
-        return filtered;
+        return _schedule;
     }
 
     /**
@@ -505,17 +539,26 @@ public class Event extends Model {
      * @param gig Determines a specific gig, that is wished to be removed.
      * @return All the gigs of the current Event.
      */
-    public Liszt<Gig> remove(Gig gig) { return remove(new Gig[]{gig}); }
+    public Entities<Gig> remove(Gig gig) { return remove(new Gig[]{gig}); }
 
     /**
      * Removes some given Gigs from the Liszt of gigs from current Event.
+     * The Gigs are found by their ids, so the Gigs of this Event are removed, even if other versions are given.
      * Also removes the Requests of the given Gigs.
      * @param gigs Determines some specific gigs, that is wished to be removed.
      * @return All the Gigs of the current Event.
      */
-    public Liszt<Gig> remove(Gig[] gigs) {
-        _gigs.remove(gigs);
-        for (Gig gig : gigs)
+    public Entities<Gig> remove(Gig[] gigs) {
+        Schedule schedule = schedule();
+        List<Gig> removed = new ArrayList<>(gigs.length);
+        for (Gig gig : gigs) {
+            Gig local = _gigs.find(gig);
+            if (local != null && _gigs.remove(local))
+                removed.add(local);
+        }
+        for (Gig gig : removed)
+            schedule.remove(gig);
+        for (Gig gig : removed)
             for (Performer performer : gig.get_act())
                 if (!isPerformerInOtherGigs(performer))
                     removeRequests(performer);
@@ -531,12 +574,16 @@ public class Event extends Model {
      * @return True if the Performer is included in any Gig.
      */
     private boolean isPerformerInOtherGigs(Performer performer) {
-        for (Gig gig : _gigs)
-            for (Performer gigPerformer : gig.get_act())
-                if (gigPerformer.get_primaryId() == performer.get_primaryId())
-                    return true;
+        return schedule().contains(performer);
+    }
 
-        return false;
+    /**
+     * Counts the Gigs of this Event, that the Performer is part of.
+     * @param performer The Performer of the Gigs.
+     * @return The amount of Gigs with the Performer.
+     */
+    public int countGigs(Performer performer) {
+        return schedule().count(performer);
     }
 
     /**
@@ -544,14 +591,8 @@ public class Event extends Model {
      * @param performer The Performer that should have the Request excluded.
      * @return The Requests of this Event.
      */
-    private Liszt<Request> removeRequests(Performer performer) {
-        for (int i = 1; i <= _requests.size(); i++) {
-            if (_requests.Get(i).get_user().get_primaryId() == performer.get_primaryId()) {
-                _requests.Remove(i);
-                break;
-            }
-        }
-
+    private Entities<Request> removeRequests(Performer performer) {
+        _requests.Remove(performer.get_primaryId());
         return _requests;
     }
 
@@ -560,14 +601,14 @@ public class Event extends Model {
      * @param request Determines a specific Request, that is wished to be added.
      * @return All the Requests of the current Event.
      */
-    public Liszt<Request> add(Request request) { return add(new Request[]{request}); }
+    public Entities<Request> add(Request request) { return add(new Request[]{request}); }
 
     /**
      * Adds some given Requests to the Liszt of requests from current Event.
      * @param requests Determines some specific requests, that is wished to be added.
      * @return All the requests of the current Event.
      */
-    public Liszt<Request> add(Request[] requests) {
+    public Entities<Request> add(Request[] requests) {
         return add(new Liszt<>(requests));
     }
 
@@ -576,10 +617,8 @@ public class Event extends Model {
      * @param requests Determines some specific requests, that is wished to be added.
      * @return All the requests of the current Event.
      */
-    public Liszt<Request> add(Liszt<Request> requests) {
-        for (Request request : requests)
-            if (!_requests.contains(request))
-                _requests.add(request);
+    public Entities<Request> add(Liszt<Request> requests) {
+        _requests.addAll(requests);
 
         return _requests;
     }
@@ -591,23 +630,14 @@ public class Event extends Model {
      * @return All the created Requests.
      */
     private Request[] createRequests(Gig[] gigs) {
-        Request[] requests = new Request[gigs.length];
-
-        for (int i = 0; i < gigs.length; i++) {
-            for (User user : gigs[i].get_act()) {
-                boolean requestAlreadyExist = false;
-                for (Request request : _requests) {
-                    if (request.get_user().get_primaryId() == user.get_primaryId()) {
-                        requestAlreadyExist = true;
-                        break;
-                    }
-                }
-                if (!requestAlreadyExist)
-                    requests[i] = new Request(user, this);
-            }
-        }
+        Map<UUID, Request> requests = new LinkedHashMap<>();
+
+        for (Gig gig : gigs)
+            for (User user : gig.get_act())
+                if (_requests.find(user.get_primaryId()) == null)
+                    requests.computeIfAbsent(user.get_primaryId(), id -> new Request(user, this));
 
-        return requests;
+        return requests.values().toArray(new Request[0]);
     }
 
     /**
@@ -616,18 +646,13 @@ public class Event extends Model {
      * @param request The Request that is wished to have its approved set to true.
      * @return The Request that is changed. If it is not changed, it returns null.
      */
-    public Liszt<Request> accept(Request request) {
-        if (!_requests.contains(request))
+    public Entities<Request> accept(Request request) {
+        Request local = _requests.find(request);
+        if (local == null)
             return null;
 
-        for (Request local : _requests) {
-            if (local.get_primaryId().equals(request.get_primaryId())) {
-                local.set_approved(LocalDateTime.now());
-                return _requests;
-            }
-        }
-
-        return null;
+        local.set_approved(LocalDateTime.now());
+        return _requests;
     }
 
     /**
@@ -650,13 +675,9 @@ public class Event extends Model {
      * @return The Venue that is set of the Event.
      */
     public Venue set_venue(Venue venue) {
-        for (Request request : _requests) {
-            if (request.get_user().getClass() == Venue.class
-                    && request.get_user().get_primaryId() == _venue.get_primaryId()) {
-                _requests.remove(request);
-                break;
-            }
-        }
+        Request former = _venue != null ? _requests.find(_venue.get_primaryId()) : null;
+        if (former != null && former.get_user().getClass() == Venue.class)
+            _requests.remove(former);
 
         _public = null;
         _venue = venue;
@@ -671,7 +692,7 @@ public class Event extends Model {
      * @return The isCancelled Plato value.
      */
     public LocalDateTime changeCancelledStatus(Venue venue) {
-        if (venue.get_primaryId() == _venue.get_primaryId())
+        if (_venue != null && Objects.equals(venue.get_primaryId(), _venue.get_primaryId()))
             _cancelled = _cancelled == null
                     ? null
                     : LocalDateTime.now();
@@ -684,7 +705,7 @@ public class Event extends Model {
      * @param participations Determines some specific participants, that is wished to be added.
      * @return All the Participations of the current Event.
      */
-    public Seszt<Participation> add(Participation[] participations) {
+    public Entities<Participation> add(Participation[] participations) {
         return _participations.Add(participations);
     }
 
@@ -693,7 +714,7 @@ public class Event extends Model {
      * @param participation Determines a specific participant, that is wished to be removed.
      * @return All the Participations of the current Event.
      */
-    public Seszt<Participation> remove(Participation participation) {
+    public Entities<Participation> remove(Participation participation) {
         _participations.remove(participation);
         return _participations;
     }
@@ -703,7 +724,7 @@ public class Event extends Model {
      * @param post A specific Bulletin, that is wished to be added.
      * @return All the Bulletins of this Event.
      */
-    public Seszt<Post> add(Post post) {
+    public Entities<Post> add(Post post) {
         return _posts.Add(post);
     }
 
@@ -712,7 +733,7 @@ public class Event extends Model {
      * @param album A specific Album, that is wished to be added.
      * @return All the Albums of this Event.
      */
-    public Seszt<Album> add(Album album) {
+    public Entities<Album> add(Album album) {
         return _albums.Add(album);
     }
 
@@ -721,7 +742,7 @@ public class Event extends Model {
      * @param post Determines a specific bulletin, that is wished to be removed.
      * @return All the bulletins of the current Event.
      */
-    public Seszt<Post> remove(Post post) {
+    public Entities<Post> remove(Post post) {
         _posts.remove(post);
         return _posts;
     }
@@ -732,14 +753,11 @@ public class Event extends Model {
      * @return If the Participation is set successfully, it will return the Participation, else it will return null.
      */
     public Participation set(Participation participation) {
-        for (int i = 1; i <= _participations.size(); i++) {
-            if (_participations.Get(i).get_participant().get_primaryId() == participation.get_participant().get_primaryId()) {
-                _participations.Get(i).set_type(participation.get_type());
-                return _participations.Get(i);
-            }
-        }
+        Participation local = _participations.find(participation.get_participant().get_primaryId());
+        if (local != null)
+            local.set_type(participation.get_type());
 
-        return null;
+        return local;
     }
 
     /**
@@ -748,16 +766,7 @@ public class Event extends Model {
      * @return If the Bulletin is set successfully, it will return the Bulletin, else it will return null.
      */
     public Post set(Post post) {
-        for (int i = 1; i <= _posts.size(); i++) {
-            Post localPost = _posts.Get(i);
-
-            if (localPost.get_primaryId() == post.get_primaryId()) {
-                _posts.Set(i, post);
-                return _posts.Get(i);
-            }
-        }
-
-        return null;
+        return _posts.set(post) != null ? post : null;
     }
 
     /**
@@ -766,18 +775,12 @@ public class Event extends Model {
      * @return If the Request is set successfully, it will return the Request, else it will return null.
      */
     public Request set(Request request) {
-        for (int i = 1; i <= _requests.size(); i++) {
-            Request localRequest = _requests.Get(i);
-
-            if (
-                localRequest.get_primaryId() == request.get_primaryId()
-                && Objects.equals(localRequest.get_secondaryId(), request.get_secondaryId())
-            ) {
-               return _requests.Set(i, request).Get(i);
-            }
-        }
+        Request local = _requests.find(request);
+        if (local == null || !Objects.equals(local.get_secondaryId(), request.get_secondaryId()))
+            return null;
 
-        return null;
+        _requests.set(request);
+        return request;
     }
 
     /**
@@ -786,15 +789,7 @@ public class Event extends Model {
      * @return If the Album is set successfully, it will return the Album, else it will return null.
      */
     public Album set(Album album) {
-        for (int i = 1; i <= _albums.size(); i++) {
-            Album localAlbum = _albums.Get(i);
-
-            if (localAlbum.get_primaryId() == album.get_primaryId()) {;
-                return _albums.Set(i, album).Get(i);
-            }
-        }
-
-        return null;
+        return _albums.set(album) != null ? album : null;
     }
 
     /**
@@ -803,49 +798,310 @@ public class Event extends Model {
      * @return If the Gig is set successfully, it will return the Gig, else it will return null.
      */
     public Gig set(Gig gig) {
-        for (int i = 1; i <= _gigs.size(); i++) {
+        Gig set = null;
+        for (Gig local : _gigs) {
             int sharedActs = 0;
 
-            for (int j = 0; j < _gigs.get(i).get_act().size(); j++)
-                for (Performer performer : gig.get_act())
-                    if (_gigs.get(i).get_act().get(j).get_primaryId() == performer.get_primaryId())
-                        sharedActs++;
-
-            if (sharedActs == _gigs.get(i).get_act().size()) {
-                _gigs.get(i).set_start(gig.get_start());
-                _gigs.get(i).set_end(gig.get_end());
+            for (Performer performer : gig.get_act())
+                if (local.contains(performer))
+                    sharedActs++;
+
+            if (sharedActs == local.get_act().size()) {
+                schedule().remove(local);
+                local.set_start(gig.get_start());
+                local.set_end(gig.get_end());
+                schedule().add(local);
+                set = local;
             }
         }
 
-        return _gigs.Get(gig.toString());
+        try {
+            calculateTime();
+        } catch (InputMismatchException e) {
+            Printer.print("End date is before beginning date of " + _title + "...", e);
+        }
+
+        return set;
     }
 
     /**
      * Sets the beginning and end of the event to match all the current gigs.
      * Important to use after each change of gigs.
+     * The first start and last end are read from the Schedule, which is kept up to date by each change,
+     * so it doesn't go through the Gigs.
      * @return The calculated length between first beginning and latest end in milliseconds.
      * @throws InputMismatchException In case that the end is before the beginning.
      */
     private long calculateTime() throws InputMismatchException {
-        _start = _gigs.isEmpty() ? null : _gigs.Get(1).get_start();
-        _end = _gigs.isEmpty() ? null : _gigs.Get(1).get_end();
-
-        if ((_end != null && _start != null) && Duration.between(_end, _start).getSeconds() > 0)
+        Schedule schedule = schedule();
+        if (schedule.hasReversed())
             throw new InputMismatchException();
 
-        if (_start != null && _end != null)
-            if (_end.isAfter(_start)) {
+        _start = schedule.start();
+        _end = schedule.end();
 
-                if (_gigs.size() > 1)
-                    for (Gig gig : _gigs) {
-                        if (gig.get_start().isBefore(_start)) _start = gig.get_start();
-                        if (gig.get_end().isAfter(_end)) _end = gig.get_end();
-                    }
+        if (_start != null && _end != null && _end.isAfter(_start))
+            _duration = Duration.between(_start, _end).toMillis();
+
+        return _duration;
+    }
+
+    /**
+     * The result of importing Gigs, with the Gigs that are added and the Gigs that are rejected.
+     */
+    @Getter
+    public static class Import {
+
+        /**
+         * The Gigs that are added, sorted by their start.
+         */
+        private final Liszt<Gig> _accepted = new Liszt<>();
+
+        /**
+         * The Gigs that aren't added, with the reason why, in the order they were rejected.
+         */
+        private final Map<Gig, Rejection> _rejections = new LinkedHashMap<>();
+
+        private Import() {}
+
+        /**
+         * Checks if every Gig was added.
+         * @return True if none of the Gigs are rejected.
+         */
+        public boolean isComplete() {
+            return _rejections.isEmpty();
+        }
+
+        /**
+         * The reasons for a Gig to be rejected.
+         */
+        public enum Rejection {
+            /** The Gig is missing its start or end. */
+            MISSING_TIME,
+            /** The Gig ends before it starts. */
+            ENDS_BEFORE_START,
+            /** The Gig is already part of the Event. */
+            ALREADY_ADDED,
+            /** A Performer of the Gig already has a Gig at the same time. */
+            OVERLAPPING
+        }
+    }
+
+    /**
+     * An index of the times of Gigs, so the start and end of all the Gigs,
+     * and whether a Gig overlaps another Gig of the same Performer, are found in logarithmic time.
+     * Also keeps the Gigs of each Performer, so the amount of Gigs of a Performer is found without going through the Gigs.
+     * Gigs that are changed after they are added must be removed and added again,
+     * the times they were added with are kept, so they can be removed after their times are changed.
+     */
+    private static class Schedule {
+
+        /** The start and end that each Gig was indexed with, by the identity of the Gigs, where the times can be null. */
+        private final Map<Gig, LocalDateTime[]> _indexed = new IdentityHashMap<>();
+
+        /** The amount of Gigs that starts at each time. */
+        private final TreeMap<LocalDateTime, Integer> _starts = new TreeMap<>();
+
+        /** The amount of Gigs that ends at each time. */
+        private final TreeMap<LocalDateTime, Integer> _ends = new TreeMap<>();
+
+        /** The Gigs of each Performer, with the primary ids of the Performers as keys. */
+        private final Map<UUID, Set<Gig>> _gigs = new HashMap<>();
+
+        /**
+         * The times each Performer is busy, with the primary ids of the Performers as keys.
+         * Each time is from the start as key to the end as value, where Gigs that overlap or follow each other are merged.
+         */
+        private final Map<UUID, TreeMap<LocalDateTime, LocalDateTime>> _busy = new HashMap<>();
 
-                _duration = Duration.between(_start, _end).toMillis();
+        /** The amount of Gigs that ends before they start. */
+        private int _reversed;
+
+        /**
+         * @param gigs The Gigs that should be indexed, can be null.
+         */
+        private Schedule(Iterable<Gig> gigs) {
+            if (gigs != null)
+                for (Gig gig : gigs)
+                    add(gig);
+        }
+
+        /**
+         * Adds a Gig to the Gigs of its Performers and adds its times, Gigs that are already added are ignored.
+         * The times of Gigs without a start or end are ignored, and Gigs that end before they start don't make their Performers busy,
+         * but they are still Gigs of their Performers.
+         * @param gig The Gig to be added.
+         */
+        private void add(Gig gig) {
+            LocalDateTime start = gig.get_start(), end = gig.get_end();
+            LocalDateTime[] times = new LocalDateTime[]{ start, end };
+            if (_indexed.putIfAbsent(gig, times) != null)
+                return;
+
+            for (Performer performer : gig.get_act())
+                _gigs.computeIfAbsent(performer.get_primaryId(), id -> new LinkedHashSet<>()).add(gig);
+            if (start == null || end == null)
+                return;
+
+            _starts.merge(start, 1, Integer::sum);
+            _ends.merge(end, 1, Integer::sum);
+            if (end.isBefore(start)) {
+                _reversed++;
+                return;
             }
 
-        return _duration;
+            for (Performer performer : gig.get_act())
+                occupy(_busy.computeIfAbsent(performer.get_primaryId(), id -> new TreeMap<>()), start, end);
+        }
+
+        /**
+         * Removes a Gig from the Gigs of its Performers and removes its times,
+         * the busy times of its Performers are found again from their other Gigs.
+         * Gigs that aren't added are ignored.
+         * @param gig The Gig to be removed.
+         */
+        private void remove(Gig gig) {
+            LocalDateTime[] times = _indexed.remove(gig);
+            if (times == null)
+                return;
+            LocalDateTime start = times[0], end = times[1];
+
+            if (start != null && end != null) {
+                decrement(_starts, start);
+                decrement(_ends, end);
+                if (end.isBefore(start))
+                    _reversed--;
+            }
+
+            for (Performer performer : gig.get_act()) {
+                Set<Gig> gigs = _gigs.get(performer.get_primaryId());
+                if (gigs == null || !gigs.remove(gig))
+                    continue;
+
+                if (gigs.isEmpty()) {
+                    _gigs.remove(performer.get_primaryId());
+                    _busy.remove(performer.get_primaryId());
+                    continue;
+                }
+                if (!isBusy(times))
+                    continue;
+
+                TreeMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+                for (Gig other : gigs) {
+                    LocalDateTime[] others = _indexed.get(other);
+                    if (isBusy(others))
+                        occupy(busy, others[0], others[1]);
+                }
+                if (busy.isEmpty())
+                    _busy.remove(performer.get_primaryId());
+                else
+                    _busy.put(performer.get_primaryId(), busy);
+            }
+        }
+
+        /**
+         * Checks if the times of a Gig makes its Performers busy, which they do when they have a start and end in order.
+         * @param times The start and end, that the Gig was added with.
+         * @return True if the Performers are busy during the times.
+         */
+        private static boolean isBusy(LocalDateTime[] times) {
+            return times[0] != null && times[1] != null && !times[1].isBefore(times[0]);
+        }
+
+        /**
+         * Checks if any Performer of a Gig already has a Gig at the same time.
+         * Gigs that only follow each other doesn't overlap.
+         * @param gig The Gig that might overlap.
+         * @return True if it overlaps.
+         */
+        private boolean overlaps(Gig gig) {
+            for (Performer performer : gig.get_act()) {
+                TreeMap<LocalDateTime, LocalDateTime> busy = _busy.get(performer.get_primaryId());
+                if (busy == null)
+                    continue;
+
+                Map.Entry<LocalDateTime, LocalDateTime> before = busy.lowerEntry(gig.get_end());
+                if (before != null && before.getValue().isAfter(gig.get_start()))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Checks if a Performer has any Gig.
+         * @param performer The Performer that might have a Gig.
+         * @return True if the Performer has a Gig.
+         */
+        private boolean contains(Performer performer) {
+            return _gigs.containsKey(performer.get_primaryId());
+        }
+
+        /**
+         * Checks if a Gig is added.
+         * @param gig The Gig that might be added.
+         * @return True if it is added.
+         */
+        private boolean contains(Gig gig) {
+            return _indexed.containsKey(gig);
+        }
+
+        /**
+         * Counts the Gigs of a Performer.
+         * @param performer The Performer of the Gigs.
+         * @return The amount of Gigs, that the Performer is part of.
+         */
+        private int count(Performer performer) {
+            Set<Gig> gigs = _gigs.get(performer.get_primaryId());
+            return gigs != null ? gigs.size() : 0;
+        }
+
+        /**
+         * Adds a time to the busy times, merged with the times it overlaps or follows.
+         */
+        private static void occupy(TreeMap<LocalDateTime, LocalDateTime> busy, LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.floorEntry(start);
+            if (before != null && !before.getValue().isBefore(start)) {
+                start = before.getKey();
+                if (before.getValue().isAfter(end))
+                    end = before.getValue();
+                busy.remove(before.getKey());
+            }
+
+            for (
+                Map.Entry<LocalDateTime, LocalDateTime> after = busy.ceilingEntry(start);
+                after != null && !after.getKey().isAfter(end);
+                after = busy.ceilingEntry(start)
+            ) {
+                if (after.getValue().isAfter(end))
+                    end = after.getValue();
+                busy.remove(after.getKey());
+            }
+
+            busy.put(start, end);
+        }
+
+        /**
+         * Decreases the amount of Gigs at a time, and removes the time when there aren't any left.
+         */
+        private static void decrement(TreeMap<LocalDateTime, Integer> times, LocalDateTime time) {
+            times.computeIfPresent(time, (key, amount) -> amount > 1 ? amount - 1 : null);
+        }
+
+        /** @return The start of the first Gig, or null if there aren't any Gigs. */
+        private LocalDateTime start() {
+            return _starts.isEmpty() ? null : _starts.firstKey();
+        }
+
+        /** @return The end of the last Gig, or null if there aren't any Gigs. */
+        private LocalDateTime end() {
+            return _ends.isEmpty() ? null : _ends.lastKey();
+        }
+
+        /** @return True if any Gig ends before it starts. */
+        private boolean hasReversed() {
+            return _reversed > 0;
+        }
     }
 
     @Override
@@ -872,7 +1128,7 @@ public class Event extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
         /**
@@ -898,6 +1154,7 @@ public class Event extends Model {
          * The amount of time it will take the gigs in total.
          * Is being calculated automatically.
          */
+        @Mapped.From("_duration")
         private long length;
 
         /**
@@ -908,22 +1165,26 @@ public class Event extends Model {
         /**
          * This Event is paid or voluntary.
          */
+        @Mapped.Skip
         private Plato.Argument isVoluntary;
 
         /**
          * If this is a public Event, other Users can view and interact with it.
          */
+        @Mapped.From("_public")
         private LocalDateTime isPublic;
 
         /**
          * Will be true, if this Event is cancelled.
          * Can only be cancelled by the Venue.
          */
+        @Mapped.From("_cancelled")
         private LocalDateTime isCancelled;
 
         /**
          * This is marked if there is no more tickets to sell.
          */
+        @Mapped.From("_soldOut")
         private LocalDateTime isSoldOut;
 
         /**
@@ -935,11 +1196,13 @@ public class Event extends Model {
         /**
          * The options that are available for tickets to be bought or reserved.
          */
+        @Mapped.Skip
         private Seszt<Ticket.Option.DTO> ticketOptions;
 
         /**
          * The tickets that have been bought or reserved.
          */
+        @Mapped.Skip
         private Seszt<Ticket.DTO> tickets;
 
         /** Different information of contacting. */
@@ -982,58 +1245,31 @@ public class Event extends Model {
          * @param event The Object to be converted.
          */
         public DTO(Event event) {
-            super(event);
-            description = event.get_description();
-
-            if (event.get_gigs() != null) {
-                gigs = new Gig.DTO[event.get_gigs().size()];
-                for (int i = 0; i < gigs.length; i++)
-                    gigs[i] = new Gig.DTO(event.get_gigs().Get(i+1));
-            }
+            this(event, new ConversionContext());
+        }
 
-            openDoors = event.get_openDoors();
-            start = event.get_start();
-            end = event.get_end();
-            length = event.get_duration();
+        /**
+         * Converts into this DTO Object.
+         * @param event The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Event event, ConversionContext context) {
+            super(event, context);
+            if (context.isReference())
+                return;
 
+            EventMapper.map(event, this, context);
             isVoluntary = event.get_voluntary() != null ? event.get_voluntary().get_argument() : null;
-            isPublic = event.get_public() != null ? event.get_public() : null;
-            isCancelled = event.get_cancelled() != null ? event.get_cancelled() : null;
-            isSoldOut = event.get_soldOut() != null ? event.get_soldOut() : null;
 
             ticketOptions = new Seszt<>();
-            for (Ticket.Option option : event.get_ticketOptions())
-                ticketOptions.add(new Ticket.Option.DTO(option));
+            if (context.includes(event, Fields._ticketOptions))
+                for (Ticket.Option option : event.get_ticketOptions())
+                    ticketOptions.add(context.convert(option, Ticket.Option.DTO::new));
 
             tickets = new Seszt<>();
-            for (Ticket ticket : event.get_tickets())
-                tickets.add(new Ticket.DTO(ticket));
-
-            contactInfo = event.get_contactInfo() != null ? new ContactInfo.DTO(event.get_contactInfo()) : null;
-            venue = new Venue.DTO(event.get_venue());
-
-            location = event.get_location();
-
-            if (event.get_requests() != null) {
-                requests = new Request.DTO[event.get_requests().size()];
-                for (int i = 0; i < requests.length; i++)
-                    requests[i] = new Request.DTO(event.get_requests().Get(i+1));
-            }
-            if (event.get_participations() != null) {
-                participations = new Participation.DTO[event.get_participations().size()];
-                for (int i = 0; i < participations.length; i++)
-                    participations[i] = new Participation.DTO(event.get_participations().Get(i+1));
-            }
-            if (event.get_posts() != null) {
-                posts = new Post.DTO[event.get_posts().size()];
-                for (int i = 0; i < posts.length; i++)
-                    posts[i] = new Post.DTO(event.get_posts().Get(i+1));
-            }
-            if (event.get_albums() != null) {
-                albums = new Album.DTO[event.get_albums().size()];
-                for (int i = 0; i < albums.length; i++)
-                    albums[i] = new Album.DTO(event.get_albums().Get(i+1));
-            }
+            if (context.includes(event, Fields._tickets))
+                for (Ticket ticket : event.get_tickets())
+                    tickets.add(context.convert(ticket, Ticket.DTO::new));
         }
     }
 
@@ -1068,9 +1304,18 @@ public class Event extends Model {
          * @param gig The transport object to be transformed.
          */
         public Gig(DTO gig) {
-            super(gig);
-            _event = new Event(gig.getEvent());
-            _act = convert(gig.getAct());
+            this(gig, new ConversionContext());
+        }
+
+        /**
+         * Will translate a transport object of this object into a construct of this object.
+         * @param gig The transport object to be transformed.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public Gig(DTO gig, ConversionContext context) {
+            super(gig, context);
+            _event = context.convert(gig.getEvent(), Event::new);
+            _act = convert(gig.getAct(), context);
             _start = gig.getStart();
             _end = gig.getEnd();
         }
@@ -1078,12 +1323,13 @@ public class Event extends Model {
         /**
          * Converts dto Performers (acts) into the act.
          * @param dtos The dto objects to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
          * @return The performances for this Gig.
          */
-        private Seszt<Performer> convert(Performer.DTO[] dtos) {
+        private Seszt<Performer> convert(Performer.DTO[] dtos, ConversionContext context) {
             Seszt<Performer> performances = new Seszt<>();
             for (Performer.DTO performerDTO : dtos)
-                performances.add((Performer) DTOService.convert(performerDTO));
+                performances.add((Performer) DTOService.convert(performerDTO, context));
 
             return performances;
         }
@@ -1134,7 +1380,7 @@ public class Event extends Model {
          */
         public boolean contains(Performer performer) {
             for (Performer actor : _act)
-                if (actor.get_primaryId() == performer.get_primaryId())
+                if (Objects.equals(actor.get_primaryId(), performer.get_primaryId()))
                     return true;
 
             return false;
@@ -1181,7 +1427,7 @@ public class Event extends Model {
          * Is meant to be used as having common fields and be the body of Requests and Responses.
          * Doesn't have any logic.
          */
-        @Getter
+        @Getter @Setter @Mapped
         public static class DTO extends ModelDTO {
 
             /** The Event of this Gig. */
@@ -1201,13 +1447,20 @@ public class Event extends Model {
              * @param gig The Object to be converted.
              */
             public DTO(Gig gig) {
-                super(gig);
-                event = new Event.DTO(gig.get_event());
-                act = new Performer.PerformerDTO[gig.get_act().size()];
-                for (int i = 0; i < act.length; i++)
-                    act[i] = (Performer.PerformerDTO) DTOService.convert(gig.get_act().get(i));
-                start = gig.get_start();
-                end = gig.get_end();
+                this(gig, new ConversionContext());
+            }
+
+            /**
+             * Converts into this DTO Object.
+             * @param gig The Object to be converted.
+             * @param context The context of the conversion, that keeps track of what has already been converted.
+             */
+            public DTO(Gig gig, ConversionContext context) {
+                super(gig, context);
+                if (context.isReference())
+                    return;
+
+                EventGigMapper.map(gig, this, context);
             }
         }
     }
@@ -1234,8 +1487,17 @@ public class Event extends Model {
          * @param participation The transport object to be transformed.
          */
         public Participation(DTO participation) {
-            super(participation);
-            _participant = (Participant) DTOService.convert(participation.getParticipant());
+            this(participation, new ConversionContext());
+        }
+
+        /**
+         * Will translate a transport object of this object into a construct of this object.
+         * @param participation The transport object to be transformed.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public Participation(DTO participation, ConversionContext context) {
+            super(participation, context);
+            _participant = (Participant) DTOService.convert(participation.getParticipant(), context);
             _type = Type.valueOf(participation.getType().toString());
         }
 
@@ -1306,13 +1568,14 @@ public class Event extends Model {
          * Is meant to be used as having common fields and be the body of Requests and Responses.
          * Doesn't have any logic.
          */
-        @Getter @Setter
+        @Getter @Setter @Mapped
         public static class DTO extends ModelDTO {
 
             /** The Participant of the participation. */
             private Participant.DTO participant;
 
             /** The Event of the participation. */
+            @Mapped.Skip
             private Event.DTO event;
 
             /** The type of which participant is participating in the participation. */
@@ -1323,9 +1586,20 @@ public class Event extends Model {
              * @param participation The Object to be converted.
              */
             public DTO(Participation participation) {
-                super(participation);
-                participant = new Participant.DTO(participation.get_participant());
-                type = ParticipationType.valueOf(participation.get_type().toString());
+                this(participation, new ConversionContext());
+            }
+
+            /**
+             * Converts into this DTO Object.
+             * @param participation The Object to be converted.
+             * @param context The context of the conversion, that keeps track of what has already been converted.
+             */
+            public DTO(Participation participation, ConversionContext context) {
+                super(participation, context);
+                if (context.isReference())
+                    return;
+
+                EventParticipationMapper.map(participation, this, context);
             }
 
             /** Each Participation have four different choices of participating. */
@@ -1,5 +1,6 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
 import laustrup.utilities.console.Printer;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,7 +8,10 @@ import lombok.ToString;
 import lombok.experimental.FieldNameConstants;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * The base of many objects, that share these same attributes.
@@ -90,11 +94,41 @@ public abstract class Model {
     private final String _toStringFieldSplitter = ",\n \t",
             _toStringKeyValueSplitter = ":\t";
 
+    /**
+     * Conversions of fields, that are postponed until the fields are used the first time.
+     * Each conversion is given the context when it is done, so it only keeps the transport objects of its own field.
+     * Keys are the names of the fields from the FieldNameConstants.
+     * Is null when nothing is postponed.
+     */
+    @FieldNameConstants.Exclude
+    private Map<String, Consumer<ConversionContext>> _hydrations;
+
+    /**
+     * The context of the conversion, that the postponed conversions are done with.
+     * Since the context isn't thread safe, it is also the lock of the postponed conversions,
+     * which is shared by every Model of the same conversion.
+     * Is released when every postponed conversion is done.
+     */
+    @FieldNameConstants.Exclude
+    private volatile ConversionContext _hydrating;
+
     /**
      * Converts the data transport object into this model.
      * @param model The data transport model to be converted.
      */
     public Model(ModelDTO model) {
+        this(model, new ConversionContext());
+    }
+
+    /**
+     * Converts the data transport object into this model.
+     * Registers this model in the context, so references back to the data transport object
+     * will be converted into this same model.
+     * @param model The data transport model to be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Model(ModelDTO model, ConversionContext context) {
+        context.register(model, this);
         _primaryId = model.getPrimaryId();
         _secondaryId = model.getSecondaryId();
         _title = model.getClass().getSimpleName() + " \"" + model.getPrimaryId() + "\"";
@@ -186,6 +220,73 @@ public abstract class Model {
     }
 
 
+    /**
+     * Will convert a field from its data transport object,
+     * either now or when the field is used the first time, if the context is lazy.
+     * @param field The name of the field from the FieldNameConstants.
+     * @param context The context of the conversion, that decides if it is lazy.
+     * @param hydration The conversion of the field.
+     */
+    protected void hydrate(String field, ConversionContext context, Consumer<ConversionContext> hydration) {
+        if (!context.isLazy()) {
+            hydration.accept(context);
+            return;
+        }
+
+        synchronized (context) {
+            if (_hydrations == null)
+                _hydrations = new HashMap<>();
+            _hydrations.put(field, hydration);
+            _hydrating = context;
+        }
+    }
+
+    /**
+     * Converts the field, if its conversion has been postponed.
+     * Should be used before the field is used, such as in its getter.
+     * The conversion is done while holding the context, so Models of the same conversion
+     * can be used from different threads, and the context is released after the last postponed field is converted,
+     * so a thread that sees it released also sees the converted fields.
+     * @param field The name of the field from the FieldNameConstants.
+     */
+    protected void hydrate(String field) {
+        ConversionContext context = _hydrating;
+        if (context == null)
+            return;
+
+        synchronized (context) {
+            if (_hydrations == null)
+                return;
+
+            Consumer<ConversionContext> hydration = _hydrations.remove(field);
+            try {
+                if (hydration != null)
+                    hydration.accept(context);
+            } finally {
+                // The conversion can hydrate other fields of this Model, which might already have released it.
+                if (_hydrations != null && _hydrations.isEmpty()) {
+                    _hydrations = null;
+                    _hydrating = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the field has been converted, meaning that its conversion isn't postponed.
+     * @param field The name of the field from the FieldNameConstants.
+     * @return True if the field isn't waiting to be converted.
+     */
+    public boolean isHydrated(String field) {
+        ConversionContext context = _hydrating;
+        if (context == null)
+            return true;
+
+        synchronized (context) {
+            return _hydrations == null || !_hydrations.containsKey(field);
+        }
+    }
+
     /**
      * Checks if secondary id is null.
      * @return True if secondary id isn't null.
@@ -284,10 +385,23 @@ public abstract class Model {
         protected Situation situation;
 
         public ModelDTO(Model model) {
+            this(model, new ConversionContext());
+        }
+
+        /**
+         * Converts the model into this data transport object.
+         * Registers this data transport object in the context, so references back to the model
+         * will be converted into this same data transport object.
+         * In case that it is only converted as a reference, the history will not be included.
+         * @param model The model to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public ModelDTO(Model model, ConversionContext context) {
+            context.register(model, this);
             primaryId = model.get_primaryId();
             secondaryId = model.get_secondaryId();
             title = model.get_title();
-            history = model.get_history();
+            history = context.isReference() ? null : model.get_history();
             timestamp = model.get_timestamp();
             situation = model.get_situation();
         }
@@ -0,0 +1,247 @@
+package laustrup.models;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An amount of money as a whole number of the smallest unit of its currency, such as øre of DKK or cents of EUR.
+ * The arithmetic is exact, where an amount that doesn't fit in a long throws an ArithmeticException,
+ * and amounts of different currencies can't be mixed.
+ * The currencies are interned, so there is only one Currency of each code, which are compared by reference.
+ * Can be converted to and from the price and valuta of a TicketBase and its DTO.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * The amount in the smallest unit of the currency.
+     */
+    @Getter
+    private final long _amount;
+
+    /**
+     * The currency of the amount.
+     */
+    @Getter
+    private final Currency _currency;
+
+    private Money(long amount, Currency currency) {
+        _amount = amount;
+        _currency = currency;
+    }
+
+    /**
+     * Creates an amount from the smallest unit of a currency.
+     * @param amount The amount in the smallest unit, such as 12550 for 125.50 DKK.
+     * @param valuta The code of the currency.
+     * @return The Money.
+     */
+    public static Money of(long amount, String valuta) {
+        return new Money(amount, Currency.of(valuta));
+    }
+
+    /**
+     * Creates an amount from a price, that is rounded half even to the smallest unit of the currency.
+     * @param price The price, such as the price of a TicketBase.
+     * @param valuta The code of the currency, such as the valuta of a TicketBase.
+     * @return The Money or null, if the price is null.
+     * @throws ArithmeticException If the amount doesn't fit in a long.
+     */
+    public static Money of(BigDecimal price, String valuta) {
+        if (price == null)
+            return null;
+
+        Currency currency = Currency.of(valuta);
+        return new Money(minorUnits(price, currency), currency);
+    }
+
+    /**
+     * Rounds a price half even to the smallest unit of a currency.
+     * @throws ArithmeticException If the amount doesn't fit in a long.
+     */
+    private static long minorUnits(BigDecimal price, Currency currency) {
+        return price.setScale(currency._digits, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Creates the amount of the price and valuta of a ticket.
+     * @param ticket The ticket or option with the price.
+     * @return The Money or null, if the ticket doesn't have a price.
+     */
+    public static Money of(TicketBase ticket) {
+        return ticket.toMoney();
+    }
+
+    /**
+     * Creates the amount of the price and valuta of a transport object of a ticket.
+     * @param ticket The transport object with the price.
+     * @return The Money or null, if the ticket doesn't have a price.
+     */
+    public static Money of(TicketBase.DTO ticket) {
+        return of(ticket.getPrice(), ticket.getValuta());
+    }
+
+    /**
+     * Adds the prices of tickets, without creating any amounts in between.
+     * Uses the Money that each ticket keeps of its price, so the price is only rounded once for each ticket.
+     * @param tickets The tickets to sum, they must have the same currency.
+     * @param valuta The code of the currency of the tickets.
+     * @return The total amount.
+     * @throws IllegalArgumentException If a ticket is in another currency.
+     * @throws ArithmeticException If the total doesn't fit in a long.
+     */
+    public static Money sum(Iterable<? extends TicketBase> tickets, String valuta) {
+        Currency currency = Currency.of(valuta);
+        long total = 0;
+
+        for (TicketBase ticket : tickets) {
+            Money money = ticket.toMoney();
+            if (money == null)
+                continue;
+            if (money._currency != currency)
+                throw new IllegalArgumentException(
+                        "Can't sum " + ticket.get_valuta() + " into " + currency._code
+                );
+
+            total = Math.addExact(total, money._amount);
+        }
+
+        return new Money(total, currency);
+    }
+
+    /**
+     * Adds another amount of the same currency.
+     * @param money The amount to add.
+     * @return The sum.
+     * @throws IllegalArgumentException If the currencies are different.
+     * @throws ArithmeticException If the sum doesn't fit in a long.
+     */
+    public Money plus(Money money) {
+        return new Money(Math.addExact(_amount, sameCurrency(money)._amount), _currency);
+    }
+
+    /**
+     * Subtracts another amount of the same currency.
+     * @param money The amount to subtract.
+     * @return The difference.
+     * @throws IllegalArgumentException If the currencies are different.
+     * @throws ArithmeticException If the difference doesn't fit in a long.
+     */
+    public Money minus(Money money) {
+        return new Money(Math.subtractExact(_amount, sameCurrency(money)._amount), _currency);
+    }
+
+    /**
+     * Multiplies the amount, such as the price of a ticket by a quantity.
+     * @param times The amount of times.
+     * @return The product.
+     * @throws ArithmeticException If the product doesn't fit in a long.
+     */
+    public Money times(long times) {
+        return new Money(Math.multiplyExact(_amount, times), _currency);
+    }
+
+    private Money sameCurrency(Money money) {
+        if (money._currency != _currency)
+            throw new IllegalArgumentException(
+                    "Can't combine " + money._currency._code + " with " + _currency._code
+            );
+
+        return money;
+    }
+
+    /**
+     * Converts into a price, with the scale of the smallest unit of the currency.
+     * @return The price, that can be set as the price of a TicketBase.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(_amount, _currency._digits);
+    }
+
+    /**
+     * @return The code of the currency, that can be set as the valuta of a TicketBase.
+     */
+    public String get_valuta() {
+        return _currency._code;
+    }
+
+    /**
+     * Compares amounts of the same currency.
+     * @throws IllegalArgumentException If the currencies are different.
+     */
+    @Override
+    public int compareTo(Money money) {
+        return Long.compare(_amount, sameCurrency(money)._amount);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof Money money && money._amount == _amount && money._currency == _currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(_amount) * 31 + _currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + _currency._code;
+    }
+
+    /**
+     * The currency of an amount, where there is only one Currency of each code.
+     */
+    public static final class Currency {
+
+        /**
+         * The interned currencies by their code.
+         */
+        private static final ConcurrentHashMap<String, Currency> _currencies = new ConcurrentHashMap<>();
+
+        /**
+         * The code of the currency, such as DKK.
+         */
+        @Getter
+        private final String _code;
+
+        /**
+         * The amount of decimals of the smallest unit, such as 2 for øre of DKK.
+         */
+        @Getter
+        private final int _digits;
+
+        private Currency(String code) {
+            _code = code;
+
+            int digits;
+            try {
+                digits = java.util.Currency.getInstance(code).getDefaultFractionDigits();
+            } catch (IllegalArgumentException e) {
+                digits = -1;
+            }
+            _digits = digits >= 0 ? digits : 2;
+        }
+
+        /**
+         * Gets the interned Currency of a code.
+         * @param code The code of the currency, such as DKK.
+         * @return The Currency of the code.
+         * @throws IllegalArgumentException If the code is null or blank.
+         */
+        public static Currency of(String code) {
+            if (code == null || code.isBlank())
+                throw new IllegalArgumentException("A currency must have a code");
+
+            Currency currency = _currencies.get(code);
+            return currency != null ? currency : _currencies.computeIfAbsent(code, Currency::new);
+        }
+
+        @Override
+        public String toString() {
+            return _code;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package laustrup.models;
+
+import laustrup.services.Reference;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The differences between two versions of the same Model.
+ * Contains the fields that have changed, the Models that have been added to or removed from collections by their Reference,
+ * and the patches of nested Models, that exist in both versions, but have changed.
+ * Can be applied to the earlier version, in order to make it like the later version.
+ * The History isn't compared, since it is only meant to be added to.
+ * Transient fields aren't compared either, since they are found from the other fields,
+ * they are cleared when a Patch is applied, so they are found again from the changed fields.
+ */
+@Getter
+public class Patch {
+
+    /**
+     * Fields that are never compared, by their names from the FieldNameConstants.
+     */
+    private static final Set<String> _ignored = Set.of(
+            Model.Fields._history,
+            "_hydrations",
+            "_hydrating",
+            "_toStringFieldSplitter",
+            "_toStringKeyValueSplitter"
+    );
+
+    /**
+     * The fields of each Model class, including the fields of its superclasses, that can be compared.
+     */
+    private static final ClassValue<List<Field>> _fields = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass())
+                for (Field field : current.getDeclaredFields())
+                    if (
+                        !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+                        && !field.isSynthetic() && !_ignored.contains(field.getName())
+                    ) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    /**
+     * The transient fields of each Model class, that are cleared when a Patch is applied.
+     */
+    private static final ClassValue<List<Field>> _transients = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass())
+                for (Field field : current.getDeclaredFields())
+                    if (
+                        Modifier.isTransient(field.getModifiers()) && !Modifier.isStatic(field.getModifiers())
+                        && !field.getType().isPrimitive()
+                    ) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    /**
+     * The Reference of the Model that this Patch is for.
+     */
+    private final Reference _reference;
+
+    /**
+     * The fields that have changed with their new values, by their names from the FieldNameConstants.
+     * Nested Models are only here, if they have been replaced by another Model.
+     */
+    private final Map<String, Object> _changes = new LinkedHashMap<>();
+
+    /**
+     * The Models that have been added to collections, by the names of the collections.
+     */
+    private final Map<String, List<Model>> _additions = new LinkedHashMap<>();
+
+    /**
+     * The References of the Models that have been removed from collections, by the names of the collections.
+     */
+    private final Map<String, Set<Reference>> _removals = new LinkedHashMap<>();
+
+    /**
+     * The Patches of nested Models, that are in both versions but have changed, by the names of the fields.
+     */
+    private final Map<String, Map<Reference, Patch>> _updates = new LinkedHashMap<>();
+
+    /**
+     * @param reference The Reference of the Model that this Patch is for.
+     */
+    private Patch(Reference reference) {
+        _reference = reference;
+    }
+
+    /**
+     * Compares two versions of the same Model.
+     * @param before The earlier version of the Model.
+     * @param after The later version of the Model.
+     * @return The Patch that will make the earlier version like the later version.
+     * @throws IllegalArgumentException If the versions aren't of the same Model.
+     */
+    public static Patch between(Model before, Model after) {
+        Reference reference = new Reference(after);
+        if (!reference.equals(new Reference(before)))
+            throw new IllegalArgumentException(
+                    "Can't compare " + new Reference(before) + " with another Model " + reference
+            );
+
+        return between(before, after, new IdentityHashMap<>());
+    }
+
+    /**
+     * Compares two versions of the same Model, where Models that are already being compared are skipped,
+     * since Models can refer back to each other.
+     * @param before The earlier version of the Model.
+     * @param after The later version of the Model.
+     * @param comparing The later versions that are already being compared.
+     * @return The Patch that will make the earlier version like the later version.
+     */
+    private static Patch between(Model before, Model after, Map<Model, Boolean> comparing) {
+        Patch patch = new Patch(new Reference(after));
+        comparing.put(after, true);
+
+        for (Field field : _fields.get(after.getClass())) {
+            String name = field.getName();
+            Object previous = read(before, field),
+                    current = read(after, field);
+
+            if (previous instanceof Model || current instanceof Model)
+                patch.compare(name, (Model) previous, (Model) current, comparing);
+            else if (containsModels(previous) || containsModels(current))
+                patch.compare(name, (Collection<?>) previous, (Collection<?>) current, comparing);
+            else if (!equals(previous, current))
+                patch._changes.put(name, current);
+        }
+
+        return patch;
+    }
+
+    /**
+     * Compares a nested Model of two versions.
+     * If it is replaced by another Model, it is a change, otherwise the changes of the nested Model are an update.
+     */
+    private void compare(String name, Model previous, Model current, Map<Model, Boolean> comparing) {
+        if (previous == null || current == null || !new Reference(previous).equals(new Reference(current))) {
+            _changes.put(name, current);
+            return;
+        }
+        if (comparing.containsKey(current))
+            return;
+
+        Patch update = between(previous, current, comparing);
+        if (!update.isEmpty())
+            _updates.computeIfAbsent(name, key -> new LinkedHashMap<>()).put(update.get_reference(), update);
+    }
+
+    /**
+     * Compares a collection of Models of two versions by their References.
+     */
+    private void compare(String name, Collection<?> previous, Collection<?> current, Map<Model, Boolean> comparing) {
+        if (previous == null || current == null) {
+            _changes.put(name, current);
+            return;
+        }
+
+        Map<Reference, Model> before = index(previous),
+                after = index(current);
+
+        for (Map.Entry<Reference, Model> entry : after.entrySet()) {
+            Model earlier = before.get(entry.getKey());
+            if (earlier == null)
+                _additions.computeIfAbsent(name, key -> new ArrayList<>()).add(entry.getValue());
+            else if (!comparing.containsKey(entry.getValue())) {
+                Patch update = between(earlier, entry.getValue(), comparing);
+                if (!update.isEmpty())
+                    _updates.computeIfAbsent(name, key -> new LinkedHashMap<>()).put(entry.getKey(), update);
+            }
+        }
+        for (Reference reference : before.keySet())
+            if (!after.containsKey(reference))
+                _removals.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(reference);
+    }
+
+    /**
+     * Checks if there are no differences.
+     * @return True if the versions are the same.
+     */
+    public boolean isEmpty() {
+        return _changes.isEmpty() && _additions.isEmpty() && _removals.isEmpty() && _updates.isEmpty();
+    }
+
+    /**
+     * Applies the differences to the Model, so it becomes like the later version.
+     * Added Models are the same objects as in the later version.
+     * @param model The earlier version of the Model.
+     * @return The same Model with the differences applied.
+     * @param <M> The type of the Model.
+     * @throws IllegalArgumentException If the Model isn't the one that this Patch is for.
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends Model> M apply(M model) {
+        if (!_reference.equals(new Reference(model)))
+            throw new IllegalArgumentException("Patch for " + _reference + " can't be applied to " + new Reference(model));
+
+        for (Field field : _fields.get(model.getClass())) {
+            String name = field.getName();
+
+            if (_changes.containsKey(name))
+                write(model, field, _changes.get(name));
+
+            Object value = read(model, field);
+            if (value instanceof Collection<?> collection) {
+                Collection<Object> members = (Collection<Object>) collection;
+
+                Set<Reference> removals = _removals.get(name);
+                if (removals != null)
+                    members.removeIf(member -> member instanceof Model removed && removals.contains(new Reference(removed)));
+
+                List<Model> additions = _additions.get(name);
+                if (additions != null)
+                    members.addAll(additions);
+            }
+
+            Map<Reference, Patch> updates = _updates.get(name);
+            if (updates != null) {
+                if (value instanceof Model nested)
+                    update(nested, updates);
+                else if (value instanceof Collection<?> collection)
+                    for (Object member : collection)
+                        if (member instanceof Model nested)
+                            update(nested, updates);
+            }
+        }
+
+        for (Field field : _transients.get(model.getClass()))
+            write(model, field, null);
+
+        return model;
+    }
+
+    /**
+     * Applies the Patch of a nested Model, if there is one.
+     */
+    private static void update(Model model, Map<Reference, Patch> updates) {
+        Patch update = updates.get(new Reference(model));
+        if (update != null)
+            update.apply(model);
+    }
+
+    /**
+     * Reads the value of a field, where a postponed conversion of the field is done first.
+     */
+    private static Object read(Model model, Field field) {
+        model.hydrate(field.getName());
+        try {
+            return field.get(model);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read " + field.getName() + " of " + model.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Sets the value of a field.
+     */
+    private static void write(Model model, Field field, Object value) {
+        try {
+            field.set(model, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't set " + field.getName() + " of " + model.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Checks if the value is a collection, that contains Models.
+     */
+    private static boolean containsModels(Object value) {
+        if (!(value instanceof Collection<?> collection))
+            return false;
+
+        for (Object member : collection)
+            if (member instanceof Model)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Finds the Models of a collection by their References, in the same order.
+     */
+    private static Map<Reference, Model> index(Collection<?> collection) {
+        Map<Reference, Model> index = new LinkedHashMap<>();
+        for (Object member : collection)
+            if (member instanceof Model model)
+                index.put(new Reference(model), model);
+
+        return index;
+    }
+
+    /**
+     * Compares two values, where collections that doesn't contain Models are compared by their elements in order.
+     */
+    private static boolean equals(Object previous, Object current) {
+        if (Objects.equals(previous, current))
+            return true;
+        if (!(previous instanceof Collection<?> before) || !(current instanceof Collection<?> after) || before.size() != after.size())
+            return false;
+
+        Iterator<?> iterator = after.iterator();
+        for (Object element : before)
+            if (!Objects.equals(element, iterator.next()))
+                return false;
+
+        return true;
+    }
+}
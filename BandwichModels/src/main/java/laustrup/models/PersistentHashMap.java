@@ -0,0 +1,303 @@
+package laustrup.models;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable map, where adding or removing a key creates a new version,
+ * that shares every part of the former version, except the path to the changed key.
+ * The keys are placed in a tree by their hash, using five bits of the hash on each level,
+ * where each node only has room for the branches that are used, so a node is found by counting the bits of a bitmap.
+ * Getting, adding and removing takes at most seven steps for any amount of keys.
+ * Keys with the same hash are kept together in a list.
+ * Since no version is ever changed, a version can be read from many threads while newer versions are being made.
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class PersistentHashMap<K, V> {
+
+    /** The bits of a hash that are used on each level of the tree. */
+    private static final int BITS = 5;
+
+    /** The mask of the bits of a hash that are used on each level of the tree. */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** The version without any keys. */
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    /** The root of the tree, is null if there aren't any keys. */
+    private final Node _root;
+
+    /** The amount of keys. */
+    private final int _size;
+
+    private PersistentHashMap(Node root, int size) {
+        _root = root;
+        _size = size;
+    }
+
+    /**
+     * Gets the version without any keys.
+     * @return The empty version.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Spreads the bits of the hash of a key, so the first levels of the tree are used evenly.
+     */
+    private static int hash(Object key) {
+        int hash = Objects.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the value of a key.
+     * @param key The key of the value.
+     * @return The value or null, if the key isn't added.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Entry entry = _root != null ? _root.find(0, hash(key), key) : null;
+        return entry != null ? (V) entry._value : null;
+    }
+
+    /**
+     * Checks if a key is added.
+     * @param key The key that might be added.
+     * @return True if it is added.
+     */
+    public boolean containsKey(Object key) {
+        return _root != null && _root.find(0, hash(key), key) != null;
+    }
+
+    /**
+     * Creates a version where the key has the value, either by adding the key or replacing its value.
+     * @param key The key to be added.
+     * @param value The value of the key.
+     * @return The new version, this version is unchanged.
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        int hash = hash(key);
+        Entry entry = new Entry(hash, key, value);
+        if (_root == null)
+            return new PersistentHashMap<>(Node.of(0, entry), 1);
+
+        boolean added = _root.find(0, hash, key) == null;
+        return new PersistentHashMap<>(_root.plus(0, entry), added ? _size + 1 : _size);
+    }
+
+    /**
+     * Creates a version without a key.
+     * @param key The key to be removed.
+     * @return The new version or this version, if the key isn't added.
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        int hash = hash(key);
+        if (_root == null || _root.find(0, hash, key) == null)
+            return this;
+
+        return new PersistentHashMap<>(_root.minus(0, hash, key), _size - 1);
+    }
+
+    /**
+     * @return The amount of keys.
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return True if there aren't any keys.
+     */
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /**
+     * Something that is placed in a node by a hash, which is either an entry or a list of entries with the same hash.
+     */
+    private interface Leaf {
+        int hash();
+    }
+
+    /**
+     * A key with its value.
+     */
+    private record Entry(int _hash, Object _key, Object _value) implements Leaf {
+        @Override
+        public int hash() {
+            return _hash;
+        }
+    }
+
+    /**
+     * Entries of different keys with the same hash.
+     */
+    private record Collision(int _hash, Entry[] _entries) implements Leaf {
+        @Override
+        public int hash() {
+            return _hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < _entries.length; i++)
+                if (Objects.equals(_entries[i]._key, key))
+                    return i;
+
+            return -1;
+        }
+    }
+
+    /**
+     * A node of the tree, where each bit of the bitmap is a branch that is used,
+     * and the branches are either Entries, Collisions or other Nodes in the order of their bits.
+     */
+    private static final class Node {
+
+        /** The branches that are used. */
+        private final int _bitmap;
+
+        /** The Entries, Collisions and Nodes of the used branches. */
+        private final Object[] _branches;
+
+        private Node(int bitmap, Object[] branches) {
+            _bitmap = bitmap;
+            _branches = branches;
+        }
+
+        /**
+         * Creates a node with a single leaf.
+         */
+        private static Node of(int shift, Leaf leaf) {
+            return new Node(bit(shift, leaf.hash()), new Object[]{ leaf });
+        }
+
+        private static int bit(int shift, int hash) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int indexOf(int bit) {
+            return Integer.bitCount(_bitmap & (bit - 1));
+        }
+
+        private Entry find(int shift, int hash, Object key) {
+            int bit = bit(shift, hash);
+            if ((_bitmap & bit) == 0)
+                return null;
+
+            Object branch = _branches[indexOf(bit)];
+            if (branch instanceof Node node)
+                return node.find(shift + BITS, hash, key);
+            if (branch instanceof Collision collision) {
+                int index = collision._hash == hash ? collision.indexOf(key) : -1;
+                return index >= 0 ? collision._entries[index] : null;
+            }
+
+            Entry entry = (Entry) branch;
+            return entry._hash == hash && Objects.equals(entry._key, key) ? entry : null;
+        }
+
+        private Node plus(int shift, Entry entry) {
+            int bit = bit(shift, entry._hash), index = indexOf(bit);
+
+            if ((_bitmap & bit) == 0) {
+                Object[] branches = new Object[_branches.length + 1];
+                System.arraycopy(_branches, 0, branches, 0, index);
+                branches[index] = entry;
+                System.arraycopy(_branches, index, branches, index + 1, _branches.length - index);
+                return new Node(_bitmap | bit, branches);
+            }
+
+            Object branch = _branches[index], replacement;
+            if (branch instanceof Node node)
+                replacement = node.plus(shift + BITS, entry);
+            else if (branch instanceof Entry existing && existing._hash == entry._hash && Objects.equals(existing._key, entry._key))
+                replacement = entry;
+            else if (branch instanceof Collision collision && collision._hash == entry._hash) {
+                int existing = collision.indexOf(entry._key);
+                Entry[] entries = existing >= 0
+                        ? collision._entries.clone()
+                        : Arrays.copyOf(collision._entries, collision._entries.length + 1);
+                entries[existing >= 0 ? existing : collision._entries.length] = entry;
+                replacement = new Collision(entry._hash, entries);
+            }
+            else
+                replacement = merge(shift + BITS, (Leaf) branch, entry);
+
+            return with(index, replacement);
+        }
+
+        /**
+         * Places two leaves with different keys in the same branch.
+         */
+        private static Object merge(int shift, Leaf first, Leaf second) {
+            if (first.hash() == second.hash())
+                return first instanceof Collision collision
+                        ? new Collision(collision._hash, append(collision._entries, (Entry) second))
+                        : new Collision(first.hash(), new Entry[]{ (Entry) first, (Entry) second });
+
+            int firstBit = bit(shift, first.hash()), secondBit = bit(shift, second.hash());
+            if (firstBit == secondBit)
+                return new Node(firstBit, new Object[]{ merge(shift + BITS, first, second) });
+
+            return new Node(
+                    firstBit | secondBit,
+                    Integer.compareUnsigned(firstBit, secondBit) < 0
+                            ? new Object[]{ first, second }
+                            : new Object[]{ second, first }
+            );
+        }
+
+        private static Entry[] append(Entry[] entries, Entry entry) {
+            Entry[] appended = Arrays.copyOf(entries, entries.length + 1);
+            appended[entries.length] = entry;
+            return appended;
+        }
+
+        /**
+         * Creates a node without the key, the key must be added.
+         * @return The new node or null, if it would be empty.
+         */
+        private Node minus(int shift, int hash, Object key) {
+            int bit = bit(shift, hash), index = indexOf(bit);
+            Object branch = _branches[index], replacement;
+
+            if (branch instanceof Node node)
+                replacement = node.minus(shift + BITS, hash, key);
+            else if (branch instanceof Collision collision) {
+                int removed = collision.indexOf(key);
+                if (collision._entries.length == 2)
+                    replacement = collision._entries[1 - removed];
+                else {
+                    Entry[] entries = new Entry[collision._entries.length - 1];
+                    System.arraycopy(collision._entries, 0, entries, 0, removed);
+                    System.arraycopy(collision._entries, removed + 1, entries, removed, entries.length - removed);
+                    replacement = new Collision(collision._hash, entries);
+                }
+            }
+            else
+                replacement = null;
+
+            if (replacement != null)
+                return with(index, replacement);
+            if (_branches.length == 1)
+                return null;
+
+            Object[] branches = new Object[_branches.length - 1];
+            System.arraycopy(_branches, 0, branches, 0, index);
+            System.arraycopy(_branches, index + 1, branches, index, branches.length - index);
+            return new Node(_bitmap & ~bit, branches);
+        }
+
+        private Node with(int index, Object branch) {
+            Object[] branches = _branches.clone();
+            branches[index] = branch;
+            return new Node(_bitmap, branches);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package laustrup.models;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list of elements, where adding or replacing an element creates a new version,
+ * that shares every part of the former version, except the path to the changed element.
+ * The elements are stored in a tree with 32 branches on each level and the last elements in a separate tail,
+ * so getting, adding and replacing takes at most seven steps for any amount of elements,
+ * and adding at the end usually only copies the tail.
+ * Since no version is ever changed, a version can be read from many threads while newer versions are being made.
+ * @param <E> The type of the elements.
+ */
+public final class PersistentVector<E> implements Iterable<E> {
+
+    /** The bits of an index that are used on each level of the tree. */
+    private static final int BITS = 5;
+
+    /** The amount of branches of each node of the tree. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** The mask of the bits of an index that are used on each level of the tree. */
+    private static final int MASK = WIDTH - 1;
+
+    /** The version without any elements. */
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    /** The amount of elements. */
+    private final int _size;
+
+    /** The bits to shift an index, to find its branch of the root. */
+    private final int _shift;
+
+    /** The root of the tree, that contains every element before the tail. */
+    private final Object[] _root;
+
+    /** The last elements, that aren't in the tree yet. */
+    private final Object[] _tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        _size = size;
+        _shift = shift;
+        _root = root;
+        _tail = tail;
+    }
+
+    /**
+     * Gets the version without any elements.
+     * @return The empty version.
+     * @param <E> The type of the elements.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Finds the index of the first element of the tail.
+     */
+    private int tailOffset() {
+        return _size < WIDTH ? 0 : ((_size - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * Finds the array that contains an element.
+     */
+    private Object[] arrayFor(int index) {
+        if (index < 0 || index >= _size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + _size);
+        if (index >= tailOffset())
+            return _tail;
+
+        Object[] node = _root;
+        for (int level = _shift; level > 0; level -= BITS)
+            node = (Object[]) node[(index >>> level) & MASK];
+
+        return node;
+    }
+
+    /**
+     * Gets the element at a position from 0.
+     * @param index The position from 0.
+     * @return The element at the position.
+     * @throws IndexOutOfBoundsException If there isn't any element at the position.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * Creates a version with an element added at the end.
+     * @param element The element to be added, can be null.
+     * @return The new version, this version is unchanged.
+     */
+    public PersistentVector<E> plus(E element) {
+        if (_size - tailOffset() < WIDTH) {
+            Object[] tail = Arrays.copyOf(_tail, _tail.length + 1);
+            tail[_tail.length] = element;
+            return new PersistentVector<>(_size + 1, _shift, _root, tail);
+        }
+
+        // The tail is full, so it is moved into the tree and a new tail is started.
+        Object[] root;
+        int shift = _shift;
+        if ((_size >>> BITS) > (1 << _shift)) {
+            root = new Object[WIDTH];
+            root[0] = _root;
+            root[1] = newPath(_shift, _tail);
+            shift += BITS;
+        }
+        else
+            root = pushTail(_shift, _root, _tail);
+
+        return new PersistentVector<>(_size + 1, shift, root, new Object[]{ element });
+    }
+
+    /**
+     * Copies the path to where the tail belongs in the tree and places the tail there.
+     */
+    private Object[] pushTail(int level, Object[] parent, Object[] tail) {
+        int branch = ((_size - 1) >>> level) & MASK;
+        Object[] node = parent.clone();
+
+        if (level == BITS)
+            node[branch] = tail;
+        else {
+            Object[] child = (Object[]) parent[branch];
+            node[branch] = child != null
+                    ? pushTail(level - BITS, child, tail)
+                    : newPath(level - BITS, tail);
+        }
+
+        return node;
+    }
+
+    /**
+     * Creates the nodes from a level down to a leaf, where each node only has its first branch.
+     */
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0)
+            return leaf;
+
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    /**
+     * Creates a version with the element at a position replaced.
+     * @param index The position from 0.
+     * @param element The element that should be at the position, can be null.
+     * @return The new version, this version is unchanged.
+     * @throws IndexOutOfBoundsException If there isn't any element at the position.
+     */
+    public PersistentVector<E> with(int index, E element) {
+        if (index < 0 || index >= _size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + _size);
+
+        if (index >= tailOffset()) {
+            Object[] tail = _tail.clone();
+            tail[index & MASK] = element;
+            return new PersistentVector<>(_size, _shift, _root, tail);
+        }
+
+        return new PersistentVector<>(_size, _shift, with(_shift, _root, index, element), _tail);
+    }
+
+    /**
+     * Copies the path to an element and replaces it.
+     */
+    private static Object[] with(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0)
+            copy[index & MASK] = element;
+        else {
+            int branch = (index >>> level) & MASK;
+            copy[branch] = with(level - BITS, (Object[]) node[branch], index, element);
+        }
+
+        return copy;
+    }
+
+    /**
+     * @return The amount of elements.
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return True if there aren't any elements.
+     */
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /**
+     * Goes through the elements in order, one array of the tree at a time.
+     * @return An iterator of this version, that isn't affected by newer versions.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            /** The position of the next element. */
+            private int _next;
+
+            /** The array that contains the next element. */
+            private Object[] _array;
+
+            @Override
+            public boolean hasNext() {
+                return _next < _size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (_next >= _size)
+                    throw new NoSuchElementException();
+                if ((_next & MASK) == 0 || _array == null)
+                    _array = arrayFor(_next);
+
+                return (E) _array[_next++ & MASK];
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
@@ -34,7 +36,16 @@ public class Rating extends Model {
      * @param rating The transport object to be transformed.
      */
     public Rating(DTO rating) throws InputMismatchException {
-        super(rating);
+        this(rating, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param rating The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Rating(DTO rating, ConversionContext context) throws InputMismatchException {
+        super(rating, context);
         _value = set_value(rating.getValue());
     }
 
@@ -107,7 +118,7 @@ public class Rating extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
         /**
@@ -121,10 +132,22 @@ public class Rating extends Model {
          */
         private String comment;
 
+        /**
+         * Converts into this DTO Object.
+         * @param rating The Object to be converted.
+         */
         public DTO(Rating rating) {
-            super(rating);
-            value = rating.get_value();
-            comment = rating.get_comment();
+            this(rating, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param rating The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Rating rating, ConversionContext context) {
+            super(rating, context);
+            RatingMapper.map(rating, this, context);
         }
     }
 }
@@ -1,5 +1,6 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.services.DTOService;
 
@@ -25,12 +26,16 @@ public class Search {
      */
     private Event.DTO[] events;
 
+    /**
+     * Converts the found Users and Events, where the ones that appear multiple times,
+     * also inside each other, will only be converted once.
+     * @param users All the Users that contains similarities with a search query.
+     * @param events All the Events that contains similarities with a search query.
+     */
     public Search(Liszt<User> users, Liszt<Event> events) {
-        this.users = new UserDTO[users.size()];
-        for (int i = 0; i < this.users.length; i++)
-            this.users[i] = DTOService.convert(users.Get(i+1));
-        this.events = new Event.DTO[events.size()];
-        for (int i = 0; i < this.events.length; i++)
-            this.events[i] = new Event.DTO(events.Get(i+1));
+        ConversionContext context = new ConversionContext();
+
+        this.users = DTOService.convertAll(users, context);
+        this.events = DTOService.convertAll(events, Event.DTO[]::new, Event.DTO::new, context);
     }
 }
@@ -0,0 +1,262 @@
+package laustrup.models;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The seats of a venue layout for a Ticket.Option, where each seat is a bit that is set when the seat is taken.
+ * The seats are numbered from 0 in the order of their rows, and the names of the seats,
+ * the same as the seat of a Ticket, are translated to and from these numbers.
+ * Checking, claiming and releasing a seat only changes the bit of the seat with compare-and-set,
+ * so seats can be claimed from many threads without any locks.
+ * Seats are only adjacent, when they are next to each other in the same row.
+ */
+public class SeatMap {
+
+    /** The amount of seats in each word of the bits. */
+    private static final int WORD = Long.SIZE;
+
+    /**
+     * The names of the seats by their number.
+     */
+    private final String[] _names;
+
+    /**
+     * The numbers of the seats by their names.
+     */
+    private final Map<String, Integer> _numbers;
+
+    /**
+     * The number of the first seat of each row, followed by the amount of seats.
+     */
+    private final int[] _rows;
+
+    /**
+     * The bits of the seats, where a set bit is a taken seat.
+     */
+    private final AtomicLongArray _taken;
+
+    /**
+     * The amount of seats.
+     */
+    @Getter
+    private final int _size;
+
+    /**
+     * @param rows The names of the seats of each row, in the order that they are next to each other.
+     * @throws IllegalArgumentException If a seat is named null or more than once.
+     */
+    public SeatMap(String[][] rows) {
+        int size = 0;
+        for (String[] row : rows)
+            size += row.length;
+
+        _size = size;
+        _names = new String[size];
+        _numbers = new HashMap<>(size * 4 / 3 + 1);
+        _rows = new int[rows.length + 1];
+        _taken = new AtomicLongArray((size + WORD - 1) / WORD);
+
+        int number = 0;
+        for (int row = 0; row < rows.length; row++) {
+            _rows[row] = number;
+            for (String name : rows[row]) {
+                if (name == null)
+                    throw new IllegalArgumentException("A seat of row " + row + " doesn't have a name");
+                if (_numbers.putIfAbsent(name, number) != null)
+                    throw new IllegalArgumentException("The seat " + name + " is in the layout more than once");
+
+                _names[number++] = name;
+            }
+        }
+        _rows[rows.length] = size;
+    }
+
+    /**
+     * Creates a layout of rows with the same amount of seats,
+     * where the seats are named by their row and place from 1, such as "2-14".
+     * @param rows The amount of rows.
+     * @param seats The amount of seats in each row.
+     * @return The created SeatMap.
+     */
+    public static SeatMap of(int rows, int seats) {
+        String[][] layout = new String[rows][seats];
+        for (int row = 0; row < rows; row++)
+            for (int seat = 0; seat < seats; seat++)
+                layout[row][seat] = (row + 1) + "-" + (seat + 1);
+
+        return new SeatMap(layout);
+    }
+
+    /**
+     * Translates the name of a seat into its number.
+     * @param seat The name of the seat.
+     * @return The number of the seat or -1, if it isn't in the layout.
+     */
+    public int numberOf(String seat) {
+        Integer number = seat != null ? _numbers.get(seat) : null;
+        return number != null ? number : -1;
+    }
+
+    /**
+     * Translates the number of a seat into its name.
+     * @param number The number of the seat from 0.
+     * @return The name of the seat.
+     * @throws IndexOutOfBoundsException If there isn't any seat with the number.
+     */
+    public String nameOf(int number) {
+        return _names[number];
+    }
+
+    /**
+     * Checks if a seat isn't taken.
+     * @param seat The name of the seat.
+     * @return True if the seat is in the layout and isn't taken.
+     */
+    public boolean isFree(String seat) {
+        int number = numberOf(seat);
+        return number >= 0 && isFree(number);
+    }
+
+    /**
+     * Checks if a seat isn't taken.
+     * @param number The number of the seat from 0.
+     * @return True if the seat isn't taken.
+     */
+    public boolean isFree(int number) {
+        return (_taken.get(number / WORD) & bit(number)) == 0;
+    }
+
+    private static long bit(int number) {
+        return 1L << (number % WORD);
+    }
+
+    /**
+     * Takes a seat, unless it is already taken.
+     * @param seat The name of the seat.
+     * @return True if the seat was taken by this call.
+     */
+    public boolean claim(String seat) {
+        int number = numberOf(seat);
+        return number >= 0 && claim(number);
+    }
+
+    /**
+     * Takes a seat, unless it is already taken.
+     * @param number The number of the seat from 0.
+     * @return True if the seat was taken by this call.
+     */
+    public boolean claim(int number) {
+        int word = number / WORD;
+        long bit = bit(number);
+
+        for (long bits = _taken.get(word); (bits & bit) == 0; bits = _taken.get(word))
+            if (_taken.compareAndSet(word, bits, bits | bit))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Frees a seat, so it can be taken again.
+     * @param seat The name of the seat.
+     * @return True if the seat was freed by this call.
+     */
+    public boolean release(String seat) {
+        int number = numberOf(seat);
+        return number >= 0 && release(number);
+    }
+
+    /**
+     * Frees a seat, so it can be taken again.
+     * @param number The number of the seat from 0.
+     * @return True if the seat was freed by this call.
+     */
+    public boolean release(int number) {
+        int word = number / WORD;
+        long bit = bit(number);
+
+        for (long bits = _taken.get(word); (bits & bit) != 0; bits = _taken.get(word))
+            if (_taken.compareAndSet(word, bits, bits & ~bit))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Finds the first seats next to each other in the same row, that aren't taken.
+     * Skips whole words of taken seats at a time.
+     * @param amount The amount of seats.
+     * @return The number of the first of the seats or -1, if there aren't that many free seats next to each other.
+     */
+    public int findAdjacent(int amount) {
+        if (amount <= 0)
+            throw new IllegalArgumentException("The amount of seats must be positive, but was " + amount);
+
+        for (int row = 0; row < _rows.length - 1; row++) {
+            int end = _rows[row + 1], start = -1;
+
+            for (int number = _rows[row]; number < end; ) {
+                long bits = _taken.get(number / WORD);
+
+                if (number % WORD == 0 && bits == -1L) {
+                    start = -1;
+                    number += WORD;
+                    continue;
+                }
+
+                if ((bits & bit(number)) != 0)
+                    start = -1;
+                else {
+                    if (start < 0)
+                        start = number;
+                    if (number - start + 1 == amount)
+                        return start;
+                }
+                number++;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Takes seats next to each other in the same row, that aren't taken.
+     * If another thread takes one of the seats first, the already taken seats are released and it is tried again.
+     * @param amount The amount of seats.
+     * @return The names of the taken seats or null, if there aren't that many free seats next to each other.
+     */
+    public String[] claimAdjacent(int amount) {
+        for (int start = findAdjacent(amount); start >= 0; start = findAdjacent(amount)) {
+            int claimed = 0;
+            while (claimed < amount && claim(start + claimed))
+                claimed++;
+
+            if (claimed == amount) {
+                String[] seats = new String[amount];
+                System.arraycopy(_names, start, seats, 0, amount);
+                return seats;
+            }
+
+            for (int i = 0; i < claimed; i++)
+                release(start + i);
+        }
+
+        return null;
+    }
+
+    /**
+     * Counts the seats that aren't taken.
+     * @return The amount of free seats.
+     */
+    public int available() {
+        int taken = 0;
+        for (int word = 0; word < _taken.length(); word++)
+            taken += Long.bitCount(_taken.get(word));
+
+        return _size - taken;
+    }
+}
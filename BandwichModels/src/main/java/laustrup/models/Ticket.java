@@ -1,5 +1,7 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
 import lombok.Setter;
@@ -33,9 +35,19 @@ public class Ticket extends TicketBase {
      * @param ticket The Data Transport Object that will be converted.
      */
     public Ticket(DTO ticket) {
+        this(ticket, new ConversionContext());
+    }
+
+    /**
+     * Converts a Data Transport Object into this object.
+     * @param ticket The Data Transport Object that will be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Ticket(DTO ticket, ConversionContext context) {
         super(ticket);
+        context.register(ticket, this);
         _arrived = ticket.getArrived();
-        _option = new Option(ticket.getOption());
+        _option = context.convert(ticket.getOption(), Option::new);
     }
 
     /**
@@ -105,7 +117,7 @@ public class Ticket extends TicketBase {
         );
     }
 
-    @Getter @Setter
+    @Getter @Setter @Mapped
     @FieldNameConstants
     public static class DTO extends TicketBase.DTO {
 
@@ -125,9 +137,17 @@ public class Ticket extends TicketBase {
          * @param ticket The Object to be converted.
          */
         public DTO(Ticket ticket) {
-            super(ticket);
-            arrived = ticket.get_arrived();
-            option = new Option.DTO(ticket.get_option());
+            this(ticket, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param ticket The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Ticket ticket, ConversionContext context) {
+            super(ticket, context);
+            TicketMapper.map(ticket, this, context);
         }
     }
 
@@ -141,7 +161,7 @@ public class Ticket extends TicketBase {
         /**
          * The events that this is configured for.
          */
-        private Seszt<UUID> _eventIds;
+        private UUIDSet _eventIds;
 
         /**
          * This venue is the owner of this option and can reuse them for events.
@@ -153,6 +173,15 @@ public class Ticket extends TicketBase {
          * @param ticketOption The transport object to be transformed.
          */
         public Option(DTO ticketOption) {
+            this(ticketOption, new ConversionContext());
+        }
+
+        /**
+         * Will translate a transport object of this object into a construct of this object.
+         * @param ticketOption The transport object to be transformed.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public Option(DTO ticketOption, ConversionContext context) {
             this(
                     ticketOption.getPrimaryId(),
                     ticketOption.getEventIds(),
@@ -164,6 +193,7 @@ public class Ticket extends TicketBase {
                     ticketOption.getHistory(),
                     ticketOption.getTimestamp()
             );
+            context.register(ticketOption, this);
         }
 
         /**
@@ -199,7 +229,7 @@ public class Ticket extends TicketBase {
                     history,
                     timestamp
             );
-            _eventIds = eventIds;
+            _eventIds = new UUIDSet(eventIds);
             _venueId = venueId;
         }
 
@@ -223,7 +253,7 @@ public class Ticket extends TicketBase {
                 String valuta
         ) {
             super(title, seat, price, valuta);
-            _eventIds = eventIds;
+            _eventIds = new UUIDSet(eventIds);
             _venueId = venueId;
         }
 
@@ -268,13 +298,14 @@ public class Ticket extends TicketBase {
          * Is meant to be used as having common fields and be the body of Requests and Responses.
          * Doesn't have any logic.
          */
-        @Getter @Setter
+        @Getter @Setter @Mapped
         @FieldNameConstants
         public static class DTO extends TicketBase.DTO {
 
             /**
              * The events that this is configured for.
              */
+            @Mapped.Skip
             private Seszt<UUID> eventIds;
 
             /**
@@ -287,8 +318,18 @@ public class Ticket extends TicketBase {
              * @param ticketOption The Object to be converted.
              */
             public DTO(Ticket.Option ticketOption) {
-                super(ticketOption);
-                eventIds = ticketOption.get_eventIds();
+                this(ticketOption, new ConversionContext());
+            }
+
+            /**
+             * Converts into this DTO Object.
+             * @param ticketOption The Object to be converted.
+             * @param context The context of the conversion, that keeps track of what has already been converted.
+             */
+            public DTO(Ticket.Option ticketOption, ConversionContext context) {
+                super(ticketOption, context);
+                TicketOptionMapper.map(ticketOption, this, context);
+                eventIds = new Seszt<>(ticketOption.get_eventIds().toArray(UUID[]::new));
             }
         }
     }
@@ -1,5 +1,8 @@
 package laustrup.models;
 
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
@@ -31,6 +34,13 @@ public abstract class TicketBase extends Model {
      */
     protected String _valuta;
 
+    /**
+     * The price and valuta as an amount of Money, so summing tickets doesn't round the price of each ticket again.
+     * Is made the first time it is needed, and made again when the price or valuta is set.
+     */
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient Money _money;
+
     /**
      * Will translate a transport object of this object into a construct of this object.
      * @param ticket The transport object to be transformed.
@@ -118,13 +128,56 @@ public abstract class TicketBase extends Model {
         _valuta = valuta;
     }
 
+    /**
+     * Gets the price and valuta as an amount of Money.
+     * @return The Money or null, if there isn't any price.
+     */
+    public Money toMoney() {
+        Money money = _money;
+        if (money == null && _price != null)
+            _money = money = Money.of(_price, _valuta);
+
+        return money;
+    }
+
+    /**
+     * Sets the price, that the Money of the ticket is made of.
+     * @param price The amount of money that the ticket costs.
+     */
+    public void set_price(BigDecimal price) {
+        _price = price;
+        _money = null;
+    }
+
+    /**
+     * Sets the valuta, that the Money of the ticket is made of.
+     * @param valuta The type of valuta that the ticket is in.
+     */
+    public void set_valuta(String valuta) {
+        _valuta = valuta;
+        _money = null;
+    }
+
+    /**
+     * Sets the price and valuta from an amount of Money.
+     * @param money The Money that the ticket costs.
+     * @return The price.
+     */
+    public BigDecimal set(Money money) {
+        _price = money.toBigDecimal();
+        _valuta = money.get_valuta();
+        _money = money;
+
+        return _price;
+    }
+
 
     /**
      * The Data Transfer Object.
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     @FieldNameConstants
     public abstract static class DTO extends ModelDTO {
 
@@ -148,10 +201,17 @@ public abstract class TicketBase extends Model {
          * @param ticket The Object to be converted.
          */
         public DTO(TicketBase ticket) {
-            super(ticket);
-            seat = ticket.get_seat();
-            price = ticket.get_price();
-            valuta = ticket.get_valuta();
+            this(ticket, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param ticket The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(TicketBase ticket, ConversionContext context) {
+            super(ticket, context);
+            TicketBaseMapper.map(ticket, this, context);
         }
     }
 }
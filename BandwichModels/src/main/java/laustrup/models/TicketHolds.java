@@ -0,0 +1,271 @@
+package laustrup.models;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Holds seats of a TicketInventory for buyers while they pay, and releases the seats of the holds that aren't paid in time.
+ * The holds are placed in a hierarchical timing wheel, where each level has 64 slots of ticks,
+ * and each slot of a level spans every slot of the level below it.
+ * A hold is placed in the lowest level that can reach its deadline, and is moved down a level when the slot of the hold is reached,
+ * so placing and expiring a hold takes the same few steps no matter how many holds there are.
+ * Holds can be created from many threads, but the wheel is only ever moved by a single thread,
+ * which is either the background thread of start() or the caller of advance().
+ */
+public class TicketHolds implements AutoCloseable {
+
+    /** The bits of a deadline that are used by each level. */
+    private static final int BITS = 6;
+
+    /** The amount of slots of each level. */
+    private static final int SLOTS = 1 << BITS;
+
+    /** The mask of the bits of a deadline that are used by each level. */
+    private static final int MASK = SLOTS - 1;
+
+    /** The amount of levels, which reaches 64^4 ticks ahead. */
+    private static final int LEVELS = 4;
+
+    /** The amount of ticks that the highest level can reach. */
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    /**
+     * The inventory that the seats are held of.
+     */
+    @Getter
+    private final TicketInventory _inventory;
+
+    /**
+     * The duration of a tick, which is how precise the holds expire.
+     */
+    @Getter
+    private final Duration _tick;
+
+    /**
+     * The nano time of when the wheel started, the ticks are counted from this.
+     */
+    private final long _start;
+
+    /**
+     * The holds that are created but not placed in the wheel yet.
+     */
+    private final ConcurrentLinkedQueue<Hold> _pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The slots of each level, with the holds of each slot.
+     */
+    private final ArrayDeque<Hold>[][] _wheel;
+
+    /**
+     * The tick that the wheel has reached.
+     */
+    private long _current;
+
+    /**
+     * The background thread that moves the wheel, is null if it isn't started.
+     */
+    private Thread _worker;
+
+    /**
+     * Is false when the background thread should stop.
+     */
+    private volatile boolean _running;
+
+    /**
+     * @param inventory The inventory that the seats are held of.
+     * @param tick The duration of a tick, which is how precise the holds expire.
+     * @throws IllegalArgumentException If the tick isn't at least a millisecond.
+     */
+    @SuppressWarnings("unchecked")
+    public TicketHolds(TicketInventory inventory, Duration tick) {
+        if (tick.toMillis() < 1)
+            throw new IllegalArgumentException("A tick must be at least a millisecond, but was " + tick);
+
+        _inventory = inventory;
+        _tick = tick;
+        _start = System.nanoTime();
+        _wheel = new ArrayDeque[LEVELS][SLOTS];
+        for (ArrayDeque<Hold>[] level : _wheel)
+            for (int slot = 0; slot < SLOTS; slot++)
+                level[slot] = new ArrayDeque<>();
+    }
+
+    /**
+     * Counts the ticks since the wheel started.
+     */
+    private long elapsed() {
+        return (System.nanoTime() - _start) / _tick.toNanos();
+    }
+
+    /**
+     * Holds the first free seat of an option.
+     * @param option The option to hold a seat of.
+     * @param ttl The time the buyer has to pay, before the seat is released.
+     * @return The Hold or null, if there aren't any seats left.
+     */
+    public Hold hold(Ticket.Option option, Duration ttl) {
+        return hold(option, null, ttl);
+    }
+
+    /**
+     * Holds a seat of an option.
+     * @param option The option to hold a seat of.
+     * @param seat The name of the seat, if it is null, the first free seat is held.
+     * @param ttl The time the buyer has to pay, before the seat is released.
+     * @return The Hold or null, if the seat is taken or there aren't any seats left.
+     */
+    public Hold hold(Ticket.Option option, String seat, Duration ttl) {
+        TicketInventory.Reservation reservation = _inventory.reserve(option, seat);
+        if (reservation == null)
+            return null;
+
+        long ticks = (ttl.toNanos() + _tick.toNanos() - 1) / _tick.toNanos();
+        Hold hold = new Hold(reservation, elapsed() + Math.max(ticks, 1));
+        _pending.add(hold);
+
+        return hold;
+    }
+
+    /**
+     * Confirms the seat of a Hold into a Ticket for a participant.
+     * @param hold The Hold that is paid for.
+     * @param participantId The participant that the Ticket is for.
+     * @return The issued Ticket or null, if the Hold is already confirmed or expired.
+     */
+    public Ticket confirm(Hold hold, UUID participantId) {
+        return _inventory.confirm(hold._reservation, participantId);
+    }
+
+    /**
+     * Releases the seat of a Hold before it expires.
+     * The Hold stays in the wheel until its deadline, where it is simply skipped.
+     * @param hold The Hold that isn't going to be paid for.
+     * @return True if it was released, false if it is already confirmed or released.
+     */
+    public boolean release(Hold hold) {
+        return _inventory.release(hold._reservation);
+    }
+
+    /**
+     * Moves the wheel to the current tick and releases the seats of the holds that have expired.
+     * Must only be called from one thread at a time, and not while the background thread is started.
+     * @return The amount of released seats.
+     */
+    public int advance() {
+        int expired = 0;
+
+        for (Hold hold = _pending.poll(); hold != null; hold = _pending.poll())
+            expired += place(hold);
+
+        for (long now = elapsed(); _current < now; ) {
+            _current++;
+
+            // Moves the holds of the higher levels down, from the highest level whose slot begins at this tick.
+            for (int level = LEVELS - 1; level > 0; level--)
+                if ((_current & ((1L << (BITS * level)) - 1)) == 0)
+                    expired += replace(_wheel[level][(int) ((_current >>> (BITS * level)) & MASK)]);
+
+            expired += replace(_wheel[0][(int) (_current & MASK)]);
+        }
+
+        return expired;
+    }
+
+    /**
+     * Places a hold in the lowest level that can reach its deadline, or expires it if the deadline is reached.
+     * @return 1 if the seat of the hold was released, otherwise 0.
+     */
+    private int place(Hold hold) {
+        long delta = hold._deadline - _current;
+        if (delta <= 0)
+            return release(hold) ? 1 : 0;
+
+        // Deadlines beyond the highest level wait in its farthest slot, and are placed again when it is reached.
+        long deadline = delta < SPAN ? hold._deadline : _current + SPAN - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && deadline - _current >= 1L << (BITS * (level + 1)))
+            level++;
+
+        _wheel[level][(int) ((deadline >>> (BITS * level)) & MASK)].add(hold);
+        return 0;
+    }
+
+    /**
+     * Places the holds of a slot that is reached again, which either expires them or moves them to a lower level.
+     * @return The amount of released seats.
+     */
+    private int replace(ArrayDeque<Hold> slot) {
+        int expired = 0;
+        for (int size = slot.size(); size > 0; size--)
+            expired += place(slot.poll());
+
+        return expired;
+    }
+
+    /**
+     * Starts a background thread, that moves the wheel once every tick.
+     * @return This TicketHolds.
+     * @throws IllegalStateException If it is already started.
+     */
+    public synchronized TicketHolds start() {
+        if (_worker != null)
+            throw new IllegalStateException("The holds are already started");
+
+        _running = true;
+        _worker = new Thread(() -> {
+            while (_running) {
+                advance();
+                try {
+                    Thread.sleep(_tick.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }, "ticket-holds");
+        _worker.setDaemon(true);
+        _worker.start();
+
+        return this;
+    }
+
+    /**
+     * Stops the background thread, the holds that aren't expired yet, stays held until advance() is called.
+     */
+    @Override
+    public synchronized void close() {
+        if (_worker == null)
+            return;
+
+        _running = false;
+        _worker.interrupt();
+        try {
+            _worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        _worker = null;
+    }
+
+    /**
+     * A seat that is held for a buyer until a deadline.
+     */
+    public static class Hold {
+
+        /** The Reservation of the seat. */
+        @Getter
+        private final TicketInventory.Reservation _reservation;
+
+        /** The tick where the seat is released, unless it is paid for. */
+        private final long _deadline;
+
+        private Hold(TicketInventory.Reservation reservation, long deadline) {
+            _reservation = reservation;
+            _deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package laustrup.models;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps track of how many tickets each Ticket.Option of an Event can issue, while many buyers buy at once.
+ * Each option has a capacity, and its seats are first reserved, then either confirmed into a Ticket or released.
+ * The counts are changed with compare-and-set without any locks, so a seat can never be given to two buyers,
+ * and the Event is set to be sold out exactly once, when the last seat is confirmed.
+ * The issued Tickets are collected into the Event with collect(), which must only be used by one thread at a time,
+ * since the Tickets of the Event only take one writer at a time, while any amount of readers can read them.
+ * An option can also be seated by a SeatMap, where each Reservation claims a seat of the map.
+ * The available seats of such an option are the free seats of its map, also when seats are claimed outside this inventory.
+ */
+public class TicketInventory {
+
+    /**
+     * The Event that the tickets are for.
+     */
+    @Getter
+    private final Event _event;
+
+    /**
+     * The stock of each option, with the ids of the options as keys.
+     */
+    private final ConcurrentHashMap<UUID, Stock> _stocks = new ConcurrentHashMap<>();
+
+    /**
+     * The time the Event became sold out, is only set once.
+     */
+    private final AtomicReference<LocalDateTime> _soldOut = new AtomicReference<>();
+
+    /**
+     * The Tickets that are confirmed, but not yet collected into the Event.
+     */
+    private final ConcurrentLinkedQueue<Ticket> _issued = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param event The Event that the tickets are for.
+     */
+    public TicketInventory(Event event) {
+        _event = event;
+    }
+
+    /**
+     * Makes an option available with an amount of seats.
+     * @param option The option of the Event.
+     * @param capacity The amount of tickets, that can be issued of the option.
+     * @return This inventory.
+     * @throws IllegalArgumentException If the capacity is negative.
+     * @throws IllegalStateException If the option is already added.
+     */
+    public TicketInventory add(Ticket.Option option, int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity can't be negative, but was " + capacity);
+        if (_stocks.putIfAbsent(option.get_primaryId(), new Stock(option, capacity)) != null)
+            throw new IllegalStateException("The option " + option.get_primaryId() + " is already in the inventory");
+
+        return this;
+    }
+
+    /**
+     * Makes an option available with the seats of a layout, where the free seats of the SeatMap are available.
+     * Seats that are taken in the SeatMap, also after it is added, can't be reserved.
+     * @param option The option of the Event.
+     * @param seats The SeatMap of the option.
+     * @return This inventory.
+     * @throws IllegalStateException If the option is already added.
+     */
+    public TicketInventory add(Ticket.Option option, SeatMap seats) {
+        if (_stocks.putIfAbsent(option.get_primaryId(), new Stock(option, seats)) != null)
+            throw new IllegalStateException("The option " + option.get_primaryId() + " is already in the inventory");
+
+        return this;
+    }
+
+    /**
+     * Gets the SeatMap of an option.
+     * @param option The option of the seats.
+     * @return The SeatMap or null, if the option isn't seated.
+     */
+    public SeatMap seatsOf(Ticket.Option option) {
+        return stockOf(option)._seats;
+    }
+
+    /**
+     * Finds the stock of an option.
+     * @throws IllegalArgumentException If the option isn't added.
+     */
+    private Stock stockOf(Ticket.Option option) {
+        Stock stock = _stocks.get(option.get_primaryId());
+        if (stock == null)
+            throw new IllegalArgumentException("The option " + option.get_primaryId() + " isn't in the inventory");
+
+        return stock;
+    }
+
+    /**
+     * Reserves a seat of an option, unless every seat is taken.
+     * If the option is seated, the first free seat is claimed.
+     * @param option The option to reserve a seat of.
+     * @return The Reservation or null, if there aren't any seats left.
+     */
+    public Reservation reserve(Ticket.Option option) {
+        return reserve(option, null);
+    }
+
+    /**
+     * Reserves a specific seat of a seated option, unless it is taken.
+     * @param option The option to reserve a seat of.
+     * @param seat The name of the seat, if it is null, the first free seat is claimed.
+     * @return The Reservation or null, if the seat is taken or there aren't any seats left.
+     * @throws IllegalArgumentException If a seat is given for an option, that isn't seated.
+     */
+    public Reservation reserve(Ticket.Option option, String seat) {
+        Stock stock = stockOf(option);
+        if (stock._seats == null && seat != null)
+            throw new IllegalArgumentException("The option " + option.get_primaryId() + " isn't seated, so " + seat + " can't be reserved");
+
+        if (!stock.take()) {
+            markSoldOut();
+            return null;
+        }
+
+        if (stock._seats != null) {
+            if (seat == null) {
+                String[] seats = stock._seats.claimAdjacent(1);
+                seat = seats != null ? seats[0] : null;
+            }
+            else if (!stock._seats.claim(seat))
+                seat = null;
+
+            if (seat == null) {
+                stock._taken.decrementAndGet();
+                if (stock.available() == 0)
+                    markSoldOut();
+                return null;
+            }
+        }
+
+        return new Reservation(stock, seat);
+    }
+
+    /**
+     * Confirms a Reservation into a Ticket for a participant.
+     * If it is the last seat of the Event, the Event is set to be sold out.
+     * @param reservation The Reservation that is paid for.
+     * @param participantId The participant that the Ticket is for.
+     * @return The issued Ticket or null, if the Reservation is already confirmed or released.
+     */
+    public Ticket confirm(Reservation reservation, UUID participantId) {
+        if (!reservation._status.compareAndSet(Reservation.Status.RESERVED, Reservation.Status.CONFIRMED))
+            return null;
+
+        reservation._stock._confirmed.incrementAndGet();
+        Ticket ticket = reservation._stock._option.toTicket(participantId, _event.get_primaryId());
+        if (reservation._seat != null)
+            ticket.set_seat(reservation._seat);
+        _issued.add(ticket);
+        markSoldOut();
+
+        return ticket;
+    }
+
+    /**
+     * Sets the Event to be sold out, if no option has any available or reserved seats left.
+     * Since each confirmation is counted before this check, the last one to be confirmed will always see it.
+     */
+    private void markSoldOut() {
+        if (_soldOut.get() != null)
+            return;
+        for (Stock stock : _stocks.values())
+            if (stock.available() > 0 || stock._taken.get() > stock._confirmed.get())
+                return;
+
+        LocalDateTime now = LocalDateTime.now();
+        if (_soldOut.compareAndSet(null, now))
+            _event.set_soldOut(now);
+    }
+
+    /**
+     * Releases the seat of a Reservation, so it can be reserved again.
+     * @param reservation The Reservation that isn't going to be paid for.
+     * @return True if it was released, false if it is already confirmed or released.
+     */
+    public boolean release(Reservation reservation) {
+        if (!reservation._status.compareAndSet(Reservation.Status.RESERVED, Reservation.Status.RELEASED))
+            return false;
+
+        if (reservation._seat != null)
+            reservation._stock._seats.release(reservation._seat);
+        reservation._stock._taken.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Reserves and confirms a seat at once.
+     * @param option The option to buy a ticket of.
+     * @param participantId The participant that the Ticket is for.
+     * @return The issued Ticket or null, if there aren't any seats left.
+     */
+    public Ticket buy(Ticket.Option option, UUID participantId) {
+        Reservation reservation = reserve(option);
+        return reservation != null ? confirm(reservation, participantId) : null;
+    }
+
+    /**
+     * Counts the seats of an option, that aren't reserved or confirmed.
+     * For a seated option it is the free seats of its SeatMap.
+     * @param option The option of the seats.
+     * @return The amount of available seats.
+     */
+    public int available(Ticket.Option option) {
+        return stockOf(option).available();
+    }
+
+    /**
+     * Counts the Tickets that are confirmed of an option.
+     * @param option The option of the Tickets.
+     * @return The amount of confirmed Tickets.
+     */
+    public int confirmed(Ticket.Option option) {
+        return stockOf(option)._confirmed.get();
+    }
+
+    /**
+     * Gets the time the Event became sold out through this inventory.
+     * @return The time or null, if it isn't sold out.
+     */
+    public LocalDateTime get_soldOut() {
+        return _soldOut.get();
+    }
+
+    /**
+     * Adds the issued Tickets to the Tickets of the Event.
+     * Must only be used by one thread at a time.
+     * @return The Tickets of the Event.
+     */
+    public Entities<Ticket> collect() {
+        if (_event.get_tickets() == null)
+            return null;
+
+        for (Ticket ticket = _issued.poll(); ticket != null; ticket = _issued.poll())
+            _event.get_tickets().add(ticket);
+
+        return _event.get_tickets();
+    }
+
+    /**
+     * The seats of one option.
+     */
+    private static class Stock {
+
+        /** The option that the seats are of. */
+        private final Ticket.Option _option;
+
+        /** The amount of seats, isn't used if the option is seated. */
+        private final int _capacity;
+
+        /** The amount of seats that are reserved or confirmed. */
+        private final AtomicInteger _taken = new AtomicInteger();
+
+        /** The amount of seats that are confirmed. */
+        private final AtomicInteger _confirmed = new AtomicInteger();
+
+        /** The layout of the seats, is null if the option isn't seated. */
+        private final SeatMap _seats;
+
+        private Stock(Ticket.Option option, int capacity) {
+            _option = option;
+            _capacity = capacity;
+            _seats = null;
+        }
+
+        private Stock(Ticket.Option option, SeatMap seats) {
+            _option = option;
+            _capacity = 0;
+            _seats = seats;
+        }
+
+        /**
+         * Counts the seats that aren't reserved or confirmed, which are the free seats of the SeatMap if it is seated.
+         * @return The amount of available seats.
+         */
+        private int available() {
+            return _seats != null ? _seats.available() : _capacity - _taken.get();
+        }
+
+        /**
+         * Takes a seat, unless every seat is taken.
+         * A seated option is counted before its seat is claimed in the SeatMap,
+         * so it is never seen as sold out while a seat is being claimed.
+         * @return True if a seat was taken.
+         */
+        private boolean take() {
+            if (_seats != null) {
+                _taken.incrementAndGet();
+                return true;
+            }
+            for (int taken = _taken.get(); taken < _capacity; taken = _taken.get())
+                if (_taken.compareAndSet(taken, taken + 1))
+                    return true;
+
+            return false;
+        }
+    }
+
+    /**
+     * A seat that is reserved for a buyer, until it is either confirmed or released.
+     */
+    public static class Reservation {
+
+        /** The stock that the seat is taken from. */
+        private final Stock _stock;
+
+        /** The name of the claimed seat, is null if the option isn't seated. */
+        @Getter
+        private final String _seat;
+
+        /** Whether the seat is still reserved, or it is confirmed or released. */
+        private final AtomicReference<Status> _status = new AtomicReference<>(Status.RESERVED);
+
+        private Reservation(Stock stock, String seat) {
+            _stock = stock;
+            _seat = seat;
+        }
+
+        /**
+         * @return The option that the seat is reserved of.
+         */
+        public Ticket.Option get_option() {
+            return _stock._option;
+        }
+
+        /**
+         * @return Whether the seat is still reserved, or it is confirmed or released.
+         */
+        public Status get_status() {
+            return _status.get();
+        }
+
+        /**
+         * The states of a Reservation.
+         */
+        public enum Status {
+            RESERVED,
+            CONFIRMED,
+            RELEASED
+        }
+    }
+}
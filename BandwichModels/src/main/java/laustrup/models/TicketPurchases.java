@@ -0,0 +1,263 @@
+package laustrup.models;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buys tickets of a TicketInventory, where retries of the same purchase gets the Ticket of the first attempt,
+ * instead of buying another Ticket.
+ * A purchase is known by the key the client sends with it, and by its participant and Event,
+ * which are the primary and secondary id of the Ticket, so a participant only gets one Ticket of the Event,
+ * even if the client makes a new key for a retry.
+ * The purchases are remembered in concurrent maps, where only purchases with the same key waits for each other.
+ * A purchase is deduplicated until it expires, as long as no more than the limit of purchases are remembered at once.
+ * Purchases are forgotten strictly by when they expire, the oldest first, from a queue ordered by their deadlines.
+ * If there still are too many purchases, the oldest that are done are forgotten before they expire,
+ * which makes the window of deduplication shorter than the expiration, while there are that many purchases.
+ */
+public class TicketPurchases {
+
+    /**
+     * The inventory that the tickets are bought from.
+     */
+    @Getter
+    private final TicketInventory _inventory;
+
+    /**
+     * The amount of purchases that are remembered, before purchases that are done are forgotten before they expire.
+     */
+    @Getter
+    private final int _limit;
+
+    /**
+     * How long a purchase is remembered.
+     */
+    @Getter
+    private final Duration _expiration;
+
+    /**
+     * The purchases by the keys of the clients.
+     */
+    private final ConcurrentHashMap<String, Purchase> _clients = new ConcurrentHashMap<>();
+
+    /**
+     * The purchases by their participant and Event.
+     */
+    private final ConcurrentHashMap<Key, Purchase> _participants = new ConcurrentHashMap<>();
+
+    /**
+     * The remembered purchases ordered by when they expire, the oldest first.
+     */
+    private final ConcurrentSkipListSet<Purchase> _deadlines = new ConcurrentSkipListSet<>();
+
+    /**
+     * The amount of purchases in the deadlines, which is counted, since the size of the deadlines goes through them.
+     */
+    private final AtomicInteger _size = new AtomicInteger();
+
+    /**
+     * Orders purchases that expire at the same time, in the order they were made.
+     */
+    private final AtomicLong _sequence = new AtomicLong();
+
+    /**
+     * Is true while a thread is removing expired purchases, so other threads don't do the same.
+     */
+    private final AtomicBoolean _sweeping = new AtomicBoolean();
+
+    /**
+     * @param inventory The inventory that the tickets are bought from.
+     * @param limit The amount of purchases that are remembered, before purchases that are done are forgotten before they expire.
+     * @param expiration How long a purchase is remembered, which is the window of deduplication.
+     * @throws IllegalArgumentException If the limit isn't positive.
+     */
+    public TicketPurchases(TicketInventory inventory, int limit, Duration expiration) {
+        if (limit <= 0)
+            throw new IllegalArgumentException("The limit must be positive, but was " + limit);
+
+        _inventory = inventory;
+        _limit = limit;
+        _expiration = expiration;
+    }
+
+    /**
+     * Buys a Ticket of an option for a participant, unless the same purchase is already made.
+     * If another thread is making the same purchase, this waits for it and returns the same Ticket.
+     * @param clientKey The key that the client sends with each attempt of the purchase, can be null.
+     * @param option The option to buy a Ticket of.
+     * @param participantId The participant that the Ticket is for.
+     * @return The Ticket of the purchase or null, if there aren't any seats left.
+     */
+    public Ticket purchase(String clientKey, Ticket.Option option, UUID participantId) {
+        Key key = new Key(participantId, _inventory.get_event().get_primaryId());
+        Purchase purchase = new Purchase(clientKey, key, System.nanoTime() + _expiration.toNanos(), _sequence.incrementAndGet());
+
+        Purchase existing = clientKey != null ? claim(_clients, clientKey, purchase) : purchase;
+        if (existing != purchase)
+            return existing._ticket.join();
+        if (clientKey != null)
+            remember(purchase);
+
+        existing = claim(_participants, key, purchase);
+        if (existing != purchase) {
+            // The participant already bought it with another key, so this key gets the same Ticket.
+            Ticket ticket = existing._ticket.join();
+            purchase._ticket.complete(ticket);
+            if (ticket == null)
+                forget(purchase);
+
+            return ticket;
+        }
+        remember(purchase);
+
+        Ticket ticket = null;
+        try {
+            ticket = _inventory.buy(option, participantId);
+        } finally {
+            purchase._ticket.complete(ticket);
+
+            // A purchase without a Ticket isn't remembered, so it can be retried if seats are released.
+            if (ticket == null)
+                forget(purchase);
+        }
+
+        Purchase oldest = oldest();
+        if (size() > _limit || (oldest != null && oldest.isExpired()))
+            sweep();
+
+        return ticket;
+    }
+
+    /**
+     * Puts the purchase as the purchase of a key, unless the key already has a purchase that isn't expired.
+     * @return The purchase of the key, which is the given purchase, if it was put.
+     */
+    private <K> Purchase claim(ConcurrentHashMap<K, Purchase> purchases, K key, Purchase purchase) {
+        while (true) {
+            Purchase existing = purchases.putIfAbsent(key, purchase);
+            if (existing == null)
+                return purchase;
+            if (!existing.isExpired())
+                return existing;
+            if (purchases.replace(key, existing, purchase))
+                return purchase;
+        }
+    }
+
+    /**
+     * Gets the purchase that expires first.
+     * @return The purchase or null, if no purchases are remembered.
+     */
+    private Purchase oldest() {
+        Iterator<Purchase> deadlines = _deadlines.iterator();
+        return deadlines.hasNext() ? deadlines.next() : null;
+    }
+
+    /**
+     * Forgets the expired purchases from the oldest, until one that isn't expired, unless another thread is already doing it.
+     * If there are still more than the limit, the oldest purchases that are done are forgotten until it is under the limit.
+     * Only the purchases that are forgotten or still being made are visited.
+     */
+    private void sweep() {
+        if (!_sweeping.compareAndSet(false, true))
+            return;
+
+        try {
+            for (Purchase purchase : _deadlines) {
+                if (!purchase.isExpired()) {
+                    if (size() <= _limit)
+                        break;
+                    if (!purchase._ticket.isDone())
+                        continue;
+                }
+                forget(purchase);
+            }
+        } finally {
+            _sweeping.set(false);
+        }
+    }
+
+    /**
+     * Adds a purchase to the deadlines, unless it is already added.
+     * @param purchase The purchase to remember.
+     */
+    private void remember(Purchase purchase) {
+        if (_deadlines.add(purchase))
+            _size.incrementAndGet();
+    }
+
+    /**
+     * Removes a purchase from the maps and the deadlines, unless it has been replaced in the maps by a newer purchase.
+     * @param purchase The purchase to forget.
+     */
+    private void forget(Purchase purchase) {
+        if (purchase._clientKey != null)
+            _clients.remove(purchase._clientKey, purchase);
+        _participants.remove(purchase._key, purchase);
+        if (_deadlines.remove(purchase))
+            _size.decrementAndGet();
+    }
+
+    /**
+     * Counts the remembered purchases, where a purchase is counted once,
+     * even though it is remembered by both the key of the client and its participant.
+     * @return The amount of remembered purchases.
+     */
+    public int size() {
+        return _size.get();
+    }
+
+    /**
+     * The participant and Event of a purchase, which are the primary and secondary id of its Ticket.
+     */
+    private record Key(UUID _participantId, UUID _eventId) {}
+
+    /**
+     * A purchase that is either being made or is done.
+     * Is ordered by when it expires and then by when it was made.
+     */
+    private static class Purchase implements Comparable<Purchase> {
+
+        /** The Ticket of the purchase, which is completed once it is bought. */
+        private final CompletableFuture<Ticket> _ticket = new CompletableFuture<>();
+
+        /** The key that the client sent with the purchase, can be null. */
+        private final String _clientKey;
+
+        /** The participant and Event of the purchase. */
+        private final Key _key;
+
+        /** The nano time where the purchase is forgotten. */
+        private final long _expires;
+
+        /** The order the purchase was made in. */
+        private final long _sequence;
+
+        private Purchase(String clientKey, Key key, long expires, long sequence) {
+            _clientKey = clientKey;
+            _key = key;
+            _expires = expires;
+            _sequence = sequence;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - _expires > 0;
+        }
+
+        @Override
+        public int compareTo(Purchase other) {
+            // Nano times are compared by their difference, since they can overflow.
+            int comparison = Long.signum(_expires - other._expires);
+            return comparison != 0 ? comparison : Long.compare(_sequence, other._sequence);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package laustrup.models;
+
+import laustrup.utilities.collections.lists.Liszt;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Models ordered by their timestamps, stored in segments of a fixed size,
+ * so a page of Models before a time is found without going through the Models before or after it.
+ * Models with the same timestamp are ordered by their primary ids, so a Model is a position that a page can start before,
+ * where Models without an id are first and kept in the order they were added.
+ * Adding a Model at the end is constant time, adding or removing elsewhere only moves the Models of one segment.
+ * Models without a timestamp are placed first.
+ * @param <E> The type of the Models.
+ */
+public class Timeline<E extends Model> {
+
+    /**
+     * The amount of Models in a segment, unless another amount is given.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 256;
+
+    /**
+     * The segments in order, where every segment has at least one Model and at most the segment size.
+     */
+    private final ArrayList<ArrayList<E>> _segments = new ArrayList<>();
+
+    /**
+     * The most Models a segment can have, before it is split in two.
+     */
+    private final int _segmentSize;
+
+    /**
+     * The amount of Models.
+     */
+    private int _size;
+
+    /**
+     * Creates an empty Timeline with segments of the default size.
+     */
+    public Timeline() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates an empty Timeline.
+     * @param segmentSize The most Models a segment can have.
+     * @throws IllegalArgumentException If the segment size is less than two.
+     */
+    public Timeline(int segmentSize) {
+        if (segmentSize < 2)
+            throw new IllegalArgumentException("Segments must have room for at least two Models, but was " + segmentSize);
+
+        _segmentSize = segmentSize;
+    }
+
+    /**
+     * Creates a Timeline with segments of the default size.
+     * @param elements The Models that should be added, can be null.
+     */
+    public Timeline(Collection<? extends E> elements) {
+        this();
+        if (elements != null)
+            for (E element : elements)
+                add(element);
+    }
+
+    /**
+     * Gets the timestamp that a Model is ordered by.
+     */
+    private static LocalDateTime timeOf(Model element) {
+        return element.get_timestamp() != null ? element.get_timestamp() : LocalDateTime.MIN;
+    }
+
+    /**
+     * Compares a Model with a position of a timestamp and primary id, where no id is before every id.
+     * @return Less than zero if the Model is before the position, zero if it is at the position, otherwise more than zero.
+     */
+    private static int compare(Model element, LocalDateTime time, UUID id) {
+        int comparison = timeOf(element).compareTo(time);
+        if (comparison != 0)
+            return comparison;
+
+        UUID current = element.get_primaryId();
+        if (current == null || id == null)
+            return current == null ? (id == null ? 0 : -1) : 1;
+
+        return current.compareTo(id);
+    }
+
+    /**
+     * Finds the first segment that has a Model at or after the position, or after it if exclusive.
+     * @return The position of the segment, which is the amount of segments, if there isn't any.
+     */
+    private int segmentOf(LocalDateTime time, UUID id, boolean exclusive) {
+        int low = 0, high = _segments.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            ArrayList<E> segment = _segments.get(middle);
+            int comparison = compare(segment.get(segment.size() - 1), time, id);
+            if (comparison < 0 || exclusive && comparison == 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+
+    /**
+     * Finds the first Model of a segment at or after the position, or after it if exclusive.
+     * @return The position in the segment, which is the size of the segment, if there isn't any.
+     */
+    private static int indexOf(ArrayList<? extends Model> segment, LocalDateTime time, UUID id, boolean exclusive) {
+        int low = 0, high = segment.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(segment.get(middle), time, id);
+            if (comparison < 0 || exclusive && comparison == 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+
+    /**
+     * Adds a Model after the Models with an earlier timestamp or the same timestamp and a lower or the same id.
+     * @param element The Model to be added, null is ignored.
+     */
+    public void add(E element) {
+        if (element == null)
+            return;
+
+        LocalDateTime time = timeOf(element);
+        UUID id = element.get_primaryId();
+        ArrayList<E> last = _segments.isEmpty() ? null : _segments.get(_segments.size() - 1);
+
+        if (last == null || compare(last.get(last.size() - 1), time, id) <= 0) {
+            // Most Models are added in the order they are created, so they are simply appended.
+            if (last == null || last.size() >= _segmentSize) {
+                last = new ArrayList<>(_segmentSize);
+                _segments.add(last);
+            }
+            last.add(element);
+        }
+        else {
+            int position = segmentOf(time, id, true);
+            ArrayList<E> segment = _segments.get(position);
+            segment.add(indexOf(segment, time, id, true), element);
+
+            if (segment.size() > _segmentSize) {
+                List<E> half = segment.subList(segment.size() / 2, segment.size());
+                _segments.add(position + 1, new ArrayList<>(half));
+                half.clear();
+            }
+        }
+        _size++;
+    }
+
+    /**
+     * Removes a Model, which is found by its timestamp and either its id or itself, if it doesn't have an id.
+     * @param element The Model to be removed.
+     * @return True if it was removed.
+     */
+    public boolean remove(E element) {
+        if (element == null)
+            return false;
+
+        LocalDateTime time = timeOf(element);
+        UUID id = element.get_primaryId();
+        for (int position = segmentOf(time, id, false); position < _segments.size(); position++) {
+            ArrayList<E> segment = _segments.get(position);
+
+            for (int i = indexOf(segment, time, id, false); i < segment.size(); i++) {
+                E current = segment.get(i);
+                if (!timeOf(current).equals(time))
+                    return false;
+
+                if (isSame(current, element)) {
+                    segment.remove(i);
+                    if (segment.isEmpty())
+                        _segments.remove(position);
+                    _size--;
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if two Models are the same, by their ids or by themselves, if they don't have an id.
+     */
+    private static boolean isSame(Model current, Model element) {
+        return current == element
+                || current.get_primaryId() != null
+                && Objects.equals(current.get_primaryId(), element.get_primaryId())
+                && Objects.equals(current.get_secondaryId(), element.get_secondaryId());
+    }
+
+    /**
+     * Gets a page of the Models before a time, such as the Mails before the oldest Mail that is shown.
+     * @param time The Models must have a timestamp before this time, if it is null, the latest Models are returned.
+     * @param amount The most Models to return.
+     * @return The latest Models before the time, in order with the earliest first.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public Liszt<E> before(LocalDateTime time, int amount) {
+        return before(time, null, amount);
+    }
+
+    /**
+     * Gets a page of the Models before a position of a timestamp and primary id, such as before the oldest Mail that is shown,
+     * so Models with the same timestamp as that Model, that weren't on the page, are on the next page.
+     * @param time The Models must be before this time, or at it with a lower id,
+     *             if it is null, the latest Models are returned.
+     * @param id The primary id of the position, if it is null, the Models must be before the time.
+     * @param amount The most Models to return.
+     * @return The latest Models before the position, in order with the earliest first.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public Liszt<E> before(LocalDateTime time, UUID id, int amount) {
+        if (amount < 0)
+            throw new IllegalArgumentException("Amount can't be negative, but was " + amount);
+
+        int position, index;
+        if (time == null) {
+            position = _segments.size() - 1;
+            index = position >= 0 ? _segments.get(position).size() : 0;
+        }
+        else {
+            position = segmentOf(time, id, false);
+            index = position < _segments.size() ? indexOf(_segments.get(position), time, id, false) : 0;
+        }
+
+        ArrayList<E> page = new ArrayList<>(Math.min(amount, _size));
+        while (page.size() < amount && position >= 0) {
+            if (index == 0 || position >= _segments.size()) {
+                position--;
+                index = position >= 0 ? _segments.get(position).size() : 0;
+                continue;
+            }
+            page.add(_segments.get(position).get(--index));
+        }
+
+        Liszt<E> ordered = new Liszt<>();
+        for (int i = page.size() - 1; i >= 0; i--)
+            ordered.add(page.get(i));
+
+        return ordered;
+    }
+
+    /**
+     * Gets the latest Models.
+     * @param amount The most Models to return.
+     * @return The latest Models, in order with the earliest first.
+     */
+    public Liszt<E> latest(int amount) {
+        return before(null, amount);
+    }
+
+    /**
+     * Removes every Model.
+     */
+    public void clear() {
+        _segments.clear();
+        _size = 0;
+    }
+
+    /**
+     * @return The amount of Models.
+     */
+    public int size() {
+        return _size;
+    }
+}
@@ -0,0 +1,393 @@
+package laustrup.models;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * A set of UUIDs, where each UUID is stored as its two longs in flat arrays instead of as an object.
+ * The ids are kept in the order they were added, except that removing an id moves the last id into its position.
+ * They are found through an index of positions with open addressing, so adding, removing and checking is constant time.
+ * Uses about 24 bytes for each id, where a Seszt of UUIDs also has an object for every UUID and node.
+ * Iterating with forEach(Ids) or the positions doesn't create any UUIDs,
+ * the iterator and get() create a UUID for each id they return.
+ */
+public class UUIDSet extends AbstractSet<UUID> {
+
+    /**
+     * Receives the ids of a UUIDSet as their two longs.
+     */
+    @FunctionalInterface
+    public interface Ids {
+
+        /**
+         * @param mostSignificantBits The most significant bits of an id.
+         * @param leastSignificantBits The least significant bits of an id.
+         */
+        void accept(long mostSignificantBits, long leastSignificantBits);
+    }
+
+    /** The most significant bits of each id, by their positions. */
+    private long[] _most;
+
+    /** The least significant bits of each id, by their positions. */
+    private long[] _least;
+
+    /** The amount of ids. */
+    private int _size;
+
+    /**
+     * The positions of the ids plus one, placed by the hash of the ids, where zero is an empty slot.
+     * Its length is always a power of two and at least twice the amount of ids.
+     */
+    private int[] _slots;
+
+    /** Is increased every time the ids change, so iterators can detect changes. */
+    private int _modifications;
+
+    /**
+     * Creates an empty set.
+     */
+    public UUIDSet() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty set with room for some ids, before it needs to grow.
+     * @param capacity The amount of ids, it should have room for.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public UUIDSet(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity can't be negative, but was " + capacity);
+
+        _most = new long[Math.max(capacity, 1)];
+        _least = new long[_most.length];
+        _slots = new int[slotsFor(_most.length)];
+    }
+
+    /**
+     * @param ids The ids that should be added in their order, can be null.
+     */
+    public UUIDSet(Collection<UUID> ids) {
+        this(ids != null ? ids.size() : 0);
+        if (ids != null)
+            for (UUID id : ids)
+                add(id);
+    }
+
+    /**
+     * @param ids The ids that should be added in their order, can be null.
+     */
+    public UUIDSet(UUID[] ids) {
+        this(ids != null ? ids.length : 0);
+        if (ids != null)
+            Add(ids);
+    }
+
+    /**
+     * Finds the length of the slots, that will keep the ids at most half of the slots.
+     * @param capacity The amount of ids.
+     * @return A power of two.
+     */
+    private static int slotsFor(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 4) * 2 - 1) << 1;
+    }
+
+    /**
+     * Spreads the bits of an id, so ids that are alike ends up in different slots.
+     */
+    private static int hash(long most, long least) {
+        long hash = most * 0x9E3779B97F4A7C15L ^ least;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+
+        return (int) hash;
+    }
+
+    /**
+     * Finds the slot of an id, or the empty slot where it should be.
+     */
+    private int slotOf(long most, long least) {
+        int mask = _slots.length - 1;
+        for (int slot = hash(most, least) & mask; ; slot = (slot + 1) & mask) {
+            int position = _slots[slot] - 1;
+            if (position < 0 || _most[position] == most && _least[position] == least)
+                return slot;
+        }
+    }
+
+    /**
+     * Adds an id by its two longs, unless it is already added.
+     * @param most The most significant bits of the id.
+     * @param least The least significant bits of the id.
+     * @return True if it was added.
+     */
+    public boolean add(long most, long least) {
+        int slot = slotOf(most, least);
+        if (_slots[slot] != 0)
+            return false;
+
+        if (_size == _most.length) {
+            _most = Arrays.copyOf(_most, _size * 2);
+            _least = Arrays.copyOf(_least, _size * 2);
+        }
+        _most[_size] = most;
+        _least[_size] = least;
+        _slots[slot] = ++_size;
+        _modifications++;
+
+        if (_size * 2 > _slots.length)
+            rehash(_slots.length * 2);
+
+        return true;
+    }
+
+    /**
+     * Adds an id, unless it is already added.
+     * @param id The id to be added.
+     * @return True if it was added.
+     * @throws NullPointerException If the id is null, since it can't be stored as longs.
+     */
+    @Override
+    public boolean add(UUID id) {
+        return add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Adds the ids that aren't already added.
+     * @param ids The ids to be added.
+     * @return This set.
+     */
+    public UUIDSet Add(UUID[] ids) {
+        for (UUID id : ids)
+            add(id);
+
+        return this;
+    }
+
+    /**
+     * Removes an id by its two longs, the last id will take its position.
+     * @param most The most significant bits of the id.
+     * @param least The least significant bits of the id.
+     * @return True if it was removed.
+     */
+    public boolean remove(long most, long least) {
+        int slot = slotOf(most, least);
+        int position = _slots[slot] - 1;
+        if (position < 0)
+            return false;
+
+        removeSlot(slot);
+        int last = --_size;
+        if (position != last) {
+            // The last id takes the position of the removed id, so its slot must point to that position.
+            _slots[slotOf(_most[last], _least[last])] = position + 1;
+            _most[position] = _most[last];
+            _least[position] = _least[last];
+        }
+        _modifications++;
+
+        return true;
+    }
+
+    /**
+     * Empties a slot and moves the following ids of the same cluster back,
+     * so every id can still be found from its own slot without any gaps.
+     */
+    private void removeSlot(int slot) {
+        int mask = _slots.length - 1;
+        int empty = slot;
+        for (int next = (slot + 1) & mask; _slots[next] != 0; next = (next + 1) & mask) {
+            int position = _slots[next] - 1;
+            int home = hash(_most[position], _least[position]) & mask;
+            // Moves the id back, unless its own slot is between the empty slot and where it is.
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                _slots[empty] = _slots[next];
+                empty = next;
+            }
+        }
+        _slots[empty] = 0;
+    }
+
+    /**
+     * Removes an id, the last id will take its position.
+     * @param id The id to be removed.
+     * @return True if it was removed.
+     */
+    @Override
+    public boolean remove(Object id) {
+        return id instanceof UUID uuid && remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the ids that are added.
+     * @param ids The ids to be removed.
+     * @return This set.
+     */
+    public UUIDSet remove(UUID[] ids) {
+        for (UUID id : ids)
+            remove(id);
+
+        return this;
+    }
+
+    /**
+     * Checks if an id is added by its two longs.
+     * @param most The most significant bits of the id.
+     * @param least The least significant bits of the id.
+     * @return True if it is added.
+     */
+    public boolean contains(long most, long least) {
+        return _slots[slotOf(most, least)] != 0;
+    }
+
+    @Override
+    public boolean contains(Object id) {
+        return id instanceof UUID uuid && contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Checks if all the ids are added.
+     * @param ids The ids to check.
+     * @return True if every one of them is added.
+     */
+    public boolean contains(UUID[] ids) {
+        for (UUID id : ids)
+            if (!contains(id))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Gets the id at a position from 0, creates a UUID of it.
+     * @param index The position from 0.
+     * @return The id at the position.
+     * @throws IndexOutOfBoundsException If there isn't any id at the position.
+     */
+    public UUID get(int index) {
+        return new UUID(mostSignificantBits(index), _least[index]);
+    }
+
+    /**
+     * Gets the id at a position from 1, creates a UUID of it.
+     * @param index The position from 1.
+     * @return The id at the position.
+     */
+    public UUID Get(int index) {
+        return get(index - 1);
+    }
+
+    /**
+     * Gets the most significant bits of the id at a position from 0, without creating a UUID.
+     * @param index The position from 0.
+     * @return The most significant bits.
+     * @throws IndexOutOfBoundsException If there isn't any id at the position.
+     */
+    public long mostSignificantBits(int index) {
+        if (index < 0 || index >= _size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + _size);
+
+        return _most[index];
+    }
+
+    /**
+     * Gets the least significant bits of the id at a position from 0, without creating a UUID.
+     * @param index The position from 0.
+     * @return The least significant bits.
+     * @throws IndexOutOfBoundsException If there isn't any id at the position.
+     */
+    public long leastSignificantBits(int index) {
+        if (index < 0 || index >= _size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + _size);
+
+        return _least[index];
+    }
+
+    /**
+     * Goes through the ids in their order without creating any UUIDs.
+     * The ids mustn't be changed meanwhile.
+     * @param ids Receives the two longs of each id.
+     */
+    public void forEach(Ids ids) {
+        for (int i = 0; i < _size; i++)
+            ids.accept(_most[i], _least[i]);
+    }
+
+    /**
+     * Places every id in slots of a new length.
+     */
+    private void rehash(int length) {
+        _slots = new int[length];
+        int mask = length - 1;
+        for (int position = 0; position < _size; position++) {
+            int slot = hash(_most[position], _least[position]) & mask;
+            while (_slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            _slots[slot] = position + 1;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(_slots, 0);
+        _size = 0;
+        _modifications++;
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    @Override
+    public Iterator<UUID> iterator() {
+        return new Iterator<>() {
+
+            /** The position of the next id. */
+            private int _next;
+
+            /** The position of the id that was returned last, is -1 if it is removed or there isn't any. */
+            private int _last = -1;
+
+            /** The modifications that this iterator knows of. */
+            private int _expected = _modifications;
+
+            @Override
+            public boolean hasNext() {
+                return _next < _size;
+            }
+
+            @Override
+            public UUID next() {
+                if (_expected != _modifications)
+                    throw new ConcurrentModificationException();
+                if (_next >= _size)
+                    throw new NoSuchElementException();
+
+                _last = _next++;
+                return new UUID(_most[_last], _least[_last]);
+            }
+
+            @Override
+            public void remove() {
+                if (_last < 0)
+                    throw new IllegalStateException("There isn't any id to remove");
+                if (_expected != _modifications)
+                    throw new ConcurrentModificationException();
+
+                UUIDSet.this.remove(_most[_last], _least[_last]);
+                // The last id has taken the position of the removed id, so it is the next.
+                _next = _last;
+                _last = -1;
+                _expected = _modifications;
+            }
+        };
+    }
+}
@@ -4,6 +4,8 @@ import laustrup.models.users.ContactInfo;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.chats.messages.Post;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
 import lombok.Setter;
@@ -58,17 +60,17 @@ public abstract class User extends Model {
     /**
      * Ratings made from other users on this user based on a value.
      */
-    protected Liszt<Rating> _ratings;
+    protected Entities<Rating> _ratings;
 
     /**
      * The Events that this user is included in.
      */
-    protected Seszt<Event> _events;
+    protected Entities<Event> _events;
 
     /**
      * These ChatRooms can be used to communicate with other users.
      */
-    protected Seszt<ChatRoom> _chatRooms;
+    protected Entities<ChatRoom> _chatRooms;
 
     /**
      * This subscription defines details of subscription,
@@ -88,39 +90,64 @@ public abstract class User extends Model {
      * @param user The transport object to be transformed.
      */
     public User(UserDTO user) {
+        this(user, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param user The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public User(UserDTO user, ConversionContext context) {
         super(
                 user.getPrimaryId(),
                 user.getUsername() + "-" + user.getPrimaryId(),
                 user.getHistory(),
                 user.getTimestamp()
         );
+        context.register(user, this);
         _username = user.getUsername();
         _firstName = user.getFirstName();
         _lastName = user.getLastName();
-        _contactInfo = new ContactInfo(user.getContactInfo());
+        _contactInfo = context.convert(user.getContactInfo(), ContactInfo::new);
         _description = user.getDescription();
 
-        _albums = new Liszt<>();
-        for (Album.DTO album : user.getAlbums())
-            _albums.add(new Album(album));
-
-        _ratings = new Liszt<>();
-        for (Rating.DTO rating : user.getRatings())
-            _ratings.add(new Rating(rating));
-
-        _events = new Seszt<>();
-        for (Event.DTO event : user.getEvents())
-            _events.add(new Event(event));
-
-        _chatRooms = new Seszt<>();
-        for (ChatRoom.DTO chatRoom : user.getChatRooms())
-            _chatRooms.add(new ChatRoom(chatRoom));
-
-        _subscription = new Subscription(user.getSubscription());
-
-        _posts = new Liszt<>();
-        for (Post.DTO bulletin : user.getBulletins())
-            _posts.add(new Post(bulletin));
+        Album.DTO[] albums = user.getAlbums();
+        hydrate(Fields._albums, context, current -> {
+            _albums = new Liszt<>();
+            for (Album.DTO album : albums)
+                _albums.add(current.convert(album, Album::new));
+        });
+
+        Rating.DTO[] ratings = user.getRatings();
+        hydrate(Fields._ratings, context, current -> {
+            _ratings = new Entities<>(Entities.ids());
+            for (Rating.DTO rating : ratings)
+                _ratings.add(current.convert(rating, Rating::new));
+        });
+
+        Event.DTO[] events = user.getEvents();
+        hydrate(Fields._events, context, current -> {
+            _events = new Entities<>();
+            for (Event.DTO event : events)
+                _events.add(current.convert(event, Event::new));
+        });
+
+        ChatRoom.DTO[] chatRooms = user.getChatRooms();
+        hydrate(Fields._chatRooms, context, current -> {
+            _chatRooms = new Entities<>();
+            for (ChatRoom.DTO chatRoom : chatRooms)
+                _chatRooms.add(current.convert(chatRoom, ChatRoom::new));
+        });
+
+        _subscription = context.convert(user.getSubscription(), Subscription::new);
+
+        Post.DTO[] bulletins = user.getBulletins();
+        hydrate(Fields._posts, context, current -> {
+            _posts = new Liszt<>();
+            for (Post.DTO bulletin : bulletins)
+                _posts.add(current.convert(bulletin, Post::new));
+        });
     }
 
     /**
@@ -168,9 +195,9 @@ public abstract class User extends Model {
         _contactInfo = contactInfo;
         _description = description;
         _albums = albums;
-        _ratings = ratings;
-        _events = events;
-        _chatRooms = chatRooms;
+        _ratings = new Entities<>(ratings, Entities.ids());
+        _events = new Entities<>(events);
+        _chatRooms = new Entities<>(chatRooms);
         _subscription = subscription;
         _posts = posts;
     }
@@ -214,9 +241,9 @@ public abstract class User extends Model {
         _contactInfo = contactInfo;
         _description = description;
         _albums = albums;
-        _ratings = ratings;
-        _events = events;
-        _chatRooms = chatRooms;
+        _ratings = new Entities<>(ratings, Entities.ids());
+        _events = new Entities<>(events);
+        _chatRooms = new Entities<>(chatRooms);
         _subscription = subscription;
         _posts = posts;
     }
@@ -242,9 +269,9 @@ public abstract class User extends Model {
         _description = description;
 
         _albums = new Liszt<>();
-        _ratings = new Liszt<>();
-        _events = new Seszt<>();
-        _chatRooms = new Seszt<>();
+        _ratings = new Entities<>(Entities.ids());
+        _events = new Entities<>();
+        _chatRooms = new Entities<>();
         _posts = new Liszt<>();
 
         _subscription = subscription;
@@ -267,9 +294,9 @@ public abstract class User extends Model {
         _description = description;
 
         _albums = new Liszt<>();
-        _ratings = new Liszt<>();
-        _events = new Seszt<>();
-        _chatRooms = new Seszt<>();
+        _ratings = new Entities<>(Entities.ids());
+        _events = new Entities<>();
+        _chatRooms = new Entities<>();
         _posts = new Liszt<>();
 
         _subscription = subscription;
@@ -277,6 +304,51 @@ public abstract class User extends Model {
         _timestamp = LocalDateTime.now();
     }
 
+    /**
+     * Gets the Albums, will convert them first, if their conversion has been postponed.
+     * @return The Albums of this User.
+     */
+    public Liszt<Album> get_albums() {
+        hydrate(Fields._albums);
+        return _albums;
+    }
+
+    /**
+     * Gets the Ratings, will convert them first, if their conversion has been postponed.
+     * @return The Ratings of this User.
+     */
+    public Entities<Rating> get_ratings() {
+        hydrate(Fields._ratings);
+        return _ratings;
+    }
+
+    /**
+     * Gets the Events, will convert them first, if their conversion has been postponed.
+     * @return The Events of this User.
+     */
+    public Entities<Event> get_events() {
+        hydrate(Fields._events);
+        return _events;
+    }
+
+    /**
+     * Gets the ChatRooms, will convert them first, if their conversion has been postponed.
+     * @return The ChatRooms of this User.
+     */
+    public Entities<ChatRoom> get_chatRooms() {
+        hydrate(Fields._chatRooms);
+        return _chatRooms;
+    }
+
+    /**
+     * Gets the Posts, will convert them first, if their conversion has been postponed.
+     * @return The Posts of this User.
+     */
+    public Liszt<Post> get_posts() {
+        hydrate(Fields._posts);
+        return _posts;
+    }
+
     /**
      * Combines first and last name.
      * @return The calculated full name.
@@ -300,11 +372,9 @@ public abstract class User extends Model {
      * @param rating A Rating object, that is wished to be added to this User.
      * @return All the Ratings of this User.
      */
-    public Liszt<Rating> add(Rating rating) {
-        if (!_ratings.contains(rating))
-            _ratings.add(rating);
-        else
-            edit(rating);
+    public Entities<Rating> add(Rating rating) {
+        if (!get_ratings().add(rating))
+            _ratings.set(rating);
 
         return _ratings;
     }
@@ -314,8 +384,8 @@ public abstract class User extends Model {
      * @param event An Event object, that is wished to be added to this User.
      * @return All the Events of this User.
      */
-    public Seszt<Event> add(Event event) {
-        return _events.Add(event);
+    public Entities<Event> add(Event event) {
+        return get_events().Add(event);
     }
 
     /**
@@ -323,8 +393,8 @@ public abstract class User extends Model {
      * @param chatRoom A ChatRoom object, that is wished to be added to this User.
      * @return All the ChatRooms of this User.
      */
-    public Seszt<ChatRoom> add(ChatRoom chatRoom) {
-        return _chatRooms.Add(chatRoom);
+    public Entities<ChatRoom> add(ChatRoom chatRoom) {
+        return get_chatRooms().Add(chatRoom);
     }
 
     /**
@@ -332,14 +402,8 @@ public abstract class User extends Model {
      * @param event An Event object, that is wished to be added to this User.
      * @return All the Events of this User.
      */
-    public Seszt<Event> remove(Event event) {
-        for (int i = 1; i <= _events.size(); i++) {
-            if (_events.Get(i).get_primaryId() == event.get_primaryId()) {
-                _events.remove(_events.Get(i));
-                break;
-            }
-        }
-
+    public Entities<Event> remove(Event event) {
+        get_events().remove(event);
         return _events;
     }
 
@@ -348,14 +412,8 @@ public abstract class User extends Model {
      * @param chatRoom An ChatRoom object, that is wished to be added to this User.
      * @return All the ChatRooms of this User.
      */
-    public Seszt<ChatRoom> remove(ChatRoom chatRoom) {
-        for (int i = 1; i <= _chatRooms.size(); i++) {
-            if (_chatRooms.Get(i).get_primaryId() == chatRoom.get_primaryId()) {
-                _chatRooms.remove(_chatRooms.Get(i));
-                break;
-            }
-        }
-
+    public Entities<ChatRoom> remove(ChatRoom chatRoom) {
+        get_chatRooms().remove(chatRoom);
         return _chatRooms;
     }
 
@@ -364,14 +422,8 @@ public abstract class User extends Model {
      * @param rating An updated Rating object, that is wished to be set as the new Rating of this User.
      * @return All the Ratings of this User.
      */
-    public Liszt<Rating> edit(Rating rating) {
-        for (int i = 1; i <= _ratings.size(); i++) {
-            if (_ratings.Get(i).get_primaryId() == rating.get_primaryId()) {
-                _ratings.set(i,rating);
-                break;
-            }
-        }
-
+    public Entities<Rating> edit(Rating rating) {
+        get_ratings().set(rating);
         return _ratings;
     }
 
@@ -393,7 +445,16 @@ public abstract class User extends Model {
          * @param subscription The transport object to be transformed.
          */
         public Subscription(DTO subscription) {
-            super(subscription);
+            this(subscription, new ConversionContext());
+        }
+
+        /**
+         * Will translate a transport object of this object into a construct of this object.
+         * @param subscription The transport object to be transformed.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public Subscription(DTO subscription, ConversionContext context) {
+            super(subscription, context);
             _status = Status.valueOf(subscription.getStatus().toString());
         }
 
@@ -457,12 +518,13 @@ public abstract class User extends Model {
          * Is meant to be used as having common fields and be the body of Requests and Responses.
          * Doesn't have any logic.
          */
-        @Getter @Setter
+        @Getter @Setter @Mapped
         public static class DTO extends ModelDTO {
 
             /**
              * The User that uses this Subscription.
              */
+            @Mapped.Skip
             private UserDTO user;
 
             /**
@@ -470,9 +532,22 @@ public abstract class User extends Model {
              */
             private Subscription.Status status;
 
+            /**
+             * Converts into this DTO Object.
+             * @param subscription The Object to be converted.
+             */
             public DTO(Subscription subscription) {
-                super(subscription);
-                status = Subscription.Status.valueOf(subscription.get_status().toString());
+                this(subscription, new ConversionContext());
+            }
+
+            /**
+             * Converts into this DTO Object.
+             * @param subscription The Object to be converted.
+             * @param context The context of the conversion, that keeps track of what has already been converted.
+             */
+            public DTO(Subscription subscription, ConversionContext context) {
+                super(subscription, context);
+                UserSubscriptionMapper.map(subscription, this, context);
             }
         }
     }
@@ -483,7 +558,7 @@ public abstract class User extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public abstract static class UserDTO extends ModelDTO {
 
         /**
@@ -505,6 +580,7 @@ public abstract class User extends Model {
          * The real full name of the user's name.
          * Is generated by first- and last name.
          */
+        @Mapped.Skip
         protected String fullName;
 
         /**
@@ -523,6 +599,7 @@ public abstract class User extends Model {
          * measured from the first message.
          * Is calculated in minutes.
          */
+        @Mapped.Skip
         protected Long answeringTime;
 
         /**
@@ -556,39 +633,29 @@ public abstract class User extends Model {
         /**
          * Messages by other Users.
          */
+        @Mapped.From("_posts")
         protected Post.DTO[] bulletins;
 
+        /**
+         * Converts into this DTO Object.
+         * @param user The Object to be converted.
+         */
         public UserDTO(User user) {
-            super(user);
-
-            username = user.get_username();
-            firstName = user.get_firstName();
-            lastName = user.get_lastName();
-            fullName = user.get_fullName();
-            description = user.get_description();
-            contactInfo = new ContactInfo.DTO(user.get_contactInfo());
-
-            albums = new Album.DTO[user.get_albums().size()];
-            for (int i = 0; i < albums.length; i++)
-                albums[i] = new Album.DTO(user.get_albums().get(i));
-
-            ratings = new Rating.DTO[user.get_ratings().size()];
-            for (int i = 0; i < ratings.length; i++)
-                ratings[i] = new Rating.DTO(user.get_ratings().get(i));
-
-            events = new Event.DTO[user.get_events().size()];
-            for (int i = 0; i < events.length; i++)
-                events[i] = new Event.DTO(user.get_events().get(i));
-
-            chatRooms = new ChatRoom.DTO[user.get_chatRooms().size()];
-            for (int i = 0; i < chatRooms.length; i++)
-                chatRooms[i] = new ChatRoom.DTO(user.get_chatRooms().get(i));
+            this(user, new ConversionContext());
+        }
 
-            subscription = new Subscription.DTO(user.get_subscription());
+        /**
+         * Converts into this DTO Object.
+         * @param user The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public UserDTO(User user, ConversionContext context) {
+            super(user, context);
+            if (context.isReference())
+                return;
 
-            bulletins = new Post.DTO[user.get_posts().size()];
-            for (int i = 0; i < bulletins.length; i++)
-                bulletins[i] = new Post.DTO(user.get_posts().get(i));
+            fullName = user.get_fullName();
+            UserMapper.map(user, this, context);
         }
 
         public enum Authority {
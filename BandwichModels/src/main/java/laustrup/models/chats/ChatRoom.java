@@ -1,18 +1,29 @@
 package laustrup.models.chats;
 
+import laustrup.models.Entities;
 import laustrup.models.History;
+import laustrup.models.Timeline;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.Model;
 import laustrup.models.chats.messages.Mail;
 import laustrup.models.User;
 import laustrup.models.users.Artist;
 import laustrup.models.users.Band;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
+import laustrup.services.Reference;
 import laustrup.utilities.collections.sets.Seszt;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import static laustrup.models.User.UserDTO;
@@ -27,42 +38,75 @@ public class ChatRoom extends Model {
     /**
      * All the Mails that has been sent will be stored here.
      */
-    private Liszt<Mail> _mails;
+    private Entities<Mail> _mails;
+
+    /**
+     * The Mails ordered by their timestamps in segments, so a page of Mails is found without going through every Mail.
+     * Is built from the Mails the first time a page is needed and cleared by every change of Mails through this ChatRoom,
+     * so opening pages doesn't go through the Mails, until they are changed.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient Timeline<Mail> _timeline;
 
     /**
      * The Users, except the responsible, that can write with each other.
      */
     private Seszt<User> _chatters;
 
+    /**
+     * The chatters by their Reference of type and id, so it can be checked if a User is a chatter without going through them.
+     * Is built from the chatters the first time it is needed.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient Set<Object> _members;
+
+    /**
+     * The usernames of the chatters, which is the title when it isn't custom.
+     * Is appended to when chatters are added, so the title isn't built again from every chatter.
+     */
+    @Getter(AccessLevel.NONE) @FieldNameConstants.Exclude
+    private transient StringBuilder _usernames;
+
     /**
      * Converts a Data Transport Object into this object.
      * @param chatRoom The Data Transport Object that will be converted.
      */
     public ChatRoom(ChatRoom.DTO chatRoom) {
-        super(chatRoom);
-        _mails = new Liszt<>();
-        convert(chatRoom.getMails());
-        convert(chatRoom.getChatters());
+        this(chatRoom, new ConversionContext());
+    }
+
+    /**
+     * Converts a Data Transport Object into this object.
+     * @param chatRoom The Data Transport Object that will be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public ChatRoom(ChatRoom.DTO chatRoom, ConversionContext context) {
+        super(chatRoom, context);
+        _mails = new Entities<>();
+        convert(chatRoom.getMails(), context);
+        convert(chatRoom.getChatters(), context);
     }
 
     /**
      * Converts a Data Transport Object into Mails.
      * @param mails The Data Transport Object that will be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
      */
-    private void convert(Mail.DTO[] mails) {
-        _mails = new Liszt<>();
+    private void convert(Mail.DTO[] mails, ConversionContext context) {
+        _mails = new Entities<>();
         for (Mail.DTO mail : mails)
-            _mails.add(new Mail(mail));
+            _mails.add(context.convert(mail, Mail::new));
     }
 
     /**
      * Converts a Data Transport Object into Chatters.
      * @param chatters The Data Transport Object that will be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
      */
-    private void convert(UserDTO[] chatters) {
+    private void convert(UserDTO[] chatters, ConversionContext context) {
         _chatters = new Seszt<>();
         for (UserDTO chatter : chatters)
-            _chatters.add((User) DTOService.convert(chatter));
+            _chatters.add((User) DTOService.convert(chatter, context));
     }
 
     /**
@@ -85,7 +129,7 @@ public class ChatRoom extends Model {
         super(id, title, history, timestamp);
         _chatters = chatters;
         _title = determineChatRoomTitle(_title);
-        _mails = mails;
+        _mails = new Entities<>(mails);
     }
 
     /**
@@ -97,36 +141,82 @@ public class ChatRoom extends Model {
      */
     public ChatRoom(String title, Liszt<Mail> mails, Seszt<User> chatters) {
         super(title);
-        _mails = mails;
+        _mails = new Entities<>(mails);
         _chatters = chatters;
     }
 
-    /**
-     * Will generate a title of the chatters of this ChatRoom
-     * but only if the title isn't default set yet.
-     * @return The generated Title.
-     */
-    private String determineChatRoomTitle() {
-        String title = determineChatRoomTitle(null);
-        return _title.equals(title) ? _title : title;
-    }
-
     /**
      * Will make the title of this ChatRoom be of custom title or chatters' usernames.
      * @param title The custom title.
      * @return The determined title.
      */
     private String determineChatRoomTitle(String title) {
-        if (title == null || title.isEmpty()) {
-            StringBuilder usernames = new StringBuilder();
+        return title == null || title.isEmpty() ? usernames().toString() : title;
+    }
+
+    /**
+     * Gets the usernames of the chatters, will build them first, if they aren't built yet.
+     * @return The usernames separated by commas.
+     */
+    private StringBuilder usernames() {
+        if (_usernames == null) {
+            _usernames = new StringBuilder();
+            if (_chatters != null)
+                for (User chatter : _chatters)
+                    appendUsername(chatter);
+        }
 
-            for (int i = 1; i <= _chatters.size(); i++)
-                usernames.append(_chatters.Get(i).get_username()).append(i < _chatters.size() ? ", " : "");
+        return _usernames;
+    }
 
-            return usernames.toString();
+    /**
+     * Appends the username of a chatter to the usernames.
+     * @param chatter The chatter whose username should be appended.
+     */
+    private void appendUsername(User chatter) {
+        if (!_usernames.isEmpty())
+            _usernames.append(", ");
+        _usernames.append(chatter.get_username());
+    }
+
+    /**
+     * Gets the References of the chatters, will build them first, if they aren't built yet.
+     * @return The References of the chatters.
+     */
+    private Set<Object> members() {
+        if (_members == null) {
+            _members = new HashSet<>();
+            if (_chatters != null)
+                for (User chatter : _chatters)
+                    _members.add(memberOf(chatter));
         }
-        else
-            return title;
+
+        return _members;
+    }
+
+    /**
+     * Finds what a chatter is indexed by, which is its Reference or itself, if it doesn't have an id.
+     * @param chatter The chatter to find the key of.
+     * @return The key.
+     */
+    private static Object memberOf(User chatter) {
+        return chatter.get_primaryId() != null ? new Reference(chatter) : chatter;
+    }
+
+    /**
+     * Adds a chatter, unless it is already a chatter, and appends its username.
+     * @param chatter The User that should be a chatter.
+     * @return True if it was added.
+     */
+    private boolean join(User chatter) {
+        // The usernames are built before the chatter is added, so it isn't appended twice.
+        usernames();
+        if (!members().add(memberOf(chatter)))
+            return false;
+
+        _chatters.add(chatter);
+        appendUsername(chatter);
+        return true;
     }
 
     /**
@@ -135,7 +225,7 @@ public class ChatRoom extends Model {
      * @param mail A Mail object, that is wished to be added.
      * @return All the Mails of this ChatRoom.
      */
-    public Liszt<Mail> add(Mail mail) { return add(new Mail[]{mail}); }
+    public Entities<Mail> add(Mail mail) { return add(new Mail[]{mail}); }
 
     /**
      * Adds Mails to the ChatRoom, if the author of the Mails is a chatter of the ChatRoom.
@@ -143,16 +233,52 @@ public class ChatRoom extends Model {
      * @param mails Mail objects, that is wished to be added.
      * @return All the Mails of this ChatRoom.
      */
-    public Liszt<Mail> add(Mail[] mails) {
+    public Entities<Mail> add(Mail[] mails) {
         ifExists(mails, () -> {
             for (Mail mail : mails)
-                if (exists(mail.get_author()))
-                    _mails.add(mail);
+                if (exists(mail.get_author()) && _mails.add(mail))
+                    _timeline = null;
         });
 
         return _mails;
     }
 
+    /**
+     * Gets a page of the Mails sent before a time, such as the Mails before the earliest Mail that is shown.
+     * Only the segments of the page are read, so it doesn't depend on the amount of Mails.
+     * @param before The Mails must have a timestamp before this, if it is null, the latest Mails are returned.
+     * @param amount The most Mails to return.
+     * @return The latest Mails before the time, in order with the earliest first.
+     */
+    public Liszt<Mail> mailsBefore(LocalDateTime before, int amount) {
+        return mailsBefore(before, null, amount);
+    }
+
+    /**
+     * Gets a page of the Mails before a Mail, such as the earliest Mail that is shown,
+     * where Mails with the same timestamp are ordered by their ids, so none of them are skipped by the next page.
+     * Only the segments of the page are read, so it doesn't depend on the amount of Mails.
+     * @param before The Mails must have a timestamp before this or the same with a lower id,
+     *               if it is null, the latest Mails are returned.
+     * @param id The primary id of the Mail to get the page before, if it is null, the Mails must be before the time.
+     * @param amount The most Mails to return.
+     * @return The latest Mails before the Mail, in order with the earliest first.
+     */
+    public Liszt<Mail> mailsBefore(LocalDateTime before, UUID id, int amount) {
+        return timeline().before(before, id, amount);
+    }
+
+    /**
+     * Gets the Timeline of the Mails, will build it first, if it isn't built yet or has been cleared by a change.
+     * @return The Timeline of the Mails.
+     */
+    private Timeline<Mail> timeline() {
+        if (_timeline == null)
+            _timeline = new Timeline<>(_mails);
+
+        return _timeline;
+    }
+
     /**
      * It will add a chatter, if it isn't already added.
      * If the chatter is a Band, it will try to add all the members of the Band,
@@ -173,38 +299,31 @@ public class ChatRoom extends Model {
      */
     public Seszt<User> add(User[] chatters) {
         ifExists(chatters,() -> {
+            boolean added = false;
+
             for (User chatter : chatters) {
                 if (chatter.getClass() == Band.class) {
                     for (Artist artist : ((Band) chatter).get_members())
-                        if (!_chatters.contains(artist)) {
-                            _chatters.add(artist);
-                            _title = determineChatRoomTitle();
-                        }
-                }
-                else {
-                    _chatters.add(chatter);
-                    _title = determineChatRoomTitle();
+                        added |= join(artist);
                 }
+                else
+                    added |= join(chatter);
             }
+
+            if (added)
+                _title = usernames().toString();
         });
 
         return _chatters;
     }
 
     /**
-     * Checks if a chatter exists in the ChatRoom.
+     * Checks if a chatter exists in the ChatRoom, by its type and id.
      * @param chatter A User, that should be checked, if it already exists in the ChatRoom.
      * @return True if the chatter exists in the ChatRoom.
      */
     public boolean exists(User chatter) {
-        for (User user : _chatters)
-            if (
-                user.getClass() == chatter.getClass()
-                && user.get_primaryId() == chatter.get_primaryId()
-            )
-                return true;
-
-        return false;
+        return members().contains(memberOf(chatter));
     }
 
     /**
@@ -212,13 +331,9 @@ public class ChatRoom extends Model {
      * @param mail The Mail object that is wished to be removed.
      * @return All the Mails of this ChatRoom.
      */
-    public Liszt<Mail> remove(Mail mail) {
-        for (int i = 1; i <= _mails.size(); i++) {
-            if (_mails.Get(i).get_primaryId() == mail.get_primaryId()) {
-                _mails.remove(_mails.Get(i));
-                break;
-            }
-        }
+    public Entities<Mail> remove(Mail mail) {
+        if (_mails.remove(mail))
+            _timeline = null;
 
         return _mails;
     }
@@ -230,8 +345,10 @@ public class ChatRoom extends Model {
      */
     public Seszt<User> remove(User chatter) {
         for (int i = 1; i <= _chatters.size(); i++) {
-            if (_chatters.Get(i).get_primaryId() == chatter.get_primaryId()) {
+            if (Objects.equals(_chatters.Get(i).get_primaryId(), chatter.get_primaryId())) {
+                members().remove(memberOf(_chatters.Get(i)));
                 _chatters.remove(_chatters.Get(i));
+                _usernames = null;
                 break;
             }
         }
@@ -245,11 +362,11 @@ public class ChatRoom extends Model {
      * @return True if it will be edited correctly.
      */
     public boolean edit(Mail mail) {
-        for (int i = 1; i <= _mails.size(); i++)
-            if (_mails.Get(i).get_primaryId() == mail.get_primaryId())
-                return mail == _mails.set(i, mail);
+        Mail previous = _mails.set(mail);
+        if (previous != null)
+            _timeline = null;
 
-        return false;
+        return previous != null;
     }
 
     @Override
@@ -274,12 +391,28 @@ public class ChatRoom extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
-        /** All the Mails that has been sent will be stored here. */
+        /** All the Mails that has been sent will be stored here, or only a page of them. */
+        @Mapped.Skip
         private Mail.DTO[] mails;
 
+        /**
+         * The timestamp to get the page of Mails before the Mails of this DTO,
+         * is null if every Mail is included or there aren't any earlier Mails.
+         */
+        @Mapped.Skip
+        private LocalDateTime cursor;
+
+        /**
+         * The id of the earliest Mail of this DTO, that together with the cursor is where the page before begins,
+         * so Mails with the same timestamp as the cursor are on the page before.
+         * Is null if the cursor is null.
+         */
+        @Mapped.Skip
+        private UUID cursorId;
+
         /** The Users, except the responsible, that can write with each other. */
         private UserDTO[] chatters;
 
@@ -288,13 +421,90 @@ public class ChatRoom extends Model {
          * @param chatRoom The Object to be converted.
          */
         public DTO(ChatRoom chatRoom) {
-            super(chatRoom);
-            mails = new Mail.DTO[chatRoom.get_mails().size()];
-            for (int i = 0; i < mails.length; i++)
-                mails[i] = new Mail.DTO(chatRoom.get_mails().get(i));
-            chatters = new User.UserDTO[chatRoom.get_chatters().size()];
-            for (int i = 0; i < chatters.length; i++)
-                chatters[i] = DTOService.convert(chatRoom.get_chatters().Get(i+1));
+            this(chatRoom, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param chatRoom The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(ChatRoom chatRoom, ConversionContext context) {
+            this(chatRoom, context, chatRoom.get_mails(), chatRoom.get_mails().size());
+        }
+
+        /**
+         * Converts into this DTO Object with only a page of the Mails, so a ChatRoom with many Mails can be opened.
+         * @param chatRoom The Object to be converted.
+         * @param before The Mails must have a timestamp before this, if it is null, the latest Mails are included.
+         * @param amount The most Mails to include.
+         */
+        public DTO(ChatRoom chatRoom, LocalDateTime before, int amount) {
+            this(chatRoom, new ConversionContext(), before, null, amount);
+        }
+
+        /**
+         * Converts into this DTO Object with only a page of the Mails, so a ChatRoom with many Mails can be opened.
+         * @param chatRoom The Object to be converted.
+         * @param before The cursor of the previous page, if it is null, the latest Mails are included.
+         * @param beforeId The cursor id of the previous page.
+         * @param amount The most Mails to include.
+         */
+        public DTO(ChatRoom chatRoom, LocalDateTime before, UUID beforeId, int amount) {
+            this(chatRoom, new ConversionContext(), before, beforeId, amount);
+        }
+
+        /**
+         * Converts into this DTO Object with only a page of the Mails, so a ChatRoom with many Mails can be opened.
+         * @param chatRoom The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         * @param before The Mails must have a timestamp before this, if it is null, the latest Mails are included.
+         * @param amount The most Mails to include.
+         */
+        public DTO(ChatRoom chatRoom, ConversionContext context, LocalDateTime before, int amount) {
+            this(chatRoom, context, before, null, amount);
+        }
+
+        /**
+         * Converts into this DTO Object with only a page of the Mails, so a ChatRoom with many Mails can be opened.
+         * One Mail more than the amount is found, so the cursor is only set, when there are earlier Mails.
+         * @param chatRoom The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         * @param before The cursor of the previous page, if it is null, the latest Mails are included.
+         * @param beforeId The cursor id of the previous page, if it is null, the Mails must be before the cursor.
+         * @param amount The most Mails to include.
+         */
+        public DTO(ChatRoom chatRoom, ConversionContext context, LocalDateTime before, UUID beforeId, int amount) {
+            this(chatRoom, context, chatRoom.mailsBefore(before, beforeId, amount < Integer.MAX_VALUE ? amount + 1 : amount), amount);
+        }
+
+        /**
+         * Converts into this DTO Object with some of the Mails.
+         * @param chatRoom The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         * @param page The Mails that should be included, in order with the earliest first.
+         * @param amount The most Mails to include, if there are more, the earliest are left out and the cursor is set.
+         */
+        private DTO(ChatRoom chatRoom, ConversionContext context, Collection<Mail> page, int amount) {
+            super(chatRoom, context);
+            if (context.isReference())
+                return;
+
+            if (context.includes(chatRoom, ChatRoom.Fields._mails)) {
+                int skipped = Math.max(page.size() - amount, 0), i = 0;
+                mails = new Mail.DTO[page.size() - skipped];
+                for (Mail mail : page)
+                    if (skipped > 0)
+                        skipped--;
+                    else
+                        mails[i++] = context.convert(mail, Mail.DTO::new);
+
+                if (page.size() > amount && mails.length > 0) {
+                    cursor = mails[0].getTimestamp();
+                    cursorId = mails[0].getPrimaryId();
+                }
+            }
+            ChatRoomMapper.map(chatRoom, this, context);
         }
     }
 }
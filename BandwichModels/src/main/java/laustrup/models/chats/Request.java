@@ -4,6 +4,8 @@ import laustrup.models.History;
 import laustrup.models.Model;
 import laustrup.models.Event;
 import laustrup.models.User;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import lombok.Getter;
 import lombok.Setter;
@@ -71,9 +73,18 @@ public class Request extends Model {
      * @param request The transport object to be transformed.
      */
     public Request(DTO request) {
-        super(request);
-        _user = (User) DTOService.convert(request.getUser());
-        _event = new Event(request.getEvent());
+        this(request, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param request The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Request(DTO request, ConversionContext context) {
+        super(request, context);
+        _user = (User) DTOService.convert(request.getUser(), context);
+        _event = context.convert(request.getEvent(), Event::new);
         _approved = request.getApproved();
         _message = request.getMessage();
     }
@@ -151,7 +162,7 @@ public class Request extends Model {
     }
 
     /** Determines if a User have approved to be a part of the Event. */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
         /** The User that needs to approve the Event. */
@@ -171,11 +182,20 @@ public class Request extends Model {
          * @param request The Object to be converted.
          */
         public DTO(Request request) {
-            super(request);
-            user = DTOService.convert(request.get_user());
-            event = new Event.DTO(request.get_event());
-            approved = request.get_approved();
-            message = request.get_message();
+            this(request, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param request The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Request request, ConversionContext context) {
+            super(request, context);
+            if (context.isReference())
+                return;
+
+            RequestMapper.map(request, this, context);
         }
     }
 }
@@ -4,7 +4,10 @@ import laustrup.models.History;
 import laustrup.models.Model;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.User;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 
 import java.time.LocalDateTime;
@@ -26,8 +29,17 @@ public class Mail extends Message {
      * @param mail The transport object to be transformed.
      */
     public Mail(DTO mail) {
-        super(mail);
-        _chatRoom = new ChatRoom(mail.getChatRoom());
+        this(mail, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param mail The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Mail(DTO mail, ConversionContext context) {
+        super(mail, context);
+        _chatRoom = context.convert(mail.getChatRoom(), ChatRoom::new);
     }
 
     /**
@@ -105,7 +117,7 @@ public class Mail extends Message {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends Message.DTO {
 
         /** The ChatRoom that this message exists in. */
@@ -116,8 +128,17 @@ public class Mail extends Message {
          * @param mail The Object to be converted.
          */
         public DTO(Mail mail) {
-            super(mail);
-            chatRoom = new ChatRoom.DTO(mail.get_chatRoom());
+            this(mail, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param mail The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Mail mail, ConversionContext context) {
+            super(mail, context);
+            MailMapper.map(mail, this, context);
         }
     }
 }
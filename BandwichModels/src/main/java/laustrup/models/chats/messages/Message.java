@@ -3,6 +3,8 @@ package laustrup.models.chats.messages;
 import laustrup.models.History;
 import laustrup.models.Model;
 import laustrup.models.User;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import lombok.Getter;
 import lombok.Setter;
@@ -53,8 +55,17 @@ public abstract class Message extends Model {
      * @param message The Data Transport Object that will be converted.
      */
     public Message(DTO message) {
-        super(message);
-        _author = (User) DTOService.convert(message.getAuthor());
+        this(message, new ConversionContext());
+    }
+
+    /**
+     * Converts a Data Transport Object into this object.
+     * @param message The Data Transport Object that will be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Message(DTO message, ConversionContext context) {
+        super(message, context);
+        _author = (User) DTOService.convert(message.getAuthor(), context);
         _content = message.getContent();
         _sent = message.getSent();
         _edited = message.getIsEdited();
@@ -142,7 +153,7 @@ public abstract class Message extends Model {
     /**
      * An abstract class that contains common attributes for Messages.
      */
-    @Getter
+    @Getter @Setter @Mapped
     protected abstract static class DTO extends ModelDTO {
 
         /**
@@ -163,11 +174,13 @@ public abstract class Message extends Model {
         /**
          * Can be null in case that it have never been edited, otherwise it will be the time that it was edited.
          */
+        @Mapped.From("_edited")
         protected LocalDateTime isEdited;
 
         /**
          * Can be switched between both true and false, if true the message is public for every User.
          */
+        @Mapped.From("_public")
         protected boolean isPublic;
 
         /**
@@ -175,12 +188,20 @@ public abstract class Message extends Model {
          * @param message The Object to be converted.
          */
         public DTO(Message message) {
-            super(message);
-            this.author = DTOService.convert(message.get_author());
-            this.content = message.get_content();
-            this.sent = message.get_sent();
-            this.isEdited = message.get_edited();
-            this.isPublic = message.is_public();
+            this(message, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param message The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Message message, ConversionContext context) {
+            super(message, context);
+            if (context.isReference())
+                return;
+
+            MessageMapper.map(message, this, context);
         }
     }
 }
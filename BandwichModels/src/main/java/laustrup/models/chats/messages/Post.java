@@ -3,8 +3,11 @@ package laustrup.models.chats.messages;
 import laustrup.models.History;
 import laustrup.models.Model;
 import laustrup.models.User;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 
 import java.time.LocalDateTime;
@@ -26,8 +29,17 @@ public class Post extends Message {
      * @param bulletin The transport object to be transformed.
      */
     public Post(DTO bulletin) {
-        super(bulletin);
-        _receiver = DTOService.convert(bulletin.getReceiver());
+        this(bulletin, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param bulletin The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Post(DTO bulletin, ConversionContext context) {
+        super(bulletin, context);
+        _receiver = DTOService.convert(bulletin.getReceiver(), context);
     }
 
     /**
@@ -102,7 +114,7 @@ public class Post extends Message {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter
+    @Getter @Setter @Mapped
     public static class DTO extends Message.DTO {
 
         /**
@@ -115,8 +127,17 @@ public class Post extends Message {
          * @param post The Object to be converted.
          */
         public DTO(Post post) {
-            super(post);
-            receiver = DTOService.convert(post.get_receiver());
+            this(post, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param post The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Post post, ConversionContext context) {
+            super(post, context);
+            PostMapper.map(post, this, context);
         }
     }
 }
@@ -5,6 +5,8 @@ import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.chats.Request;
 import laustrup.models.chats.messages.Post;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
 import lombok.Setter;
@@ -35,14 +37,29 @@ public class Artist extends Performer {
      * @param artist The transport object to be transformed.
      */
     public Artist(DTO artist) {
-        super(artist);
-        _bands = new Seszt<>();
-        for (Band.DTO band : artist.getBands())
-            _bands.add(new Band(band));
-
-        _requests = new Liszt<>();
-        for (Request.DTO request : artist.getRequests())
-            _requests.add(new Request(request));
+        this(artist, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param artist The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Artist(DTO artist, ConversionContext context) {
+        super(artist, context);
+        Band.DTO[] bands = artist.getBands();
+        hydrate(Fields._bands, context, current -> {
+            _bands = new Seszt<>();
+            for (Band.DTO band : bands)
+                _bands.add(current.convert(band, Band::new));
+        });
+
+        Request.DTO[] requests = artist.getRequests();
+        hydrate(Fields._requests, context, current -> {
+            _requests = new Liszt<>();
+            for (Request.DTO request : requests)
+                _requests.add(current.convert(request, Request::new));
+        });
     }
 
     /**
@@ -124,13 +141,31 @@ public class Artist extends Performer {
         return add(new Band[]{band});
     }
 
+    /**
+     * Gets the Bands, will convert them first, if their conversion has been postponed.
+     * @return The Bands of the Artist.
+     */
+    public Seszt<Band> get_bands() {
+        hydrate(Fields._bands);
+        return _bands;
+    }
+
+    /**
+     * Gets the Requests, will convert them first, if their conversion has been postponed.
+     * @return The Requests of the Artist.
+     */
+    public Liszt<Request> get_requests() {
+        hydrate(Fields._requests);
+        return _requests;
+    }
+
     /**
      * Adds multiple Bands to the Liszt of bands.
      * @param bands Some specific Bands, that is wished to be added.
      * @return The whole Liszt of bands.
      */
     public Seszt<Band> add(Band[] bands) {
-        return _bands.Add(bands);
+        return get_bands().Add(bands);
     }
 
     /**
@@ -148,7 +183,7 @@ public class Artist extends Performer {
      * @return The whole Liszt of bands.
      */
     public Seszt<Band> remove(Band[] bands) {
-        return _bands.remove(bands);
+        return get_bands().remove(bands);
     }
 
     /**
@@ -157,7 +192,7 @@ public class Artist extends Performer {
      * @return The whole Liszt of Requests.
      */
     public Liszt<Request> add(Request request) {
-        return _requests.Add(request);
+        return get_requests().Add(request);
     }
 
     /**
@@ -166,7 +201,7 @@ public class Artist extends Performer {
      * @return The whole Liszt of Requests.
      */
     public Liszt<Request> remove(Request request) {
-        return _requests.remove(new Request[]{request});
+        return get_requests().remove(new Request[]{request});
     }
 
     @Override
@@ -192,7 +227,7 @@ public class Artist extends Performer {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends PerformerDTO {
 
         /**
@@ -210,13 +245,20 @@ public class Artist extends Performer {
          * @param artist The Object to be converted.
          */
         public DTO(Artist artist) {
-            super(artist);
-            bands = new Band.DTO[artist.get_bands().size()];
-            for (int i = 0; i < bands.length; i++)
-                bands[i] = new Band.DTO(artist.get_bands().Get(i+1));
-            requests = new Request.DTO[artist.get_requests().size()];
-            for (int i = 0; i < requests.length; i++)
-                requests[i] = new Request.DTO(artist.get_requests().Get(i+1));
+            this(artist, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param artist The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Artist artist, ConversionContext context) {
+            super(artist, context);
+            if (context.isReference())
+                return;
+
+            ArtistMapper.map(artist, this, context);
         }
     }
 }
@@ -4,6 +4,8 @@ import laustrup.models.*;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.chats.messages.Post;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
 import lombok.Setter;
@@ -29,7 +31,16 @@ public class Band extends Performer {
      * @param band The transport object to be transformed.
      */
     public Band(Band.DTO band) {
-        super(band);
+        this(band, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param band The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Band(Band.DTO band, ConversionContext context) {
+        super(band, context);
         if (band.getMembers().length == 0)
             throw new InputMismatchException("There is no members in the band");
 
@@ -37,7 +48,7 @@ public class Band extends Performer {
 
         _members = new Seszt<>();
         for (Artist.DTO member : band.getMembers())
-            _members.add(new Artist(member));
+            _members.add(context.convert(member, Artist::new));
     }
 
     /**
@@ -149,7 +160,7 @@ public class Band extends Performer {
      * @return The whole Liszt of fans.
      */
     public Seszt<User> remove(Participant fan) {
-        return _fans.remove(new Participant[]{fan});
+        return get_fans().remove(new Participant[]{fan});
     }
 
     @Override
@@ -176,7 +187,7 @@ public class Band extends Performer {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends PerformerDTO {
 
         /**
@@ -194,12 +205,20 @@ public class Band extends Performer {
          * @param band The Object to be converted.
          */
         public DTO(Band band) {
-            super(band);
-            members = new Artist.DTO[band.get_members().size()];
-            for (int i = 0; i < members.length; i++)
-                members[i] = new Artist.DTO(band.get_members().Get(i+1));
+            this(band, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param band The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Band band, ConversionContext context) {
+            super(band, context);
+            if (context.isReference())
+                return;
 
-            runner = band.get_runner();
+            BandMapper.map(band, this, context);
         }
     }
 }
@@ -1,6 +1,8 @@
 package laustrup.models.users;
 
 import laustrup.models.Model;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
@@ -46,7 +48,16 @@ public class ContactInfo extends Model {
      * @param contactInfo The transport object to be transformed.
      */
     public ContactInfo(DTO contactInfo) {
-        super(contactInfo);
+        this(contactInfo, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param contactInfo The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public ContactInfo(DTO contactInfo, ConversionContext context) {
+        super(contactInfo, context);
         _email = contactInfo.getEmail();
         _address = new Address(contactInfo.getAddress());
         _country = new Country(contactInfo.getCountry());
@@ -355,7 +366,7 @@ public class ContactInfo extends Model {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends ModelDTO {
 
         /** The email that the User wants to be contacted through outside the application. */
@@ -375,14 +386,17 @@ public class ContactInfo extends Model {
          * @param contactInfo The Object to be converted.
          */
         public DTO(ContactInfo contactInfo) {
-            super(contactInfo);
-            email = contactInfo.get_email();
-            address = new Address.DTO(contactInfo.get_address());
-            country = new Country.DTO(contactInfo.get_country());
-
-            phones = new Phone.DTO[contactInfo.get_phones().size()];
-            for (int i = 0; i < phones.length; i++)
-                phones[i] = new Phone.DTO(contactInfo.get_phones().get(i));
+            this(contactInfo, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param contactInfo The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(ContactInfo contactInfo, ConversionContext context) {
+            super(contactInfo, context);
+            ContactInfoMapper.map(contactInfo, this, context);
         }
     }
 }
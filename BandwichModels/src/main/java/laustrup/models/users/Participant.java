@@ -4,6 +4,8 @@ import laustrup.models.*;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.chats.messages.Post;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
@@ -31,10 +33,19 @@ public class Participant extends User {
      * @param participant The transport object to be transformed.
      */
     public Participant(DTO participant) {
-        super(participant);
+        this(participant, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param participant The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Participant(DTO participant, ConversionContext context) {
+        super(participant, context);
         _idols = new Seszt<>();
         for (UserDTO idol : participant.getIdols())
-            _idols.add((User) DTOService.convert(idol));
+            _idols.add((User) DTOService.convert(idol, context));
     }
 
     /**
@@ -133,7 +144,7 @@ public class Participant extends User {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends UserDTO {
 
         /**
@@ -147,12 +158,20 @@ public class Participant extends User {
          * @param participant The object to be converted.
          */
         public DTO(Participant participant) {
-            super(participant);
-            if (idols != null) {
-                idols = new UserDTO[participant.get_idols().size()];
-                for (int i = 0; i < idols.length; i++)
-                    idols[i] = DTOService.convert(participant.get_idols().Get(i+1));
-            }
+            this(participant, new ConversionContext());
+        }
+
+        /**
+         * Converts the object to the data transport object.
+         * @param participant The object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Participant participant, ConversionContext context) {
+            super(participant, context);
+            if (context.isReference())
+                return;
+
+            ParticipantMapper.map(participant, this, context);
         }
 
         /**
@@ -160,12 +179,21 @@ public class Participant extends User {
          * @param user The object to be converted.
          */
         public DTO(User user) {
-            super(user);
-            if (user.getClass() == Participant.class) {
-                idols = new UserDTO[((Participant) user).get_idols().size()];
-                for (int i = 0; i < idols.length; i++)
-                    idols[i] = DTOService.convert(((Participant) user).get_idols().Get(i+1));
-            }
+            this(user, new ConversionContext());
+        }
+
+        /**
+         * Converts the object to the data transport object.
+         * @param user The object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(User user, ConversionContext context) {
+            super(user, context);
+            if (context.isReference())
+                return;
+
+            if (user.getClass() == Participant.class)
+                ParticipantMapper.map((Participant) user, this, context);
         }
     }
 
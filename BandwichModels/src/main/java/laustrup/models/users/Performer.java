@@ -1,6 +1,8 @@
 package laustrup.models.users;
 
 import laustrup.models.*;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 import laustrup.services.DTOService;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
@@ -41,15 +43,30 @@ public abstract class Performer extends Participant {
      * @param performer The transport object to be transformed.
      */
     public Performer(PerformerDTO performer) {
-        super(performer);
-
-        _gigs = new Seszt<>();
-        for (Event.Gig.DTO gig : performer.getGigs())
-            _gigs.add(new Event.Gig(gig));
+        this(performer, new ConversionContext());
+    }
 
-        _fans = new Seszt<>();
-        for (UserDTO fan : performer.getFans())
-            _fans.add((User) DTOService.convert(fan));
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param performer The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Performer(PerformerDTO performer, ConversionContext context) {
+        super(performer, context);
+
+        Event.Gig.DTO[] gigs = performer.getGigs();
+        hydrate(Fields._gigs, context, current -> {
+            _gigs = new Seszt<>();
+            for (Event.Gig.DTO gig : gigs)
+                _gigs.add(current.convert(gig, Event.Gig::new));
+        });
+
+        UserDTO[] fans = performer.getFans();
+        hydrate(Fields._fans, context, current -> {
+            _fans = new Seszt<>();
+            for (UserDTO fan : fans)
+                _fans.add((User) DTOService.convert(fan, current));
+        });
 
         _runner = performer.getRunner();
     }
@@ -118,13 +135,31 @@ public abstract class Performer extends Participant {
         _runner = runner;
     }
 
+    /**
+     * Gets the Gigs, will convert them first, if their conversion has been postponed.
+     * @return The Gigs of the Performer.
+     */
+    public Seszt<Event.Gig> get_gigs() {
+        hydrate(Fields._gigs);
+        return _gigs;
+    }
+
+    /**
+     * Gets the fans, will convert them first, if their conversion has been postponed.
+     * @return The fans of the Performer.
+     */
+    public Seszt<User> get_fans() {
+        hydrate(Fields._fans);
+        return _fans;
+    }
+
     /**
      * Will add a Gig to the Performer.
      * @param gig A Gig object, that is wished to be added.
      * @return All the Gigs of the Performer.
      */
     public Seszt<Event.Gig> add(Event.Gig gig) {
-        _gigs.add(gig);
+        get_gigs().add(gig);
         return _gigs;
     }
 
@@ -134,7 +169,7 @@ public abstract class Performer extends Participant {
      * @return All the Gigs of the Performer.
      */
     public Seszt<Event.Gig> remove(Event.Gig gig) {
-        _gigs.remove(gig);
+        get_gigs().remove(gig);
         return _gigs;
     }
 
@@ -153,7 +188,7 @@ public abstract class Performer extends Participant {
      * @return The whole Liszt of fans.
      */
     public Seszt<User> add(User[] fans) {
-        return _fans.Add(fans);
+        return get_fans().Add(fans);
     }
 
     /**
@@ -161,7 +196,7 @@ public abstract class Performer extends Participant {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public abstract static class PerformerDTO extends Participant.DTO {
 
         /**
@@ -184,14 +219,20 @@ public abstract class Performer extends Participant {
          * @param performer The Object to be converted.
          */
         public PerformerDTO(Performer performer) {
-            super(performer);
-            gigs = new Event.Gig.DTO[performer.get_gigs().size()];
-            for (int i = 0; i < gigs.length; i++)
-                gigs[i] = new Event.Gig.DTO(performer.get_gigs().get(i));
-            fans = new UserDTO[performer.get_fans().size()];
-            for (int i = 0; i < fans.length; i++)
-                fans[i] = DTOService.convert(performer.get_fans().get(i));
-            runner = performer.get_runner();
+            this(performer, new ConversionContext());
+        }
+
+        /**
+         * Converts into this DTO Object.
+         * @param performer The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public PerformerDTO(Performer performer, ConversionContext context) {
+            super(performer, context);
+            if (context.isReference())
+                return;
+
+            PerformerMapper.map(performer, this, context);
         }
     }
 }
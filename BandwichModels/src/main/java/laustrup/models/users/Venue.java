@@ -5,6 +5,8 @@ import laustrup.utilities.collections.lists.Liszt;
 import laustrup.models.chats.ChatRoom;
 import laustrup.models.chats.Request;
 import laustrup.models.chats.messages.Post;
+import laustrup.services.ConversionContext;
+import laustrup.services.Mapped;
 
 import laustrup.utilities.collections.sets.Seszt;
 import lombok.Getter;
@@ -51,7 +53,16 @@ public class Venue extends User {
      * @param venue The transport object to be transformed.
      */
     public Venue(DTO venue) {
-        super(venue);
+        this(venue, new ConversionContext());
+    }
+
+    /**
+     * Will translate a transport object of this object into a construct of this object.
+     * @param venue The transport object to be transformed.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     */
+    public Venue(DTO venue, ConversionContext context) {
+        super(venue, context);
 
         _location = venue.getLocation() == null ? _contactInfo.getAddressInfo() : venue.getLocation();
 
@@ -60,7 +71,7 @@ public class Venue extends User {
 
         _requests = new Liszt<>();
         for (Request.DTO request : venue.getRequests())
-            _requests.add(new Request(request));
+            _requests.add(context.convert(request, Request::new));
     }
 
     /**
@@ -187,7 +198,7 @@ public class Venue extends User {
      * Is meant to be used as having common fields and be the body of Requests and Responses.
      * Doesn't have any logic.
      */
-    @Getter @Setter
+    @Getter @Setter @Mapped
     public static class DTO extends UserDTO {
 
         /**
@@ -198,6 +209,7 @@ public class Venue extends User {
         /**
          * The description of the gear that the Venue posses.
          */
+        @Mapped.From("_stageSetup")
         private String gearDescription;
 
         /**
@@ -215,15 +227,20 @@ public class Venue extends User {
          * @param venue The Object to be converted.
          */
         public DTO(Venue venue) {
-            super(venue);
+            this(venue, new ConversionContext());
+        }
 
-            location = venue.get_location();
+        /**
+         * Converts into this DTO Object.
+         * @param venue The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(Venue venue, ConversionContext context) {
+            super(venue, context);
+            if (context.isReference())
+                return;
 
-            gearDescription = venue.get_stageSetup();
-            size = venue.get_size();
-            requests = new Request.DTO[venue.get_requests().size()];
-            for (int i = 0; i < requests.length; i++)
-                requests[i] = new Request.DTO(venue.get_requests().Get(i+1));
+            VenueMapper.map(venue, this, context);
         }
 
         /**
@@ -231,17 +248,21 @@ public class Venue extends User {
          * @param user The Object to be converted.
          */
         public DTO(User user) {
-            super(user);
+            this(user, new ConversionContext());
+        }
 
-            if (user.getClass() == Venue.class) {
-                location = ((Venue) user).get_location();
+        /**
+         * Converts into this DTO Object.
+         * @param user The Object to be converted.
+         * @param context The context of the conversion, that keeps track of what has already been converted.
+         */
+        public DTO(User user, ConversionContext context) {
+            super(user, context);
+            if (context.isReference())
+                return;
 
-                gearDescription = ((Venue) user).get_stageSetup();
-                size = ((Venue) user).get_size();
-                requests = new Request.DTO[((Venue) user).get_requests().size()];
-                for (int i = 0; i < requests.length; i++)
-                    requests[i] = new Request.DTO(((Venue) user).get_requests().Get(i+1));
-            }
+            if (user.getClass() == Venue.class)
+                VenueMapper.map((Venue) user, this, context);
         }
     }
 }
@@ -0,0 +1,389 @@
+package laustrup.services;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps track of the objects that have been converted during a single conversion,
+ * whether it is from Models into DTOs or the other way around.
+ * Each object is identified by its reference, so the same object will only be converted once,
+ * and objects that refer back to each other will end up referring to the same converted object,
+ * instead of being converted again and again.
+ * Can also be limited by a Projection, in order to only convert parts of the graph,
+ * or be lazy, in order to postpone the conversion of collections until they are used.
+ * Is meant to be created for one conversion and discarded afterwards.
+ * Isn't thread safe, a part of the conversion that is done on another thread should use a fork of it.
+ * The forks of a context share one concurrent map, where each object is claimed by the first fork that converts it,
+ * so an object reachable from several forks is still only converted once.
+ */
+public class ConversionContext {
+
+    /**
+     * The objects that have been converted,
+     * with the objects they were converted from as keys by identity.
+     */
+    private final IdentityHashMap<Object, Object> _conversions = new IdentityHashMap<>();
+
+    /**
+     * The conversions of the context that was forked, which aren't changed while the forks are converting.
+     * Is null, if this context isn't a fork.
+     */
+    private Map<Object, Object> _base;
+
+    /**
+     * The conversions of the forks, that are shared by every fork of the same context,
+     * with the objects they were converted from as keys by identity.
+     * Is null, if this context isn't a fork.
+     */
+    private ConcurrentHashMap<Identity, Claim> _claims;
+
+    /**
+     * Limits how much of the graph will be converted.
+     * If it is null, everything that is reachable will be converted.
+     */
+    private final Projection _projection;
+
+    /**
+     * The amount of conversions that are currently in progress through this context,
+     * which is the level below the first conversion plus one.
+     */
+    private int _depth;
+
+    /**
+     * If true, collections of Models converted from DTOs will first be converted,
+     * when they are used the first time, instead of during the conversion.
+     */
+    private final boolean _lazy;
+
+    /**
+     * Replaces a source with another source, before it is converted.
+     * Is used to replace references with the entities they refer to.
+     * If it is null, every source is converted as it is.
+     */
+    private UnaryOperator<Object> _resolver;
+
+    /**
+     * Records each conversion of this context.
+     * Is the metrics of the DTOService when the context is created, if it is null, nothing is recorded.
+     */
+    private ConversionMetrics _metrics = DTOService.get_metrics();
+
+    /**
+     * Will convert everything that is reachable.
+     */
+    public ConversionContext() {
+        this(null);
+    }
+
+    /**
+     * @param projection Limits how much of the graph will be converted.
+     */
+    public ConversionContext(Projection projection) {
+        this(projection, false);
+    }
+
+    /**
+     * @param lazy If true, collections of Models will first be converted, when they are used the first time.
+     */
+    public ConversionContext(boolean lazy) {
+        this(null, lazy);
+    }
+
+    /**
+     * @param projection Limits how much of the graph will be converted.
+     * @param lazy If true, collections of Models will first be converted, when they are used the first time.
+     */
+    public ConversionContext(Projection projection, boolean lazy) {
+        _projection = projection;
+        _lazy = lazy;
+    }
+
+    /**
+     * Will convert the source, unless it has already been converted within this context,
+     * in that case the previous conversion will be returned.
+     * @param source The object that should be converted, can be null.
+     * @param converter The function that converts the source, such as a constructor of a DTO.
+     * @return The converted object or null, if the source is null.
+     * @param <S> The type of the source.
+     * @param <T> The type that the source is converted into.
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> T convert(S source, BiFunction<S, ConversionContext, T> converter) {
+        if (source == null)
+            return null;
+        if (_resolver != null)
+            source = (S) _resolver.apply(source);
+        if (_claims != null)
+            return claim(source, converter);
+
+        Object conversion = _conversions.get(source);
+        if (conversion != null)
+            return (T) conversion;
+
+        ConversionMetrics metrics = _metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        int size = _conversions.size();
+
+        T converted = apply(source, converter);
+        _conversions.putIfAbsent(source, converted);
+
+        if (metrics != null)
+            metrics.record(source.getClass(), System.nanoTime() - start, _conversions.size() - size);
+
+        return converted;
+    }
+
+    /**
+     * Converts the source as a fork, where the first fork to claim the source converts it,
+     * and the other forks wait until it is registered and use the same converted object.
+     * A claim is registered as soon as the conversion of a Model begins,
+     * so the forks only wait for each other for a moment.
+     * If the converting thread reaches its own source again, before it is registered,
+     * it is converted again, just as without forks.
+     */
+    @SuppressWarnings("unchecked")
+    private <S, T> T claim(S source, BiFunction<S, ConversionContext, T> converter) {
+        Object conversion = _base.get(source);
+        if (conversion != null)
+            return (T) conversion;
+
+        Identity identity = new Identity(source);
+        Claim claim = new Claim();
+        Claim existing = _claims.putIfAbsent(identity, claim);
+        if (existing != null)
+            return existing.isOwned() && existing._target == null
+                    ? apply(source, converter)
+                    : (T) existing.await();
+
+        ConversionMetrics metrics = _metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        int size = _claims.size();
+
+        T converted;
+        try {
+            converted = apply(source, converter);
+        } catch (RuntimeException | Error e) {
+            _claims.remove(identity, claim);
+            claim.fill(null);
+            throw e;
+        }
+        claim.fill(converted);
+
+        if (metrics != null)
+            metrics.record(source.getClass(), System.nanoTime() - start, _claims.size() - size);
+
+        return (T) claim._target;
+    }
+
+    /**
+     * Converts the source one level deeper.
+     */
+    private <S, T> T apply(S source, BiFunction<S, ConversionContext, T> converter) {
+        _depth++;
+        try {
+            return converter.apply(source, this);
+        } finally {
+            _depth--;
+        }
+    }
+
+    /**
+     * Registers the conversion of a source, before its conversion is done.
+     * Should be used as the first thing when a conversion begins,
+     * so any references back to the source will be the same converted object.
+     * @param source The object that is being converted.
+     * @param target The object that the source is being converted into.
+     */
+    public void register(Object source, Object target) {
+        // A conversion that wasn't started through the context is the first level of the conversion.
+        if (_depth == 0)
+            _depth = 1;
+
+        if (_claims == null) {
+            _conversions.putIfAbsent(source, target);
+            return;
+        }
+        if (_base.containsKey(source))
+            return;
+
+        Claim claim = _claims.computeIfAbsent(new Identity(source), identity -> new Claim());
+        if (claim.isOwned())
+            claim.fill(target);
+    }
+
+    /**
+     * Checks if the object that is currently being converted is deeper than the Projection allows,
+     * meaning that it should only be converted as a reference with its ids, title and timestamp.
+     * @return True if the current object should only be a reference.
+     */
+    public boolean isReference() {
+        return _projection != null && !_projection.isWithin(Math.max(_depth - 1, 0));
+    }
+
+    /**
+     * Checks if a field of the object that is currently being converted should be converted.
+     * @param source The object that is currently being converted.
+     * @param field The name of the field from the FieldNameConstants of the Model.
+     * @return True if the Projection includes the field.
+     */
+    public boolean includes(Object source, String field) {
+        return _projection == null || _projection.includes(source.getClass(), field);
+    }
+
+    /**
+     * Checks if collections of Models should first be converted, when they are used the first time.
+     * A lazy context is kept by the Models until all of their collections are converted,
+     * so objects that refer back to each other will still end up as the same converted object.
+     * The Models hold the context as a lock while they convert a collection,
+     * so Models of the same conversion can be used from different threads.
+     * @return True if the context is lazy.
+     */
+    public boolean isLazy() {
+        return _lazy;
+    }
+
+    /**
+     * Will replace each source with what the resolver returns for it, before it is converted.
+     * The resolver must return an object of the same type as the source, or the source itself.
+     * @param resolver Replaces a source with another source, such as a reference with the entity it refers to.
+     * @return This context.
+     */
+    public ConversionContext resolving(UnaryOperator<Object> resolver) {
+        _resolver = resolver;
+        return this;
+    }
+
+    /**
+     * The objects that have been converted so far, with the objects they were converted from as keys by identity.
+     * @return A view of the conversions, that can't be modified.
+     */
+    public Map<Object, Object> conversions() {
+        return Collections.unmodifiableMap(_conversions);
+    }
+
+    /**
+     * Creates a context for converting a part of this conversion on another thread.
+     * It knows everything that is converted so far, so references back to those objects are kept.
+     * Every fork of this context, and the forks of those, share the same conversions,
+     * so what one fork converts is used by the others, and only becomes known by this context, once it is merged back.
+     * This context must not be used, while its forks are converting.
+     * @return The forked context.
+     */
+    public ConversionContext fork() {
+        ConversionContext fork = new ConversionContext(_projection, _lazy);
+        fork._resolver = _resolver;
+        fork._metrics = _metrics;
+        fork._depth = _depth;
+        fork._base = _claims != null ? _base : _conversions;
+        fork._claims = _claims != null ? _claims : new ConcurrentHashMap<>();
+
+        return fork;
+    }
+
+    /**
+     * Adds the conversions of the forks of this context to this context,
+     * conversions that this context already knows are kept.
+     * Should be done on the thread that forked it, after every fork is done converting.
+     * Since the forks share their conversions, it only needs to be done with one of them.
+     * @param fork A context that was forked from this context.
+     */
+    public void merge(ConversionContext fork) {
+        if (fork._claims == _claims)
+            return;
+
+        for (Map.Entry<Identity, Claim> conversion : fork._claims.entrySet())
+            if (conversion.getValue()._target != null)
+                _conversions.putIfAbsent(conversion.getKey()._source, conversion.getValue()._target);
+    }
+
+    /**
+     * Checks if a source has already been converted or is being converted within this context.
+     * @param source The object that might have been converted.
+     * @return True if the source has been registered.
+     */
+    public boolean contains(Object source) {
+        return _claims == null
+                ? _conversions.containsKey(source)
+                : _base.containsKey(source) || _claims.containsKey(new Identity(source));
+    }
+
+    /**
+     * The amount of objects that have been converted in this context.
+     * @return The amount of registered conversions.
+     */
+    public int size() {
+        return _claims == null ? _conversions.size() : _base.size() + _claims.size();
+    }
+
+    /**
+     * An object as a key, that is equal to other keys by its reference.
+     * @param _source The object.
+     */
+    private record Identity(Object _source) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Identity identity && identity._source == _source;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(_source);
+        }
+    }
+
+    /**
+     * The conversion of an object by the fork that claimed it.
+     */
+    private static class Claim {
+
+        /** The thread of the fork that converts the object. */
+        private final Thread _owner = Thread.currentThread();
+
+        /** Is counted down, once the converted object is registered or the conversion failed. */
+        private final CountDownLatch _registered = new CountDownLatch(1);
+
+        /** The converted object, is null until it is registered. */
+        private volatile Object _target;
+
+        private boolean isOwned() {
+            return _owner == Thread.currentThread();
+        }
+
+        /**
+         * Sets the converted object, unless it is already registered.
+         * Is only done by the owner.
+         * @param target The converted object or null, if the conversion failed.
+         */
+        private void fill(Object target) {
+            if (_target != null)
+                return;
+
+            _target = target;
+            _registered.countDown();
+        }
+
+        /**
+         * Waits until the owner has registered the converted object.
+         * @return The converted object.
+         * @throws IllegalStateException If the conversion failed or the thread was interrupted.
+         */
+        private Object await() {
+            try {
+                _registered.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a conversion of another thread", e);
+            }
+            if (_target == null)
+                throw new IllegalStateException("The conversion failed on another thread");
+
+            return _target;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package laustrup.services;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the conversions of each type, how long they take and how many objects they convert.
+ * Is used by the conversions of a ConversionContext, when it is set with DTOService.set_metrics(),
+ * where every conversion of the type is counted, including the conversions of their nested objects.
+ * The time and objects of a conversion includes its nested conversions,
+ * so a type with many objects per conversion is the root of a large graph.
+ * Can be recorded from many threads at once.
+ */
+public class ConversionMetrics {
+
+    /**
+     * The counters of each type that has been converted, with the class of the source as key.
+     */
+    private final ConcurrentHashMap<Class<?>, Counter> _counters = new ConcurrentHashMap<>();
+
+    /**
+     * Records a conversion.
+     * @param type The class of the object that was converted.
+     * @param nanos The time it took in nanoseconds, including its nested conversions.
+     * @param objects The amount of objects that were converted, including the object itself.
+     */
+    public void record(Class<?> type, long nanos, int objects) {
+        _counters.computeIfAbsent(type, key -> new Counter()).record(nanos, objects);
+    }
+
+    /**
+     * Reads the counters of each type as they are right now.
+     * Conversions that are recorded at the same time might only be partly included.
+     * @return The snapshots of each type, with the class of the source as key.
+     */
+    public Map<Class<?>, Snapshot> snapshot() {
+        Map<Class<?>, Snapshot> snapshots = new LinkedHashMap<>();
+        _counters.forEach((type, counter) -> snapshots.put(type, counter.snapshot(type)));
+
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Reads the counters of a type as they are right now.
+     * @param type The class of the objects that have been converted.
+     * @return The snapshot of the type or null, if it hasn't been converted.
+     */
+    public Snapshot snapshot(Class<?> type) {
+        Counter counter = _counters.get(type);
+        return counter != null ? counter.snapshot(type) : null;
+    }
+
+    /**
+     * Removes every count, so counting starts over.
+     */
+    public void reset() {
+        _counters.clear();
+    }
+
+    /**
+     * The counts of one type, that can be added to from many threads at once.
+     */
+    private static class Counter {
+
+        /** The amount of conversions. */
+        private final LongAdder _conversions = new LongAdder();
+
+        /** The total time of the conversions in nanoseconds. */
+        private final LongAdder _totalNanos = new LongAdder();
+
+        /** The longest time of a single conversion in nanoseconds. */
+        private final LongAccumulator _maxNanos = new LongAccumulator(Math::max, 0);
+
+        /** The total amount of objects converted by the conversions. */
+        private final LongAdder _objects = new LongAdder();
+
+        private void record(long nanos, int objects) {
+            _conversions.increment();
+            _totalNanos.add(nanos);
+            _maxNanos.accumulate(nanos);
+            _objects.add(objects);
+        }
+
+        private Snapshot snapshot(Class<?> type) {
+            return new Snapshot(type, _conversions.sum(), _totalNanos.sum(), _maxNanos.get(), _objects.sum());
+        }
+    }
+
+    /**
+     * The counts of one type at the time it was read.
+     */
+    @Getter @ToString
+    public static class Snapshot {
+
+        /** The class of the objects that have been converted. */
+        private final Class<?> _type;
+
+        /** The amount of conversions. */
+        private final long _conversions;
+
+        /** The total time of the conversions in nanoseconds, including their nested conversions. */
+        private final long _totalNanos;
+
+        /** The longest time of a single conversion in nanoseconds. */
+        private final long _maxNanos;
+
+        /** The total amount of objects converted by the conversions, including their nested objects. */
+        private final long _objects;
+
+        private Snapshot(Class<?> type, long conversions, long totalNanos, long maxNanos, long objects) {
+            _type = type;
+            _conversions = conversions;
+            _totalNanos = totalNanos;
+            _maxNanos = maxNanos;
+            _objects = objects;
+        }
+
+        /**
+         * The average time of a conversion.
+         * @return The average in nanoseconds or zero, if there hasn't been any conversions.
+         */
+        public long averageNanos() {
+            return _conversions > 0 ? _totalNanos / _conversions : 0;
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package laustrup.services;
 
+import laustrup.models.Album;
 import laustrup.models.Model;
 import laustrup.models.Event;
+import laustrup.models.Rating;
+import laustrup.models.Ticket;
 import laustrup.models.User;
+import laustrup.models.chats.ChatRoom;
+import laustrup.models.chats.Request;
+import laustrup.models.chats.messages.Mail;
+import laustrup.models.chats.messages.Post;
 import laustrup.models.users.Artist;
 import laustrup.models.users.Band;
+import laustrup.models.users.ContactInfo;
 import laustrup.models.users.Participant;
 import laustrup.models.users.Venue;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
 import static laustrup.models.User.UserDTO;
 import static laustrup.models.Model.ModelDTO;
 
@@ -16,19 +32,284 @@ import static laustrup.models.Model.ModelDTO;
  */
 public class DTOService extends Service {
 
+    /**
+     * The converters of each Model and DTO class, with the class they convert from as key.
+     * Is only filled once, when this class is loaded.
+     */
+    private static final Map<Class<?>, BiFunction<Object, ConversionContext, Object>> _converters = new HashMap<>();
+
+    /**
+     * Finds the converter of a class once and remembers it for that class.
+     * Classes that aren't registered will use the converter of their nearest registered superclass.
+     */
+    private static final ClassValue<BiFunction<Object, ConversionContext, Object>> _dispatch = new ClassValue<>() {
+        @Override
+        protected BiFunction<Object, ConversionContext, Object> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                BiFunction<Object, ConversionContext, Object> converter = _converters.get(current);
+                if (converter != null)
+                    return converter;
+            }
+
+            return null;
+        }
+    };
+
+    /**
+     * The amount of elements, that a bulk conversion must exceed,
+     * before its elements will be converted in parallel.
+     */
+    private static volatile int _parallelThreshold = 1000;
+
+    /**
+     * Records the conversions of contexts created while it is set.
+     * If it is null, nothing is recorded.
+     */
+    private static volatile ConversionMetrics _metrics;
+
+    static {
+        register(Venue.class, Venue.DTO.class, Venue.DTO::new, Venue::new);
+        register(Artist.class, Artist.DTO.class, Artist.DTO::new, Artist::new);
+        register(Band.class, Band.DTO.class, Band.DTO::new, Band::new);
+        register(Participant.class, Participant.DTO.class, Participant.DTO::new, Participant::new);
+        register(ContactInfo.class, ContactInfo.DTO.class, ContactInfo.DTO::new, ContactInfo::new);
+        register(User.Subscription.class, User.Subscription.DTO.class, User.Subscription.DTO::new, User.Subscription::new);
+        register(Event.class, Event.DTO.class, Event.DTO::new, Event::new);
+        register(Event.Gig.class, Event.Gig.DTO.class, Event.Gig.DTO::new, Event.Gig::new);
+        register(Event.Participation.class, Event.Participation.DTO.class, Event.Participation.DTO::new, Event.Participation::new);
+        register(Album.class, Album.DTO.class, Album.DTO::new, Album::new);
+        register(Album.Item.class, Album.Item.DTO.class, Album.Item.DTO::new, Album.Item::new);
+        register(Rating.class, Rating.DTO.class, Rating.DTO::new, Rating::new);
+        register(Ticket.class, Ticket.DTO.class, Ticket.DTO::new, Ticket::new);
+        register(Ticket.Option.class, Ticket.Option.DTO.class, Ticket.Option.DTO::new, Ticket.Option::new);
+        register(Request.class, Request.DTO.class, Request.DTO::new, Request::new);
+        register(ChatRoom.class, ChatRoom.DTO.class, ChatRoom.DTO::new, ChatRoom::new);
+        register(Mail.class, Mail.DTO.class, Mail.DTO::new, Mail::new);
+        register(Post.class, Post.DTO.class, Post.DTO::new, Post::new);
+    }
+
+    /**
+     * Registers the converters between a Model and its DTO.
+     * @param model The class of the Model.
+     * @param dto The class of the DTO.
+     * @param toDTO Converts the Model into the DTO, such as the constructor of the DTO.
+     * @param fromDTO Converts the DTO into the Model, such as the constructor of the Model.
+     * @param <M> The type of the Model.
+     * @param <D> The type of the DTO.
+     */
+    @SuppressWarnings("unchecked")
+    private static <M extends Model, D extends ModelDTO> void register(
+            Class<M> model,
+            Class<D> dto,
+            BiFunction<M, ConversionContext, D> toDTO,
+            BiFunction<D, ConversionContext, M> fromDTO
+    ) {
+        _converters.put(model, (BiFunction<Object, ConversionContext, Object>) (BiFunction<?, ConversionContext, ?>) toDTO);
+        _converters.put(dto, (BiFunction<Object, ConversionContext, Object>) (BiFunction<?, ConversionContext, ?>) fromDTO);
+    }
+
+    /**
+     * Finds the converter of the class of an Object.
+     * @param converting The Object that is about to be converted.
+     * @return The converter of the class.
+     * @throws IllegalStateException If there isn't any converter for the class.
+     */
+    private static BiFunction<Object, ConversionContext, Object> converterOf(Object converting) {
+        BiFunction<Object, ConversionContext, Object> converter = _dispatch.get(converting.getClass());
+        if (converter == null)
+            throw new IllegalStateException("Unexpected value: " + converting.getClass().getSimpleName());
+
+        return converter;
+    }
+
+    /**
+     * Sets the amount of elements, that a bulk conversion must exceed,
+     * before its elements will be converted in parallel.
+     * @param threshold The amount of elements, must be at least one.
+     * @throws IllegalArgumentException If the threshold is less than one.
+     */
+    public static void set_parallelThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Parallel threshold must be at least one, but was " + threshold);
+
+        _parallelThreshold = threshold;
+    }
+
+    /**
+     * Sets the metrics that will record the conversions of contexts created from now on.
+     * @param metrics The metrics to record into, or null to stop recording.
+     */
+    public static void set_metrics(ConversionMetrics metrics) {
+        _metrics = metrics;
+    }
+
+    /**
+     * The metrics that records the conversions of new contexts.
+     * @return The metrics or null, if conversions aren't recorded.
+     */
+    public static ConversionMetrics get_metrics() {
+        return _metrics;
+    }
+
+    /**
+     * Converts all the Users to DTO Objects in the same order.
+     * @param users The Objects to be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @return The converted Objects.
+     */
+    public static UserDTO[] convertAll(Collection<? extends User> users, ConversionContext context) {
+        return DTOService.<User, UserDTO>convertAll(users, UserDTO[]::new, (user, current) -> (UserDTO) converterOf(user).apply(user, current), context);
+    }
+
+    /**
+     * Converts all the sources in the same order.
+     * If there are more sources than the parallel threshold,
+     * they will be divided and converted in parallel, where each part uses a fork of the context,
+     * that are merged back into the context afterwards.
+     * @param sources The Objects to be converted, can be null.
+     * @param generator Creates the array of the converted Objects, such as Event.DTO[]::new.
+     * @param converter The function that converts each source, such as a constructor of a DTO.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @return The converted Objects or null, if the sources are null.
+     * @param <S> The type of the sources.
+     * @param <T> The type that the sources are converted into.
+     */
+    public static <S, T> T[] convertAll(
+            Collection<? extends S> sources,
+            IntFunction<T[]> generator,
+            BiFunction<S, ConversionContext, T> converter,
+            ConversionContext context
+    ) {
+        return convertAll(sources, generator, converter, context, _parallelThreshold);
+    }
+
+    /**
+     * Converts all the sources in the same order.
+     * If there are more sources than the threshold,
+     * they will be divided and converted in parallel, where each part uses a fork of the context.
+     * The forks share their conversions, so a source that is reachable from several parts is only converted once,
+     * and they are merged back into the context afterwards.
+     * @param sources The Objects to be converted, can be null.
+     * @param generator Creates the array of the converted Objects, such as Event.DTO[]::new.
+     * @param converter The function that converts each source, such as a constructor of a DTO.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @param threshold The amount of sources, that must be exceeded before they are converted in parallel.
+     * @return The converted Objects or null, if the sources are null.
+     * @param <S> The type of the sources.
+     * @param <T> The type that the sources are converted into.
+     * @throws IllegalArgumentException If the threshold is less than one.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> T[] convertAll(
+            Collection<? extends S> sources,
+            IntFunction<T[]> generator,
+            BiFunction<S, ConversionContext, T> converter,
+            ConversionContext context,
+            int threshold
+    ) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Parallel threshold must be at least one, but was " + threshold);
+        if (sources == null)
+            return null;
+
+        Object[] converting = sources.toArray();
+        T[] converted = generator.apply(converting.length);
+
+        if (converting.length <= threshold) {
+            for (int i = 0; i < converting.length; i++)
+                converted[i] = context.convert((S) converting[i], converter);
+
+            return converted;
+        }
+
+        ConversionContext fork = context.fork();
+        ForkJoinPool.commonPool().invoke(new Conversion<>(
+                converting, converted, 0, converting.length, threshold, converter, fork
+        ));
+        context.merge(fork);
+
+        return converted;
+    }
+
+    /**
+     * A part of a bulk conversion, that divides itself until it is within the threshold,
+     * then converts its part with its own fork of the context.
+     * @param <S> The type of the sources.
+     * @param <T> The type that the sources are converted into.
+     */
+    private static class Conversion<S, T> extends RecursiveAction {
+
+        /** All the Objects of the bulk conversion, that are being converted. */
+        private final Object[] _converting;
+
+        /** All the converted Objects of the bulk conversion, in the same order as the sources. */
+        private final T[] _converted;
+
+        /** The index of the first source of this part, and the index after its last source. */
+        private final int _from, _to;
+
+        /** The amount of sources, that a part may have before it is divided. */
+        private final int _threshold;
+
+        /** The function that converts each source. */
+        private final BiFunction<S, ConversionContext, T> _converter;
+
+        /** A fork of the context of the bulk conversion, that shares its conversions with the forks of each part. */
+        private final ConversionContext _context;
+
+        private Conversion(
+                Object[] converting,
+                T[] converted,
+                int from,
+                int to,
+                int threshold,
+                BiFunction<S, ConversionContext, T> converter,
+                ConversionContext context
+        ) {
+            _converting = converting;
+            _converted = converted;
+            _from = from;
+            _to = to;
+            _threshold = threshold;
+            _converter = converter;
+            _context = context;
+        }
+
+        @Override @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (_to - _from > _threshold) {
+                int middle = (_from + _to) >>> 1;
+                invokeAll(
+                        new Conversion<>(_converting, _converted, _from, middle, _threshold, _converter, _context),
+                        new Conversion<>(_converting, _converted, middle, _to, _threshold, _converter, _context)
+                );
+                return;
+            }
+
+            ConversionContext fork = _context.fork();
+            for (int i = _from; i < _to; i++)
+                _converted[i] = fork.convert((S) _converting[i], _converter);
+        }
+    }
+
     /**
      * Converts to DTO Object.
      * @param user The Object to be converted.
      * @return The converted Object.
      */
     public static UserDTO convert(User user) {
-        return user == null ? null : switch (user.getClass().getSimpleName()) {
-            case "Venue" -> new Venue.DTO(user);
-            case "Artist" -> new Artist.DTO((Artist) user);
-            case "Band" -> new Band.DTO((Band) user);
-            case "Participant" -> new Participant.DTO(user);
-            default -> throw new IllegalStateException("Unexpected value: " + user.getClass().getSimpleName());
-        };
+        return convert(user, new ConversionContext());
+    }
+
+    /**
+     * Converts to DTO Object.
+     * If the User has already been converted within the context, that conversion will be reused.
+     * @param user The Object to be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @return The converted Object.
+     */
+    public static UserDTO convert(User user, ConversionContext context) {
+        return (UserDTO) convert((Model) user, context);
     }
 
     /**
@@ -37,14 +318,21 @@ public class DTOService extends Service {
      * @return The converted Object.
      */
     public static Model convert(ModelDTO model) {
-        return model == null ? null : switch (model.getClass().getName()) {
-            case "VENUE" -> new Venue((Venue.DTO) model);
-            case "ARTIST" -> new Artist((Artist.DTO) model);
-            case "BAND" -> new Band((Band.DTO) model);
-            case "PARTICIPANT" -> new Participant(((Participant.DTO) model));
-            case "EVENT" -> new Event((Event.DTO) model);
-            default -> null;
-        };
+        return convert(model, new ConversionContext());
+    }
+
+    /**
+     * Converts from DTO Object.
+     * If the DTO Object has already been converted within the context, that conversion will be reused.
+     * @param model The Object to be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @return The converted Object.
+     * @throws IllegalStateException If there isn't any converter for the class of the DTO Object.
+     */
+    public static Model convert(ModelDTO model, ConversionContext context) {
+        return context.<ModelDTO, Model>convert(model, (converting, current) ->
+                (Model) converterOf(converting).apply(converting, current)
+        );
     }
 
     /**
@@ -53,13 +341,41 @@ public class DTOService extends Service {
      * @return The converted Object.
      */
     public static ModelDTO convert(Model model) {
-        return model == null ? null : switch (model.getClass().getName()) {
-            case "VENUE" ->  new Venue.DTO((Venue) model);
-            case "ARTIST" -> new Artist.DTO((Artist) model);
-            case "BAND" -> new Band.DTO((Band) model);
-            case "PARTICIPANT" -> new Participant.DTO(((Participant) model));
-            case "EVENT" -> new Event.DTO((Event) model);
-            default -> null;
-        };
+        return convert(model, new ConversionContext());
+    }
+
+    /**
+     * Converts to DTO Object.
+     * If the Object has already been converted within the context, that conversion will be reused.
+     * @param model The Object to be converted.
+     * @param context The context of the conversion, that keeps track of what has already been converted.
+     * @return The converted Object.
+     * @throws IllegalStateException If there isn't any converter for the class of the Object.
+     */
+    public static ModelDTO convert(Model model, ConversionContext context) {
+        return context.<Model, ModelDTO>convert(model, (converting, current) ->
+                (ModelDTO) converterOf(converting).apply(converting, current)
+        );
+    }
+
+    /**
+     * Converts to DTO Object, but only as much of it as the Projection allows.
+     * Models deeper than the Projection allows will only be references of their ids, titles and timestamps.
+     * @param model The Object to be converted.
+     * @param projection Limits how much of the Object will be converted.
+     * @return The converted Object.
+     */
+    public static ModelDTO convert(Model model, Projection projection) {
+        return convert(model, new ConversionContext(projection));
+    }
+
+    /**
+     * Converts to DTO Object, where every nested entity is a reference,
+     * and each of them is included once with their own nested entities as references.
+     * @param model The Object to be converted.
+     * @return The converted Object with the entities it refers to.
+     */
+    public static Normalized<ModelDTO> normalize(Model model) {
+        return new Normalized<>(model);
     }
 }
@@ -0,0 +1,726 @@
+package laustrup.services;
+
+import laustrup.models.Album;
+import laustrup.models.Event;
+import laustrup.models.History;
+import laustrup.models.Model;
+import laustrup.models.Rating;
+import laustrup.models.Ticket;
+import laustrup.models.TicketBase;
+import laustrup.models.User;
+import laustrup.models.chats.ChatRoom;
+import laustrup.models.chats.Request;
+import laustrup.models.chats.messages.Mail;
+import laustrup.models.chats.messages.Message;
+import laustrup.models.chats.messages.Post;
+import laustrup.models.users.Artist;
+import laustrup.models.users.Band;
+import laustrup.models.users.ContactInfo;
+import laustrup.models.users.Participant;
+import laustrup.models.users.Performer;
+import laustrup.models.users.Venue;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes Models as JSON directly into a Writer or OutputStream, without converting them into DTOs first.
+ * The JSON has the same fields as the DTOs of the Models would have.
+ * Models that are written more than once within the same write, such as Models that refer back to each other,
+ * are only written fully the first time, afterwards they are references with only the fields of ModelDTO.
+ * Can be limited by a Projection the same way as conversions into DTOs,
+ * or be normalized, where nested Models are references and each Model is included once.
+ */
+public class JsonWriter implements Closeable, Flushable {
+
+    /**
+     * Writes the fields of a Model, that aren't part of every Model.
+     * @param <M> The type of Model.
+     */
+    @FunctionalInterface
+    private interface Content<M extends Model> {
+        void write(JsonWriter writer, M model) throws IOException;
+    }
+
+    /**
+     * The contents of each Model class, with the class as key.
+     * Is only filled once, when this class is loaded.
+     */
+    private static final Map<Class<?>, Content<Model>> _contents = new HashMap<>();
+
+    /**
+     * Finds the content of a class once and remembers it for that class.
+     * Classes that aren't registered will use the content of their nearest registered superclass.
+     */
+    private static final ClassValue<Content<Model>> _dispatch = new ClassValue<>() {
+        @Override
+        protected Content<Model> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Content<Model> content = _contents.get(current);
+                if (content != null)
+                    return content;
+            }
+
+            return (writer, model) -> {};
+        }
+    };
+
+    static {
+        register(Venue.class, JsonWriter::venue);
+        register(Artist.class, JsonWriter::artist);
+        register(Band.class, JsonWriter::band);
+        register(Participant.class, JsonWriter::participant);
+        register(ContactInfo.class, JsonWriter::contactInfo);
+        register(User.Subscription.class, JsonWriter::subscription);
+        register(Event.class, JsonWriter::event);
+        register(Event.Gig.class, JsonWriter::gig);
+        register(Event.Participation.class, JsonWriter::participation);
+        register(Album.class, JsonWriter::album);
+        register(Album.Item.class, JsonWriter::item);
+        register(Rating.class, JsonWriter::rating);
+        register(Ticket.class, JsonWriter::ticket);
+        register(Ticket.Option.class, JsonWriter::option);
+        register(Request.class, JsonWriter::request);
+        register(ChatRoom.class, JsonWriter::chatRoom);
+        register(Mail.class, JsonWriter::mail);
+        register(Post.class, JsonWriter::post);
+    }
+
+    /**
+     * Registers how the fields of a Model class are written.
+     * @param type The class of the Model.
+     * @param content Writes the fields of the Model, that aren't part of every Model.
+     * @param <M> The type of the Model.
+     */
+    @SuppressWarnings("unchecked")
+    private static <M extends Model> void register(Class<M> type, Content<M> content) {
+        _contents.put(type, (Content<Model>) (Content<?>) content);
+    }
+
+    /** The destination of the JSON. */
+    private final Writer _writer;
+
+    /** Limits how much of the Models will be written, null means everything. */
+    private final Projection _projection;
+
+    /** Keeps track of what has been written during the current write. */
+    private ConversionContext _context;
+
+    /**
+     * True if nested Models should be written as references with their type and ids,
+     * and be included once in a list after the written Model.
+     */
+    private final boolean _normalized;
+
+    /** The nested Models that should be included, when writing normalized. */
+    private final Deque<Model> _pending = new ArrayDeque<>();
+
+    /**
+     * True if the next name or element must be separated from the previous one.
+     * Is reset for each write, since each write is its own JSON value.
+     */
+    private boolean _separate;
+
+    /**
+     * Will write everything that is reachable from the Models.
+     * @param writer The destination of the JSON.
+     */
+    public JsonWriter(Writer writer) {
+        this(writer, null);
+    }
+
+    /**
+     * Will write everything that is reachable from the Models as UTF-8.
+     * @param stream The destination of the JSON.
+     */
+    public JsonWriter(OutputStream stream) {
+        this(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)), null);
+    }
+
+    /**
+     * @param writer The destination of the JSON.
+     * @param projection Limits how much of the Models will be written.
+     */
+    public JsonWriter(Writer writer, Projection projection) {
+        _writer = writer;
+        _projection = projection;
+        _normalized = false;
+    }
+
+    /**
+     * If normalized, a Model will be written as an object with the Model as data,
+     * where nested Models are references of their type and ids,
+     * and every nested Model, that can be reached, is written once in the included list.
+     * @param writer The destination of the JSON.
+     * @param normalized True if nested Models should be written as references and included once.
+     */
+    public JsonWriter(Writer writer, boolean normalized) {
+        _writer = writer;
+        _projection = null;
+        _normalized = normalized;
+    }
+
+    /**
+     * Writes the Model as a JSON object.
+     * @param model The Model to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    public void write(Model model) throws IOException {
+        _context = new ConversionContext(_projection);
+        _separate = false;
+        try {
+            if (_normalized && model != null)
+                normalized(List.of(model), false);
+            else
+                model(model);
+        } finally {
+            _context = null;
+            _pending.clear();
+        }
+    }
+
+    /**
+     * Writes the Models as data and every Model that can be reached from them once as included,
+     * where the nested Models of both are references.
+     * @param models The Models to be written.
+     * @param array True if the data should be an array, otherwise it is the only Model.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void normalized(Collection<? extends Model> models, boolean array) throws IOException {
+        Set<Reference> written = new HashSet<>();
+
+        beginObject();
+        name("data");
+        if (array)
+            beginArray();
+        for (Model model : models) {
+            written.add(new Reference(model));
+            object(model, false);
+        }
+        if (array)
+            endArray();
+        name("included");
+        beginArray();
+        while (!_pending.isEmpty()) {
+            Model included = _pending.poll();
+            if (written.add(new Reference(included)))
+                object(included, false);
+        }
+        endArray();
+        endObject();
+    }
+
+    /**
+     * Writes the Models as a JSON array in the same order.
+     * Models that appear multiple times, also inside each other, are only written fully once.
+     * @param models The Models to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    public void write(Collection<? extends Model> models) throws IOException {
+        _context = new ConversionContext(_projection);
+        _separate = false;
+        try {
+            if (_normalized && models != null)
+                normalized(models, true);
+            else
+                models(models);
+        } finally {
+            _context = null;
+            _pending.clear();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        _writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        _writer.close();
+    }
+
+    /**
+     * Writes a Model as a JSON object,
+     * or as a reference, if it has already been written or is deeper than the Projection allows.
+     * @param model The Model to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void model(Model model) throws IOException {
+        if (model == null) {
+            value(null);
+            return;
+        }
+        if (_normalized) {
+            reference(model);
+            _pending.add(model);
+            return;
+        }
+        if (_context.contains(model)) {
+            object(model, true);
+            return;
+        }
+
+        try {
+            _context.convert(model, (writing, context) -> {
+                context.register(writing, writing);
+                try {
+                    object(writing, context.isReference());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return writing;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a Model as a reference with its type and ids,
+     * the secondary id is only written, if the Model has one.
+     * @param model The Model to be referenced.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void reference(Model model) throws IOException {
+        beginObject();
+        field("type", model.getClass().getSimpleName());
+        field("id", model.get_primaryId());
+        if (model.hasSecondaryId())
+            field("secondaryId", model.get_secondaryId());
+        endObject();
+    }
+
+    /**
+     * Writes the Models as a JSON array.
+     * @param models The Models to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void models(Collection<? extends Model> models) throws IOException {
+        if (models == null) {
+            value(null);
+            return;
+        }
+
+        beginArray();
+        for (Model model : models)
+            model(model);
+        endArray();
+    }
+
+    /**
+     * Writes the fields of ModelDTO and, unless it is a reference, the rest of the fields of the Model.
+     * @param model The Model to be written.
+     * @param reference True if only the fields of ModelDTO should be written.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void object(Model model, boolean reference) throws IOException {
+        beginObject();
+        field("primaryId", model.get_primaryId());
+        field("secondaryId", model.get_secondaryId());
+        field("title", model.get_title());
+        name("history");
+        history(reference ? null : model.get_history());
+        field("timestamp", model.get_timestamp());
+        field("situation", model.get_situation());
+        if (!reference)
+            _dispatch.get(model.getClass()).write(this, model);
+        endObject();
+    }
+
+    /**
+     * Writes a field with a nested Model, if the Projection includes it, otherwise it will be null.
+     * @param model The Model that is being written.
+     * @param field The name of the field from the FieldNameConstants of the Model.
+     * @param name The name of the field in the DTO.
+     * @param value The nested Model.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void field(Model model, String field, String name, Model value) throws IOException {
+        name(name);
+        if (_context.includes(model, field))
+            model(value);
+        else
+            value(null);
+    }
+
+    /**
+     * Writes a field with nested Models, if the Projection includes it, otherwise it will be null.
+     * @param model The Model that is being written.
+     * @param field The name of the field from the FieldNameConstants of the Model.
+     * @param name The name of the field in the DTO.
+     * @param values The nested Models.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void field(Model model, String field, String name, Collection<? extends Model> values) throws IOException {
+        name(name);
+        if (_context.includes(model, field))
+            models(values);
+        else
+            value(null);
+    }
+
+    private static void user(JsonWriter writer, User user) throws IOException {
+        writer.field("username", user.get_username());
+        writer.field("firstName", user.get_firstName());
+        writer.field("lastName", user.get_lastName());
+        writer.field("fullName", user.get_fullName());
+        writer.field("description", user.get_description());
+        writer.field(user, User.Fields._contactInfo, "contactInfo", user.get_contactInfo());
+        writer.field("answeringTime", null);
+        writer.field(user, User.Fields._albums, "albums", user.get_albums());
+        writer.field(user, User.Fields._ratings, "ratings", user.get_ratings());
+        writer.field(user, User.Fields._events, "events", user.get_events());
+        writer.field(user, User.Fields._chatRooms, "chatRooms", user.get_chatRooms());
+        writer.field(user, User.Fields._subscription, "subscription", user.get_subscription());
+        writer.field(user, User.Fields._posts, "bulletins", user.get_posts());
+    }
+
+    private static void venue(JsonWriter writer, Venue venue) throws IOException {
+        user(writer, venue);
+        writer.field("location", venue.get_location());
+        writer.field("gearDescription", venue.get_stageSetup());
+        writer.field("size", venue.get_size());
+        writer.field(venue, Venue.Fields._requests, "requests", venue.get_requests());
+    }
+
+    private static void participant(JsonWriter writer, Participant participant) throws IOException {
+        user(writer, participant);
+        writer.field(participant, Participant.Fields._idols, "idols", participant.get_idols());
+    }
+
+    private static void performer(JsonWriter writer, Performer performer) throws IOException {
+        participant(writer, performer);
+        writer.field(performer, Performer.Fields._gigs, "gigs", performer.get_gigs());
+        writer.field(performer, Performer.Fields._fans, "fans", performer.get_fans());
+        writer.field("runner", performer.get_runner());
+    }
+
+    private static void artist(JsonWriter writer, Artist artist) throws IOException {
+        performer(writer, artist);
+        writer.field(artist, Artist.Fields._bands, "bands", artist.get_bands());
+        writer.field(artist, Artist.Fields._requests, "requests", artist.get_requests());
+    }
+
+    private static void band(JsonWriter writer, Band band) throws IOException {
+        performer(writer, band);
+        writer.field(band, Band.Fields._members, "members", band.get_members());
+    }
+
+    private static void contactInfo(JsonWriter writer, ContactInfo contactInfo) throws IOException {
+        writer.field("email", contactInfo.get_email());
+
+        writer.name("phones");
+        if (contactInfo.get_phones() == null)
+            writer.value(null);
+        else {
+            writer.beginArray();
+            for (ContactInfo.Phone phone : contactInfo.get_phones()) {
+                writer.beginObject();
+                writer.name("country");
+                writer.country(phone.get_country());
+                writer.field("numbers", phone.get_numbers());
+                writer.field("mobile", phone.is_mobile());
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+
+        writer.name("address");
+        ContactInfo.Address address = contactInfo.get_address();
+        if (address == null)
+            writer.value(null);
+        else {
+            writer.beginObject();
+            writer.field("street", address.get_street());
+            writer.field("floor", address.get_floor());
+            writer.field("postal", address.get_postal());
+            writer.field("city", address.get_city());
+            writer.endObject();
+        }
+
+        writer.name("country");
+        writer.country(contactInfo.get_country());
+    }
+
+    private static void subscription(JsonWriter writer, User.Subscription subscription) throws IOException {
+        writer.field("user", null);
+        writer.field("status", subscription.get_status());
+    }
+
+    private static void event(JsonWriter writer, Event event) throws IOException {
+        writer.field("openDoors", event.get_openDoors());
+        writer.field("start", event.get_start());
+        writer.field("end", event.get_end());
+        writer.field("length", event.get_duration());
+        writer.field("description", event.get_description());
+        writer.field("isVoluntary", event.get_voluntary() != null ? event.get_voluntary().get_argument() : null);
+        writer.field("isPublic", event.get_public());
+        writer.field("isCancelled", event.get_cancelled());
+        writer.field("isSoldOut", event.get_soldOut());
+        writer.field("location", event.get_location());
+        writer.field(event, Event.Fields._ticketOptions, "ticketOptions", event.get_ticketOptions());
+        writer.field(event, Event.Fields._tickets, "tickets", event.get_tickets());
+        writer.field(event, Event.Fields._contactInfo, "contactInfo", event.get_contactInfo());
+        writer.field(event, Event.Fields._gigs, "gigs", event.get_gigs());
+        writer.field(event, Event.Fields._venue, "venue", event.get_venue());
+        writer.field(event, Event.Fields._requests, "requests", event.get_requests());
+        writer.field(event, Event.Fields._participations, "participations", event.get_participations());
+        writer.field(event, Event.Fields._posts, "posts", event.get_posts());
+        writer.field(event, Event.Fields._albums, "albums", event.get_albums());
+    }
+
+    private static void gig(JsonWriter writer, Event.Gig gig) throws IOException {
+        writer.field(gig, Event.Gig.Fields._event, "event", gig.get_event());
+        writer.field(gig, Event.Gig.Fields._act, "act", gig.get_act());
+        writer.field("start", gig.get_start());
+        writer.field("end", gig.get_end());
+    }
+
+    private static void participation(JsonWriter writer, Event.Participation participation) throws IOException {
+        writer.field(participation, Event.Participation.Fields._participant, "participant", participation.get_participant());
+        writer.field("event", null);
+        writer.field("type", participation.get_type());
+    }
+
+    private static void album(JsonWriter writer, Album album) throws IOException {
+        writer.field(album, Album.Fields._items, "items", album.get_items());
+        writer.field("authorId", album.get_authorId());
+    }
+
+    private static void item(JsonWriter writer, Album.Item item) throws IOException {
+        writer.name("tags");
+        writer.values(item.get_tags());
+        writer.field("endpoint", item.get_endpoint());
+        writer.field(item, Album.Item.Fields._event, "event", item.get_event());
+        writer.field("kind", item.get_kind());
+    }
+
+    private static void rating(JsonWriter writer, Rating rating) throws IOException {
+        writer.field("value", rating.get_value());
+        writer.field("comment", rating.get_comment());
+    }
+
+    private static void ticketBase(JsonWriter writer, TicketBase ticket) throws IOException {
+        writer.field("seat", ticket.get_seat());
+        writer.field("price", ticket.get_price());
+        writer.field("valuta", ticket.get_valuta());
+    }
+
+    private static void ticket(JsonWriter writer, Ticket ticket) throws IOException {
+        ticketBase(writer, ticket);
+        writer.field("arrived", ticket.get_arrived());
+        writer.field(ticket, Ticket.Fields._option, "option", ticket.get_option());
+    }
+
+    private static void option(JsonWriter writer, Ticket.Option option) throws IOException {
+        ticketBase(writer, option);
+        writer.name("eventIds");
+        writer.values(option.get_eventIds());
+        writer.field("venueId", option.get_venueId());
+    }
+
+    private static void request(JsonWriter writer, Request request) throws IOException {
+        writer.field(request, Request.Fields._user, "user", request.get_user());
+        writer.field(request, Request.Fields._event, "event", request.get_event());
+        writer.field("approved", request.get_approved());
+        writer.field("message", request.get_message());
+    }
+
+    private static void chatRoom(JsonWriter writer, ChatRoom chatRoom) throws IOException {
+        writer.field(chatRoom, ChatRoom.Fields._mails, "mails", chatRoom.get_mails());
+        writer.field(chatRoom, ChatRoom.Fields._chatters, "chatters", chatRoom.get_chatters());
+    }
+
+    private static void message(JsonWriter writer, Message message) throws IOException {
+        writer.field(message, Message.Fields._author, "author", message.get_author());
+        writer.field("content", message.get_content());
+        writer.field("sent", message.get_sent());
+        writer.field("isEdited", message.get_edited());
+        writer.field("isPublic", message.is_public());
+    }
+
+    private static void mail(JsonWriter writer, Mail mail) throws IOException {
+        message(writer, mail);
+        writer.field(mail, Mail.Fields._chatRoom, "chatRoom", mail.get_chatRoom());
+    }
+
+    private static void post(JsonWriter writer, Post post) throws IOException {
+        message(writer, post);
+        writer.field(post, Post.Fields._receiver, "receiver", post.get_receiver());
+    }
+
+    /**
+     * Writes the History with the fields of its DTO.
+     * @param history The History to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void history(History history) throws IOException {
+        if (history == null) {
+            value(null);
+            return;
+        }
+
+        beginObject();
+        field("id", history.get_id());
+        name("stories");
+        beginArray();
+        for (History.Story story : history.get_stories()) {
+            beginObject();
+            field("id", story.get_id());
+            field("title", story.get_title());
+            field("description", story.get_description());
+            field("type", story.get_type());
+            field("timestamp", story.get_timestamp());
+            endObject();
+        }
+        endArray();
+        endObject();
+    }
+
+    /**
+     * Writes the Country with the fields of its DTO.
+     * @param country The Country to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void country(ContactInfo.Country country) throws IOException {
+        if (country == null) {
+            value(null);
+            return;
+        }
+
+        beginObject();
+        field("title", country.get_title());
+        field("firstPhoneNumberDigits", country.get_firstPhoneNumberDigits());
+        endObject();
+    }
+
+    /**
+     * Writes the values as a JSON array.
+     * @param values The values to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void values(Collection<?> values) throws IOException {
+        if (values == null) {
+            value(null);
+            return;
+        }
+
+        beginArray();
+        for (Object value : values)
+            value(value);
+        endArray();
+    }
+
+    /**
+     * Writes a field with a simple value.
+     * @param name The name of the field in the DTO.
+     * @param value The value of the field, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void field(String name, Object value) throws IOException {
+        name(name);
+        value(value);
+    }
+
+    private void beginObject() throws IOException {
+        separate();
+        _writer.write('{');
+        _separate = false;
+    }
+
+    private void endObject() throws IOException {
+        _writer.write('}');
+        _separate = true;
+    }
+
+    private void beginArray() throws IOException {
+        separate();
+        _writer.write('[');
+        _separate = false;
+    }
+
+    private void endArray() throws IOException {
+        _writer.write(']');
+        _separate = true;
+    }
+
+    private void name(String name) throws IOException {
+        separate();
+        string(name);
+        _writer.write(':');
+        _separate = false;
+    }
+
+    /**
+     * Writes a simple value, numbers and booleans are written as they are,
+     * everything else is written as the String of the value.
+     * Numbers that aren't finite, such as NaN, are written as Strings, since JSON doesn't have them.
+     * @param value The value to be written, can be null.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void value(Object value) throws IOException {
+        separate();
+        if (value == null)
+            _writer.write("null");
+        else if (value instanceof Double number && !Double.isFinite(number)
+                || value instanceof Float decimal && !Float.isFinite(decimal))
+            string(value.toString());
+        else if (value instanceof Number || value instanceof Boolean)
+            _writer.write(value.toString());
+        else
+            string(value.toString());
+        _separate = true;
+    }
+
+    private void separate() throws IOException {
+        if (_separate)
+            _writer.write(',');
+    }
+
+    /**
+     * Writes a quoted and escaped JSON String.
+     * @param value The String to be written.
+     * @throws IOException If the destination can't be written to.
+     */
+    private void string(String value) throws IOException {
+        _writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            String escaped = switch (character) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                case '\b' -> "\\b";
+                case '\f' -> "\\f";
+                default -> character < 0x20 ? String.format("\\u%04x", (int) character) : null;
+            };
+
+            if (escaped != null) {
+                _writer.write(value, start, i - start);
+                _writer.write(escaped);
+                start = i + 1;
+            }
+        }
+        _writer.write(value, start, value.length() - start);
+        _writer.write('"');
+    }
+}
@@ -0,0 +1,41 @@
+package laustrup.services;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO, that gets a mapper generated by the MapperProcessor, when it is compiled.
+ * The Model of the DTO is the class that the DTO is declared in, such as Rating for Rating.DTO.
+ * The mapper copies each field that the DTO declares from the field of the Model with the same name and an underscore,
+ * through the getter of the Model and the setter of the DTO, so the DTO must have setters.
+ * Models are converted through the ConversionContext, unless it is a reference or its Projection excludes them.
+ * If a field can't be mapped, the compilation fails, unless it is marked with From or Skip.
+ * The mapper of Rating.DTO is RatingMapper and the mapper of Event.Gig.DTO is EventGigMapper,
+ * in the package of the Model, which the constructor of the DTO uses after its super constructor.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Mapped {
+
+    /**
+     * Maps the field from a field of the Model with another name.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.FIELD)
+    @interface From {
+
+        /**
+         * @return The name of the field of the Model from the FieldNameConstants, such as _stageSetup.
+         */
+        String value();
+    }
+
+    /**
+     * Leaves the field out of the mapper, so it is either set by the constructor of the DTO or not at all.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.FIELD)
+    @interface Skip {}
+}
@@ -0,0 +1,390 @@
+package laustrup.services;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a mapper for each DTO marked with Mapped, that copies the fields of its Model into it,
+ * without any reflection or lookups of converters, so each mapper only calls the getters, setters and constructors
+ * of the exact classes it maps.
+ * Is compiled before the rest of the project and runs after Lombok, so it only reads the fields of the classes,
+ * and calls the getters of the Models and setters of the DTOs by the names that Lombok gives them.
+ * A field of a DTO is mapped from the field of the Model in one of these ways:
+ * copied, if the field of the Model can be assigned to it,
+ * converted through the ConversionContext with the constructor of the DTO, if it is a DTO of a Model,
+ * or through the DTOService, if that DTO is abstract,
+ * converted into an array in the same order, if it is an array and the field of the Model is a collection,
+ * converted by the name, if both are enums,
+ * or created with the constructor of the DTO, that takes the value of the Model.
+ * DTOs of Models are only converted if the context isn't a reference and includes the field.
+ */
+@SupportedAnnotationTypes(MapperProcessor.MAPPED)
+public class MapperProcessor extends AbstractProcessor {
+
+    /** The name of the annotation, that marks the DTOs that gets a mapper. */
+    static final String MAPPED = "laustrup.services.Mapped";
+
+    /** The name of the annotation, that maps a field from a field of the Model with another name. */
+    private static final String FROM = MAPPED + ".From";
+
+    /** The name of the annotation, that leaves a field out of the mapper. */
+    private static final String SKIP = MAPPED + ".Skip";
+
+    /** The names of the classes, that the generated mappers use. */
+    private static final String
+            MODEL = "laustrup.models.Model",
+            MODEL_DTO = "laustrup.models.Model.ModelDTO",
+            CONTEXT = "laustrup.services.ConversionContext",
+            SERVICE = "laustrup.services.DTOService";
+
+    private Types _types;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        _types = processingEnv.getTypeUtils();
+
+        for (TypeElement annotation : annotations)
+            for (TypeElement dto : ElementFilter.typesIn(round.getElementsAnnotatedWith(annotation)))
+                generate(dto);
+
+        return true;
+    }
+
+    /**
+     * Writes the mapper of a DTO, unless one of its fields can't be mapped, which is reported as an error.
+     * @param dto The DTO marked with Mapped.
+     */
+    private void generate(TypeElement dto) {
+        if (!(dto.getEnclosingElement() instanceof TypeElement model)) {
+            error(dto, "A Mapped DTO must be declared in its Model");
+            return;
+        }
+        if (!isSubtype(dto.asType(), MODEL_DTO) || !isSubtype(model.asType(), MODEL)) {
+            error(dto, "A Mapped DTO must be a ModelDTO declared in a Model");
+            return;
+        }
+
+        List<String> statements = new ArrayList<>();
+        boolean mappable = true;
+        for (VariableElement field : ElementFilter.fieldsIn(dto.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC) || annotation(field, SKIP) != null)
+                continue;
+
+            String source = annotation(field, FROM) != null
+                    ? String.valueOf(valueOf(annotation(field, FROM)))
+                    : "_" + field.getSimpleName();
+            VariableElement origin = fieldOf(model, source);
+            if (origin == null) {
+                error(field, model.getSimpleName() + " doesn't have the field " + source
+                        + ", it must be Mapped.From another field or be Mapped.Skip");
+                mappable = false;
+                continue;
+            }
+
+            String statement = statementOf(model, field, origin);
+            if (statement == null) {
+                error(field, "Can't map " + origin.asType() + " " + source + " into " + field.asType()
+                        + ", it must be Mapped.From another field or be Mapped.Skip");
+                mappable = false;
+                continue;
+            }
+            statements.add(statement);
+        }
+
+        if (mappable)
+            write(dto, model, statements);
+    }
+
+    /**
+     * Writes the statement, that maps a field of the DTO from a field of the Model.
+     * @return The statement or null, if it can't be mapped.
+     */
+    private String statementOf(TypeElement model, VariableElement field, VariableElement origin) {
+        TypeMirror from = _types.asMemberOf((DeclaredType) model.asType(), origin),
+                to = field.asType();
+        String getter = "model." + (from.getKind() == TypeKind.BOOLEAN ? "is" : "get") + origin.getSimpleName() + "()",
+                setter = "dto." + setterOf(field),
+                guard = "        if (!context.isReference() && context.includes(model, \"" + origin.getSimpleName() + "\"))\n";
+
+        if (_types.isAssignable(from, to))
+            return "        " + setter + "(" + getter + ");\n";
+
+        if (isSubtype(to, MODEL_DTO)) {
+            String conversion = conversionOf(from, to, getter);
+            return conversion != null ? guard + "            " + setter + "(" + conversion + ");\n" : null;
+        }
+
+        if (to.getKind() == TypeKind.ARRAY) {
+            TypeMirror element = ((ArrayType) to).getComponentType(),
+                    origins = elementOf(from);
+            if (origins == null)
+                return null;
+
+            if (isSubtype(element, MODEL_DTO)) {
+                if (isConstructed(element, origins, true))
+                    return guard + "            " + setter + "(" + SERVICE + ".<" + origins + ", " + nameOf(element)
+                            + ">convertAll(" + getter + ", " + nameOf(element) + "[]::new, " + nameOf(element)
+                            + "::new, context));\n";
+
+                String conversion = conversionOf(origins, element, "origin");
+                return conversion != null
+                        ? guard.replace(")\n", ") {\n") + loopOf(from, element, origins, getter, setter, conversion) + "        }\n"
+                        : null;
+            }
+
+            String conversion = valueOf(origins, element, "origin");
+            return conversion != null
+                    ? "        {\n" + loopOf(from, element, origins, getter, setter, conversion) + "        }\n"
+                    : null;
+        }
+
+        String conversion = valueOf(from, to, "value");
+        return conversion != null
+                ? "        {\n"
+                        + "            " + from + " value = " + getter + ";\n"
+                        + "            " + setter + "(value != null ? " + conversion + " : null);\n"
+                        + "        }\n"
+                : null;
+    }
+
+    /**
+     * Writes the loop, that converts each value of a collection into an array in the same order,
+     * which must be put in a block of its own.
+     */
+    private String loopOf(
+            TypeMirror from, TypeMirror element, TypeMirror origins,
+            String getter, String setter, String conversion
+    ) {
+        String convert = conversion.equals("origin") || conversion.startsWith("(")
+                ? conversion
+                : "origin != null ? " + conversion + " : null";
+
+        return "            " + from + " origins = " + getter + ";\n"
+                + "            if (origins != null) {\n"
+                + "                " + nameOf(element) + "[] values = new " + nameOf(element) + "[origins.size()];\n"
+                + "                int i = 0;\n"
+                + "                for (" + origins + " origin : origins)\n"
+                + "                    values[i++] = " + convert + ";\n"
+                + "                " + setter + "(values);\n"
+                + "            }\n";
+    }
+
+    /**
+     * Writes the conversion of a Model into its DTO through the context.
+     * @return The conversion or null, if the value isn't a Model, that can be converted into the DTO.
+     */
+    private String conversionOf(TypeMirror from, TypeMirror to, String value) {
+        if (isConstructed(to, from, true))
+            return "context.<" + from + ", " + nameOf(to) + ">convert(" + value + ", " + nameOf(to) + "::new)";
+        if (isSubtype(from, MODEL))
+            return "(" + nameOf(to) + ") " + SERVICE + ".convert(" + value + ", context)";
+
+        return null;
+    }
+
+    /**
+     * Writes the conversion of a value, that isn't a Model, and isn't null.
+     * @return The conversion or null, if it can't be converted.
+     */
+    private String valueOf(TypeMirror from, TypeMirror to, String value) {
+        if (_types.isAssignable(from, to))
+            return value;
+        if (isEnum(from) && isEnum(to))
+            return nameOf(to) + ".valueOf(" + value + ".name())";
+        if (isConstructed(to, from, false))
+            return "new " + nameOf(to) + "(" + value + ")";
+
+        return null;
+    }
+
+    /**
+     * Checks if the class of a type has a public constructor, that takes the value,
+     * and the context of the conversion if it is for a Model.
+     */
+    private boolean isConstructed(TypeMirror type, TypeMirror value, boolean withContext) {
+        if (type.getKind() != TypeKind.DECLARED)
+            return false;
+
+        TypeElement element = (TypeElement) _types.asElement(type);
+        if (element.getModifiers().contains(Modifier.ABSTRACT))
+            return false;
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (
+                constructor.getModifiers().contains(Modifier.PUBLIC)
+                && parameters.size() == (withContext ? 2 : 1)
+                && _types.isAssignable(value, parameters.get(0).asType())
+                && (!withContext || isSubtype(parameters.get(1).asType(), CONTEXT))
+            )
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the type of the values of a collection.
+     * @return The type of the values or null, if it isn't a collection.
+     */
+    private TypeMirror elementOf(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED)
+            return null;
+
+        DeclaredType declared = (DeclaredType) type;
+        if (((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.util.Collection")) {
+            if (declared.getTypeArguments().size() != 1)
+                return null;
+
+            TypeMirror element = declared.getTypeArguments().get(0);
+            return element instanceof WildcardType wildcard ? wildcard.getExtendsBound() : element;
+        }
+
+        for (TypeMirror supertype : _types.directSupertypes(type)) {
+            TypeMirror element = elementOf(supertype);
+            if (element != null)
+                return element;
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds a field of the Model or its superclasses.
+     * @return The field or null, if there isn't any with the name.
+     */
+    private VariableElement fieldOf(TypeElement model, String name) {
+        for (TypeElement current = model; current != null; current = superclassOf(current))
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements()))
+                if (field.getSimpleName().contentEquals(name) && !field.getModifiers().contains(Modifier.STATIC))
+                    return field;
+
+        return null;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) _types.asElement(superclass) : null;
+    }
+
+    /**
+     * The name of the setter, that Lombok gives a field,
+     * where a boolean named like isPublic is set with setPublic.
+     */
+    private String setterOf(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (
+            field.asType().getKind() == TypeKind.BOOLEAN && name.length() > 2
+            && name.startsWith("is") && Character.isUpperCase(name.charAt(2))
+        )
+            name = name.substring(2);
+
+        return "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private boolean isSubtype(TypeMirror type, String name) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(name);
+        return element != null && type.getKind() == TypeKind.DECLARED
+                && _types.isSubtype(_types.erasure(type), _types.erasure(element.asType()));
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && _types.asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    /**
+     * The name of a type without any type arguments, that can be used to create it.
+     */
+    private String nameOf(TypeMirror type) {
+        return _types.erasure(type).toString();
+    }
+
+    private AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors())
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+                return annotation;
+
+        return null;
+    }
+
+    private Object valueOf(AnnotationMirror annotation) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet())
+            if (value.getKey().getSimpleName().contentEquals("value"))
+                return value.getValue().getValue();
+
+        return null;
+    }
+
+    /**
+     * Writes the source of the mapper in the package of the Model,
+     * named by the Model and the classes it is declared in, such as EventGigMapper for Event.Gig.
+     */
+    private void write(TypeElement dto, TypeElement model, List<String> statements) {
+        String name = "Mapper";
+        Element current = model;
+        for (; current instanceof TypeElement type; current = current.getEnclosingElement())
+            name = type.getSimpleName() + name;
+        String packageName = processingEnv.getElementUtils().getPackageOf(dto).getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("/**\n")
+                .append(" * Copies the fields of ").append(model.getSimpleName()).append(" into its DTO.\n")
+                .append(" * Is generated by the MapperProcessor from the fields of the DTO.\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(MapperProcessor.class.getName()).append("\")\n")
+                .append("final class ").append(name).append(" {\n\n")
+                .append("    private ").append(name).append("() {}\n\n")
+                .append("    /**\n")
+                .append("     * Copies the fields, that the DTO declares, from the Model.\n")
+                .append("     * Models are only converted, if the context isn't a reference and includes their fields.\n")
+                .append("     * @param model The Model that is converted.\n")
+                .append("     * @param dto The DTO that the Model is converted into.\n")
+                .append("     * @param context The context of the conversion, that keeps track of what has already been converted.\n")
+                .append("     */\n")
+                .append("    static void map(").append(model.getQualifiedName()).append(" model, ")
+                .append(dto.getQualifiedName()).append(" dto, ").append(CONTEXT).append(" context) {\n");
+        for (String statement : statements)
+            source.append(statement);
+        source.append("    }\n}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + name, dto).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(dto, "Couldn't write " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,108 @@
+package laustrup.services;
+
+import laustrup.models.Model;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static laustrup.models.Model.ModelDTO;
+
+/**
+ * A Model converted into a DTO, where every nested entity is only a reference with its ids, title and timestamp.
+ * Each nested entity is converted fully once into the included entities, where its own nested entities are also references.
+ * That way an entity that appears many times, such as the author of many Mails, is only transported once.
+ * Can be resolved back into the Model, where the references are replaced with the included entities.
+ * @param <D> The type of the DTO of the Model.
+ */
+@Getter
+public class Normalized<D extends ModelDTO> {
+
+    /**
+     * The converted Model, where its nested entities are references.
+     */
+    private final D _data;
+
+    /**
+     * Every entity that is referenced, converted once with their nested entities as references.
+     */
+    private final Map<Reference, ModelDTO> _included;
+
+    /**
+     * Converts the Model and every entity that can be reached from it.
+     * @param model The Model to be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public Normalized(Model model) {
+        Map<Reference, ModelDTO> included = new LinkedHashMap<>();
+        Deque<Model> pending = new ArrayDeque<>();
+        Reference root = new Reference(model);
+
+        _data = (D) convert(model, pending);
+        while (!pending.isEmpty()) {
+            Model entity = pending.poll();
+            Reference reference = new Reference(entity);
+            if (!reference.equals(root) && !included.containsKey(reference))
+                included.put(reference, convert(entity, pending));
+        }
+        _included = Collections.unmodifiableMap(included);
+    }
+
+    /**
+     * @param data The converted Model, where its nested entities are references.
+     * @param included Every entity that is referenced, converted once with their nested entities as references.
+     */
+    public Normalized(D data, Map<Reference, ModelDTO> included) {
+        _data = data;
+        _included = included;
+    }
+
+    /**
+     * Converts a Model, where its nested entities are only references,
+     * the nested entities are added to the pending entities, so they can be included as well.
+     * @param model The Model to be converted.
+     * @param pending The entities that should be included, if they aren't already.
+     * @return The converted Model.
+     */
+    private static ModelDTO convert(Model model, Deque<Model> pending) {
+        ConversionContext context = new ConversionContext(new Projection(1));
+        ModelDTO dto = DTOService.convert(model, context);
+
+        for (Object source : context.conversions().keySet())
+            if (source != model && source instanceof Model entity)
+                pending.add(entity);
+
+        return dto;
+    }
+
+    /**
+     * Finds the entity that a reference refers to.
+     * @param dto The DTO that might be a reference.
+     * @return The included entity or the data, that is referred to, otherwise the DTO itself.
+     */
+    public ModelDTO resolve(ModelDTO dto) {
+        if (dto == _data)
+            return dto;
+
+        Reference reference = new Reference(dto);
+        if (reference.equals(new Reference(_data)))
+            return _data;
+
+        return _included.getOrDefault(reference, dto);
+    }
+
+    /**
+     * Converts the data back into a Model,
+     * where every reference is replaced with the entity it refers to,
+     * so entities that appear multiple times end up as the same Model.
+     * @return The Model of the data.
+     */
+    public Model resolve() {
+        return DTOService.convert(_data, new ConversionContext().resolving(source ->
+                source instanceof ModelDTO dto ? resolve(dto) : source
+        ));
+    }
+}
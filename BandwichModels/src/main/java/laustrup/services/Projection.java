@@ -0,0 +1,77 @@
+package laustrup.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes how much of a graph of Models should be converted into DTOs.
+ * The maximum depth decides how many levels, starting from the converted Model, will have their contents converted,
+ * deeper Models will only be converted as references of their ids, titles and timestamps.
+ * The includes decides which fields of a type of Model should be converted,
+ * types without includes will have all of their fields converted.
+ * Fields are named by the FieldNameConstants of the Models, such as Event.Fields._gigs.
+ */
+public class Projection {
+
+    /**
+     * The amount of levels, starting from the converted Model, that will have their contents converted.
+     * Zero means that even the converted Model will only be a reference.
+     */
+    private final int _maxDepth;
+
+    /**
+     * The fields that are included for each type of Model.
+     */
+    private final Map<Class<?>, Set<String>> _includes = new HashMap<>();
+
+    /**
+     * @param maxDepth The amount of levels, starting from the converted Model, that will have their contents converted.
+     */
+    public Projection(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Max depth of a Projection can't be negative, but was " + maxDepth);
+
+        _maxDepth = maxDepth;
+    }
+
+    /**
+     * Will only include the given fields, when converting Models of the type or its subtypes.
+     * Can be used multiple times for the same type to include more fields.
+     * @param type The type of Model, that should have its fields limited.
+     * @param fields The names of the fields from the FieldNameConstants of the Model.
+     * @return This Projection, so more types can be included.
+     */
+    public Projection include(Class<?> type, String... fields) {
+        _includes.computeIfAbsent(type, key -> new HashSet<>()).addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    /**
+     * Checks if a field of a type should be converted.
+     * Uses the includes of the nearest type in the hierarchy of the type, that has any includes.
+     * @param type The type of the Model, that is being converted.
+     * @param field The name of the field from the FieldNameConstants of the Model.
+     * @return True if the field is included or there are no includes for the type.
+     */
+    public boolean includes(Class<?> type, String field) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Set<String> fields = _includes.get(current);
+            if (fields != null)
+                return fields.contains(field);
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if a Model at the level should have its contents converted.
+     * @param level The level of the Model, where the converted Model is level zero.
+     * @return True if the level is within the maximum depth.
+     */
+    public boolean isWithin(int level) {
+        return level < _maxDepth;
+    }
+}
@@ -0,0 +1,65 @@
+package laustrup.services;
+
+import laustrup.models.Model;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+import static laustrup.models.Model.ModelDTO;
+
+/**
+ * Identifies an entity by its type and ids, without containing the entity itself.
+ * A Model and its DTO have the same Reference, so it can be used to find one from the other.
+ */
+@Getter @EqualsAndHashCode @ToString
+public class Reference {
+
+    /**
+     * The simple name of the class of the Model, such as Event or Gig.
+     */
+    private final String _type;
+
+    /**
+     * The primary id of the entity.
+     */
+    private final UUID _primaryId;
+
+    /**
+     * The secondary id of the entity, which is the same as the primary id, if there isn't any.
+     */
+    private final UUID _secondaryId;
+
+    /**
+     * @param model The Model that should be referenced.
+     */
+    public Reference(Model model) {
+        this(model.getClass().getSimpleName(), model.get_primaryId(), model.get_secondaryId());
+    }
+
+    /**
+     * The type is the class that the DTO is declared in, which is the class of its Model.
+     * @param dto The DTO that should be referenced.
+     */
+    public Reference(ModelDTO dto) {
+        this(
+                dto.getClass().getEnclosingClass() != null
+                        ? dto.getClass().getEnclosingClass().getSimpleName()
+                        : dto.getClass().getSimpleName(),
+                dto.getPrimaryId(),
+                dto.getSecondaryId() != null ? dto.getSecondaryId() : dto.getPrimaryId()
+        );
+    }
+
+    /**
+     * @param type The simple name of the class of the Model, such as Event or Gig.
+     * @param primaryId The primary id of the entity.
+     * @param secondaryId The secondary id of the entity, which is the same as the primary id, if there isn't any.
+     */
+    public Reference(String type, UUID primaryId, UUID secondaryId) {
+        _type = type;
+        _primaryId = primaryId;
+        _secondaryId = secondaryId;
+    }
+}
@@ -18,6 +18,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.function.IntFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -212,6 +213,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts Albums to check they are the same.
+     * @param expectations The Albums that are arranged and defined.
+     * @param actuals The Albums that are the result of an action.
+     */
+    public static void assertAlbums(Entities<Album> expectations, Entities<Album> actuals) {
+        assertAlbums(seszt(expectations, Album[]::new), seszt(actuals, Album[]::new));
+    }
+
     /**
      * Asserts Albums to check they are the same.
      * @param expectations The Albums that are arranged and defined.
@@ -268,6 +278,15 @@ public abstract class Asserter<T> extends Actor<T> {
         }
     }
 
+    /**
+     * Asserts Ratings to check they are the same.
+     * @param expectations The Ratings that are arranged and defined.
+     * @param actuals The Ratings that are the result of an action.
+     */
+    public static void assertRatings(Entities<Rating> expectations, Entities<Rating> actuals) {
+        assertRatings(liszt(expectations, Rating[]::new), liszt(actuals, Rating[]::new));
+    }
+
     /**
      * Asserts Ratings to check they are the same.
      * @param expectations The Ratings that are arranged and defined.
@@ -294,6 +313,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts ChatRooms to check they are the same.
+     * @param expectations The ChatRooms that are arranged and defined.
+     * @param actuals The ChatRooms that are the result of an action.
+     */
+    public static void assertChatRooms(Entities<ChatRoom> expectations, Entities<ChatRoom> actuals) {
+        assertChatRooms(seszt(expectations, ChatRoom[]::new), seszt(actuals, ChatRoom[]::new));
+    }
+
     /**
      * Asserts ChatRooms to check they are the same.
      * @param expectations The ChatRooms that are arranged and defined.
@@ -318,6 +346,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts Mails to check they are the same.
+     * @param expectations The Mails that are arranged and defined.
+     * @param actuals The Mails that are the result of an action.
+     */
+    public static void assertMails(Entities<Mail> expectations, Entities<Mail> actuals) {
+        assertMails(liszt(expectations, Mail[]::new), liszt(actuals, Mail[]::new));
+    }
+
     /**
      * Asserts Mails to check they are the same.
      * @param expectations The Mails that are arranged and defined.
@@ -361,6 +398,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts Requests to check they are the same.
+     * @param expectations The Requests that are arranged and defined.
+     * @param actuals The Requests that are the result of an action.
+     */
+    public static void assertRequests(Entities<Request> expectations, Entities<Request> actuals) {
+        assertRequests(liszt(expectations, Request[]::new), liszt(actuals, Request[]::new));
+    }
+
     /**
      * Asserts Requests to check they are the same.
      * @param expectations The Requests that are arranged and defined.
@@ -462,6 +508,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts Events to check they are the same.
+     * @param expectations The Events that are arranged and defined.
+     * @param actuals The Events that are the result of an action.
+     */
+    public static void assertEvents(Entities<Event> expectations, Entities<Event> actuals) {
+        assertEvents(seszt(expectations, Event[]::new), seszt(actuals, Event[]::new));
+    }
+
     /**
      * Asserts Events to check they are the same.
      * @param expectations The Events that are arranged and defined.
@@ -550,6 +605,15 @@ public abstract class Asserter<T> extends Actor<T> {
         });
     }
 
+    /**
+     * Asserts Participations to check they are the same.
+     * @param expectations The Participations that are arranged and defined.
+     * @param actuals The Participations that are the result of an action.
+     */
+    public static void assertParticipations(Entities<Event.Participation> expectations, Entities<Event.Participation> actuals) {
+        assertParticipations(seszt(expectations, Event.Participation[]::new), seszt(actuals, Event.Participation[]::new));
+    }
+
     /**
      * Asserts Participations to check they are the same.
      * @param expectations The Participations that are arranged and defined.
@@ -588,7 +652,7 @@ public abstract class Asserter<T> extends Actor<T> {
      * @param expectations The Gigs that are arranged and defined.
      * @param actuals The Gigs that are the result of an action.
      */
-    public static void assertGigs(Liszt<Event.Gig> expectations, Liszt<Event.Gig> actuals) {
+    public static void assertGigs(Entities<Event.Gig> expectations, Entities<Event.Gig> actuals) {
         AssertionActor.doAssert(() -> {
             if (!AssertionChecker.allowLiszt(expectations,actuals))
                 return AssertionChecker.lisztMessage(expectations,actuals);
@@ -744,4 +808,24 @@ public abstract class Asserter<T> extends Actor<T> {
             return AssertionMessage.SUCCESS.get_content();
         });
     }
+
+    /**
+     * Puts Models that are indexed by their ids into a Liszt in the same order, so they can be asserted as a Liszt.
+     * @param entities The Models, can be null.
+     * @param generator Creates the array of the Models.
+     * @return The Liszt or null, if the Models are null.
+     */
+    private static <E extends Model> Liszt<E> liszt(Entities<E> entities, IntFunction<E[]> generator) {
+        return entities != null ? new Liszt<>(entities.toArray(generator)) : null;
+    }
+
+    /**
+     * Puts Models that are indexed by their ids into a Seszt in the same order, so they can be asserted as a Seszt.
+     * @param entities The Models, can be null.
+     * @param generator Creates the array of the Models.
+     * @return The Seszt or null, if the Models are null.
+     */
+    private static <E extends Model> Seszt<E> seszt(Entities<E> entities, IntFunction<E[]> generator) {
+        return entities != null ? new Seszt<>(entities.toArray(generator)) : null;
+    }
 }
@@ -1,6 +1,6 @@
 package laustrup.assertions;
 
-import laustrup.utilities.collections.lists.Liszt;
+import java.util.Collection;
 
 /**
  * Will check for assertion scenarios such as is null or different length of inputs.
@@ -32,11 +32,10 @@ public abstract class AssertionChecker {
             : AssertionMessage.ASSERTION_ERROR.get_content();
     }
 
-    @SuppressWarnings("unchecked")
     static String lisztMessage(Object expectations, Object actuals) {
         return expectations == null || actuals == null
             ? AssertionMessage.IS_NULL.get_content()
-            : ((Liszt<Object>) expectations).size() != ((Liszt<Object>) actuals).size()
+            : ((Collection<?>) expectations).size() != ((Collection<?>) actuals).size()
                 ? AssertionMessage.LENGTH_IS_DIFFERENT.get_content()
                 : AssertionMessage.ASSERTION_ERROR.get_content();
     }
@@ -56,9 +55,8 @@ public abstract class AssertionChecker {
      * @param actuals The collection of results from acting methods generated.
      * @return True if they should be allowed to be asserted.
      */
-    @SuppressWarnings("unchecked")
     static boolean allowLiszt(Object expectations, Object actuals) {
-        return allowObjects(expectations,actuals) && ((Liszt<Object>) expectations).size() == ((Liszt<Object>) actuals).size();
+        return allowObjects(expectations,actuals) && ((Collection<?>) expectations).size() == ((Collection<?>) actuals).size();
     }
 
     /**
@@ -309,6 +309,42 @@ public abstract class ItemGenerator extends TestCollections {
         return mails;
     }
 
+    /**
+     * Generates a Participant from the given id, basically an easy way to construct a simple Participant.
+     * ContactInfo and Albums should be generated beforehand.
+     * @param id The unique id for the Participant.
+     * @return The generated Participant.
+     */
+    public Participant generateParticipant(UUID id) {
+        boolean gender = _random.nextBoolean();
+
+        return new Participant(
+            id,
+            gender
+                ? "Hansinator " + id
+                : "Ursulanator " + id,
+            gender
+                ? "Hans " + id
+                : "Ursula " + id,
+            "Hansen " + id,
+            "Description " + id,
+            _contactInfo.get(_random.nextInt(_contactInfo.size())),
+            new Liszt<>(new Album[]{_albums.get(_random.nextInt(_albums.size()))}),
+            new Liszt<>(),
+            new Seszt<>(),
+            new Seszt<>(),
+            new User.Subscription(
+                    id,
+                    User.Subscription.Status.ACCEPTED,
+                    LocalDateTime.now()
+            ),
+            new Liszt<>(),
+            new Seszt<>(),
+            new History(),
+            LocalDateTime.now()
+        );
+    }
+
     /**
      * Generates a Band from the given parameters, basically an easy way to construct a simple Band.
      * @param id The unique id for the Band.
@@ -317,7 +353,7 @@ public abstract class ItemGenerator extends TestCollections {
      * @param subscription The Subscription for the Band.
      * @return The generated Band.
      */
-    protected Band generateBand(UUID id, Seszt<Artist> members, Seszt<User> fans, User.Subscription subscription) {
+    public Band generateBand(UUID id, Seszt<Artist> members, Seszt<User> fans, User.Subscription subscription) {
         return new Band(
             id,
             "Band "+id,
@@ -8,7 +8,6 @@ import laustrup.models.users.ContactInfo;
 import laustrup.models.users.Performer;
 import laustrup.models.users.Artist;
 import laustrup.models.users.Band;
-import laustrup.models.users.Participant;
 import laustrup.models.users.Venue;
 import laustrup.services.TimeService;
 import laustrup.utilities.collections.lists.Liszt;
@@ -277,37 +276,8 @@ public class TestItems extends ItemGenerator {
     private void setupParticipants() {
         _participants = new Seszt<>();
 
-        for (int i = 1; i <= _configuration.getParticipantAmount(); i++) {
-            UUID id = UUID.randomUUID();
-            boolean gender = _random.nextBoolean();
-            _participants.add(
-                new Participant(
-                    id,
-                    gender
-                        ? "Hansinator " + id
-                        : "Ursulanator " + id,
-                    gender
-                        ? "Hans " + id
-                        : "Ursula " + id,
-                    "Hansen " + id,
-                    "Description " + id,
-                    _contactInfo.get(_random.nextInt(_contactInfo.size())),
-                    new Liszt<>(new Album[]{_albums.get(_random.nextInt(_albums.size()))}),
-                    new Liszt<>(),
-                    new Seszt<>(),
-                    new Seszt<>(),
-                    new User.Subscription(
-                            id,
-                            User.Subscription.Status.ACCEPTED,
-                            LocalDateTime.now()
-                    ),
-                    new Liszt<>(),
-                    new Seszt<>(),
-                    new History(),
-                    LocalDateTime.now()
-                )
-            );
-        }
+        for (int i = 1; i <= _configuration.getParticipantAmount(); i++)
+            _participants.add(generateParticipant(UUID.randomUUID()));
     }
 
     /**
@@ -88,6 +88,34 @@ class AlbumItemTests extends ModelTester<Album.Item, Album.Item.DTO> {
         });
     }
 
+    @Test
+    void canFindTagsAfterManyRemovals() {
+        test(() -> {
+            UUID[] tags = new UUID[_random.nextInt(1000) + 100];
+            for (int i = 0; i < tags.length; i++)
+                tags[i] = UUID.randomUUID();
+            Album.Item arranged = arrange(() -> new Album.Item(
+                    RandomCreatorService.generateString(false,10),
+                    RandomCreatorService.generateString(false,10),
+                    Album.Item.Kind.IMAGE,
+                    new Seszt<>(tags),
+                    null
+            ));
+            UUID[] removed = new UUID[tags.length / 2];
+            for (int i = 0; i < removed.length; i++)
+                removed[i] = tags[i * 2];
+
+            act(() -> arranged.remove(removed));
+
+            asserting(arranged.get_tags().size() == tags.length - removed.length);
+            for (int i = 0; i < tags.length; i++)
+                asserting(arranged.get_tags().contains(UUID.fromString(tags[i].toString())) == (i % 2 == 1 || i >= removed.length * 2));
+            int[] iterated = new int[1];
+            arranged.get_tags().forEach((most, least) -> iterated[0]++);
+            asserting(iterated[0] == arranged.get_tags().size());
+        });
+    }
+
     @Test @Override
     public void canSet() {
         canAdd();
@@ -101,6 +101,55 @@ class AlbumTests extends ModelTester<laustrup.models.Album, laustrup.models.Albu
         });
     }
 
+    @Test
+    void canUpsertItems() {
+        test(() -> {
+            Album.Item first = generateItem("first"), second = generateItem("second");
+            Album arranged = arrange(() -> new Album(
+                    "Upserted album",
+                    new Seszt<>(new Album.Item[]{ first, second }),
+                    null
+            ));
+            Album.Item updated = new Album.Item(
+                    "Updated", "first", first.get_kind(), new Seszt<>(), null, new History(), LocalDateTime.now()
+            );
+            Album.Upsert[] upsert = new Album.Upsert[1];
+
+            act(() -> {
+                upsert[0] = arranged.upsert(new Seszt<>(new Album.Item[]{ second, updated, generateItem("third") }));
+                return arranged;
+            });
+
+            asserting(
+                upsert[0].get_inserted() == 1 && upsert[0].get_updated() == 1 && upsert[0].get_unchanged() == 1 &&
+                        arranged.get_items().size() == 3 && arranged.get_items().Get(1) == updated
+            );
+        });
+    }
+
+    @Test
+    void canUpsertLastItem() {
+        test(() -> {
+            Album.Item[] items = new Album.Item[]{ generateItem("first"), generateItem("second"), generateItem("third") };
+            Album arranged = arrange(() -> new Album("Upserted album", new Seszt<>(items), null));
+            Album.Item last = items[items.length - 1];
+            Album.Item updated = new Album.Item(
+                    "Updated", last.get_endpoint(), last.get_kind(), new Seszt<>(), null, new History(), LocalDateTime.now()
+            );
+            Album.Upsert[] upsert = new Album.Upsert[1];
+
+            act(() -> {
+                upsert[0] = arranged.upsert(new Seszt<>(new Album.Item[]{ updated }));
+                return arranged;
+            });
+
+            asserting(
+                upsert[0].get_updated() == 1 && arranged.get_items().size() == items.length &&
+                        arranged.get_items().Get(items.length) == updated
+            );
+        });
+    }
+
     @Test @Override
     public void canRemove() {
         test(() -> {
@@ -1,6 +1,7 @@
 package laustrup.models.chats;
 
 import laustrup.ModelTester;
+import laustrup.models.Entities;
 import laustrup.models.History;
 import laustrup.models.chats.messages.Mail;
 import laustrup.models.User;
@@ -14,6 +15,8 @@ import laustrup.utilities.collections.sets.Seszt;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 import static laustrup.assertions.Asserter.asserting;
@@ -90,6 +93,153 @@ class ChatRoomTests extends ModelTester<ChatRoom, ChatRoom.DTO> {
         });
     }
 
+    @Test
+    void canDetermineTitleOfAddedBand() {
+        test(() -> {
+            ChatRoom chatRoom = arrange(() -> new ChatRoom(
+                    UUID.randomUUID(),
+                    null,
+                    new Liszt<>(),
+                    new Seszt<>(new User[]{ _items.generateUser() }),
+                    new History(),
+                    TimeService.generateRandom()
+                )
+            );
+            Band band = _items.get_bands().get(_random.nextInt(_items.get_bands().size()));
+
+            act(() -> {
+                chatRoom.add(new User[]{ band, band });
+                return chatRoom;
+            });
+
+            boolean membersExist = true;
+            for (Artist artist : band.get_members())
+                membersExist &= chatRoom.exists(artist);
+
+            asserting(membersExist && chatRoom.get_chatters().size() == 1 + band.get_members().size());
+            asserting(simulateEmptyTitle(chatRoom), chatRoom.get_title());
+        });
+    }
+
+    @Test
+    void canPageMailsBeforeTime() {
+        test(() -> {
+            User author = _items.generateUser();
+            LocalDateTime start = LocalDateTime.now().minusDays(1);
+            Mail[] mails = new Mail[600];
+            ChatRoom chatRoom = arrange(() -> {
+                ChatRoom arrangement = new ChatRoom(
+                        UUID.randomUUID(),
+                        null,
+                        new Liszt<>(),
+                        new Seszt<>(new User[]{ author }),
+                        new History(),
+                        TimeService.generateRandom()
+                );
+                // Added backwards, so the Mails are placed between each other instead of appended.
+                for (int i = mails.length - 1; i >= 0; i--) {
+                    mails[i] = new Mail(
+                            UUID.randomUUID(), arrangement, author, "Mail " + i,
+                            null, null, false, new History(), start.plusMinutes(i)
+                    );
+                    arrangement.add(mails[i]);
+                }
+
+                return arrangement;
+            });
+
+            Liszt<Mail> page = chatRoom.mailsBefore(mails[400].get_timestamp(), 50);
+            ChatRoom.DTO dto = new ChatRoom.DTO(chatRoom, null, 50);
+
+            boolean isOrdered = page.size() == 50;
+            int i = 350;
+            for (Mail mail : page)
+                isOrdered &= mail == mails[i++];
+
+            asserting(isOrdered && dto.getMails().length == 50);
+            asserting(mails[550].get_timestamp().toString(), dto.getCursor().toString());
+        });
+    }
+
+    @Test
+    void canPageMailsWithSameTimestamp() {
+        test(() -> {
+            User author = _items.generateUser();
+            LocalDateTime time = LocalDateTime.now().minusDays(1);
+            ChatRoom chatRoom = arrange(() -> {
+                ChatRoom arrangement = new ChatRoom(
+                        UUID.randomUUID(),
+                        null,
+                        new Liszt<>(),
+                        new Seszt<>(new User[]{ author }),
+                        new History(),
+                        TimeService.generateRandom()
+                );
+                for (int i = 0; i < 10; i++)
+                    arrangement.add(new Mail(
+                            UUID.randomUUID(), arrangement, author, "Mail " + i,
+                            null, null, false, new History(), time
+                    ));
+
+                return arrangement;
+            });
+            Set<UUID> paged = new HashSet<>();
+            int pages = 0;
+
+            ChatRoom.DTO[] latest = new ChatRoom.DTO[1];
+
+            act(() -> {
+                latest[0] = new ChatRoom.DTO(chatRoom, null, 3);
+                return chatRoom;
+            });
+
+            ChatRoom.DTO dto = latest[0];
+            while (true) {
+                pages++;
+                for (Mail.DTO mail : dto.getMails())
+                    paged.add(mail.getPrimaryId());
+                if (dto.getCursor() == null)
+                    break;
+                dto = new ChatRoom.DTO(chatRoom, dto.getCursor(), dto.getCursorId(), 3);
+            }
+
+            asserting(paged.size() == 10 && pages == 4);
+            asserting(new ChatRoom.DTO(chatRoom, null, 10).getCursor() == null);
+        });
+    }
+
+    @Test
+    void canPageEditedMails() {
+        test(() -> {
+            User author = _items.generateUser();
+            LocalDateTime start = LocalDateTime.now().minusDays(1);
+            ChatRoom chatRoom = arrange(() -> {
+                ChatRoom arrangement = new ChatRoom(
+                        UUID.randomUUID(),
+                        null,
+                        new Liszt<>(),
+                        new Seszt<>(new User[]{ author }),
+                        new History(),
+                        TimeService.generateRandom()
+                );
+                for (int i = 0; i < 10; i++)
+                    arrangement.add(new Mail(
+                            UUID.randomUUID(), arrangement, author, "Mail " + i,
+                            null, null, false, new History(), start.plusMinutes(i)
+                    ));
+
+                return arrangement;
+            });
+            Mail mail = chatRoom.mailsBefore(null, 10).getFirst();
+            Mail edited = copyOf(mail);
+            chatRoom.edit(edited);
+
+            Liszt<Mail> page = act(() -> chatRoom.mailsBefore(null, 10));
+
+            asserting(page.size() == 10 && page.getFirst() == edited && !page.contains(mail));
+        });
+    }
+
     /**
      * Will try to represent how a title of ChatRoom without a title should be like.
      * @param chatRoom The ChatRoom with a empty title.
@@ -269,11 +419,88 @@ class ChatRoomTests extends ModelTester<ChatRoom, ChatRoom.DTO> {
 
     @Override @Test
     protected void canSet() {
+        test(() -> {
+            ChatRoom chatRoom = arrange(() -> _items.get_chatRooms().getFirst());
+            Mail mail = addMail(chatRoom);
+            Mail edited = copyOf(mail);
+
+            act(() -> chatRoom.edit(edited));
 
+            asserting(chatRoom.get_mails().find(mail.get_primaryId()) == edited);
+        });
     }
 
     @Override @Test
     protected void canRemove() {
+        test(() -> {
+            ChatRoom chatRoom = arrange(() -> _items.get_chatRooms().getFirst());
+            Mail mail = addMail(chatRoom);
+            int previousSize = chatRoom.get_mails().size();
 
+            act(() -> chatRoom.remove(copyOf(mail)));
+
+            asserting(chatRoom.get_mails().size() == previousSize - 1);
+            asserting(!chatRoom.get_mails().contains(mail));
+        });
+    }
+
+    @Test
+    void canSnapshotMailsWhileChanging() {
+        test(() -> {
+            ChatRoom chatRoom = arrange(() -> _items.get_chatRooms().getFirst());
+            Mail[] added = new Mail[100];
+            for (int i = 0; i < added.length; i++)
+                added[i] = addMail(chatRoom);
+            Entities<Mail> snapshot = chatRoom.get_mails().snapshot();
+            int previousSize = snapshot.size();
+
+            act(() -> {
+                for (Mail mail : added)
+                    chatRoom.remove(mail);
+                addMail(chatRoom);
+                return chatRoom;
+            });
+
+            boolean isUnchanged = snapshot.size() == previousSize && snapshot.toArray().length == previousSize;
+            for (Mail mail : added)
+                isUnchanged &= snapshot.find(mail) == mail;
+
+            asserting(isUnchanged && chatRoom.get_mails().size() == previousSize - added.length + 1);
+            asserting(
+                    snapshot.getLast().get_primaryId().toString(),
+                    added[added.length - 1].get_primaryId().toString()
+            );
+        });
+    }
+
+    /**
+     * Adds a Mail from one of the chatters to the ChatRoom.
+     * @param chatRoom The ChatRoom that should have the Mail.
+     * @return The added Mail.
+     */
+    private Mail addMail(ChatRoom chatRoom) {
+        Mail mail = generateMail(chatRoom, chatRoom.get_chatters().get(_random.nextInt(chatRoom.get_chatters().size())));
+        chatRoom.add(mail);
+
+        return mail;
+    }
+
+    /**
+     * Copies a Mail with another instance of its id, so it is only the same Mail by the value of its id.
+     * @param mail The Mail to copy.
+     * @return The copy.
+     */
+    private Mail copyOf(Mail mail) {
+        return new Mail(
+                UUID.fromString(mail.get_primaryId().toString()),
+                mail.get_chatRoom(),
+                mail.get_author(),
+                RandomCreatorService.generateString(false, _random.nextInt(9) + 1),
+                mail.get_sent(),
+                LocalDateTime.now(),
+                mail.is_public(),
+                new History(),
+                mail.get_timestamp()
+        );
     }
 }
\ No newline at end of file
@@ -4,13 +4,24 @@ import laustrup.ModelTester;
 
 import laustrup.items.ItemGenerator;
 import laustrup.models.Album;
+import laustrup.models.Entities;
 import laustrup.models.Event;
 import laustrup.models.History;
+import laustrup.models.Money;
+import laustrup.models.Patch;
+import laustrup.models.SeatMap;
 import laustrup.models.Ticket;
+import laustrup.models.TicketHolds;
+import laustrup.models.TicketInventory;
+import laustrup.models.TicketPurchases;
 import laustrup.models.chats.Request;
 import laustrup.models.chats.messages.Post;
+import laustrup.models.users.Participant;
 import laustrup.models.users.Performer;
 import laustrup.models.users.Venue;
+import laustrup.services.ConversionContext;
+import laustrup.services.Projection;
+import laustrup.services.Reference;
 import laustrup.services.RandomCreatorService;
 import laustrup.utilities.collections.lists.Liszt;
 import laustrup.utilities.collections.sets.Seszt;
@@ -19,9 +30,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static laustrup.assertions.Asserter.asserting;
 
@@ -143,7 +159,337 @@ class EventTest extends ModelTester<Event, Event.DTO> {
             addToPrint("The two Events are:\n \n" + expected + "\n" + actual);
         });
     }
-    
+
+    @Test
+    void canConvertCircularReferencesOnce() {
+        test(() -> {
+            Event event = arrange(() -> {
+                Event arrangement = _items.get_events().get(_random.nextInt(_items.get_events().size()));
+                for (Event.Gig gig : arrangement.get_gigs())
+                    gig.set_event(arrangement);
+
+                return arrangement;
+            });
+
+            act(() -> { _dto = new Event.DTO(event); });
+
+            for (Event.Gig.DTO gig : _dto.getGigs())
+                asserting(gig.getEvent() == _dto);
+        });
+    }
+
+    @Test
+    void canLimitConversionByProjection() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            act(() -> { _dto = new Event.DTO(event, new ConversionContext(
+                    new Projection(1).include(Event.class, Event.Fields._gigs)
+            )); });
+
+            asserting(_dto.getDescription(), event.get_description());
+            asserting(_dto.getVenue() == null);
+            asserting(_dto.getGigs().length == event.get_gigs().size());
+            for (Event.Gig.DTO gig : _dto.getGigs()) {
+                asserting(gig.getEvent() == null);
+                asserting(gig.getAct() == null);
+                asserting(gig.getHistory() == null);
+            }
+        });
+    }
+
+    @Test
+    void canConvertTicketOptionsWithTheirVenue() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            act(() -> { _dto = new Event.DTO(event); });
+
+            asserting(_dto.getTicketOptions().size() == event.get_ticketOptions().size());
+            for (int i = 1; i <= _dto.getTicketOptions().size(); i++)
+                asserting(_dto.getTicketOptions().Get(i).getVenueId().equals(event.get_ticketOptions().Get(i).get_venueId()));
+        });
+    }
+
+    @Test
+    void canSellOutTicketsWithoutOverselling() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            event.set_soldOut(null);
+            TicketInventory inventory = new TicketInventory(event);
+            int capacity = 0;
+            for (Ticket.Option option : event.get_ticketOptions()) {
+                int seats = _random.nextInt(100) + 1;
+                inventory.add(option, seats);
+                capacity += seats;
+            }
+            int tickets = event.get_tickets().size();
+            AtomicInteger issued = new AtomicInteger();
+            Thread[] buyers = new Thread[64];
+            for (int i = 0; i < buyers.length; i++)
+                buyers[i] = new Thread(() -> {
+                    for (Ticket.Option option : event.get_ticketOptions())
+                        while (inventory.buy(option, UUID.randomUUID()) != null)
+                            issued.incrementAndGet();
+                });
+
+            act(() -> {
+                for (Thread buyer : buyers)
+                    buyer.start();
+                for (Thread buyer : buyers)
+                    try {
+                        buyer.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                inventory.collect();
+            });
+
+            asserting(issued.get() == capacity);
+            asserting(event.get_tickets().size() == tickets + capacity);
+            for (Ticket.Option option : event.get_ticketOptions())
+                asserting(inventory.available(option) == 0 && inventory.buy(option, UUID.randomUUID()) == null);
+            asserting(inventory.get_soldOut() != null && inventory.get_soldOut().equals(event.get_soldOut()));
+        });
+    }
+
+    @Test
+    void canReserveSeatsOfSeatMap() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            SeatMap seats = SeatMap.of(3, 10);
+            seats.claim("1-5");
+            TicketInventory inventory = new TicketInventory(event).add(option, seats);
+            TicketInventory.Reservation[] reservations = new TicketInventory.Reservation[2];
+            String[][] adjacent = new String[1][];
+
+            act(() -> {
+                reservations[0] = inventory.reserve(option, "3-3");
+                reservations[1] = inventory.reserve(option, "3-3");
+                adjacent[0] = seats.claimAdjacent(6);
+            });
+
+            asserting(seats.findAdjacent(5) == seats.numberOf("1-6") && seats.findAdjacent(11) == -1);
+            asserting(reservations[0] != null && reservations[1] == null && !seats.isFree("3-3"));
+            asserting(adjacent[0][0], "2-1");
+            asserting(inventory.available(option) == seats.available());
+            asserting(inventory.release(reservations[0]) && seats.isFree("3-3"));
+            asserting(inventory.confirm(inventory.reserve(option, "3-3"), UUID.randomUUID()).get_seat(), "3-3");
+        });
+    }
+
+    @Test
+    void canSellOutSeatsClaimedOutsideInventory() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            event.set_soldOut(null);
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            SeatMap seats = SeatMap.of(2, 3);
+            TicketInventory inventory = new TicketInventory(event).add(option, seats);
+            seats.claim("1-1");
+            int[] issued = new int[1];
+
+            act(() -> {
+                seats.claim("2-3");
+                while (inventory.buy(option, UUID.randomUUID()) != null)
+                    issued[0]++;
+            });
+
+            asserting(issued[0] == 4 && inventory.available(option) == 0);
+            asserting(inventory.get_soldOut() != null && inventory.get_soldOut().equals(event.get_soldOut()));
+        });
+    }
+
+    @Test
+    void canRejectSeatOfOptionWithoutSeats() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            TicketInventory inventory = new TicketInventory(event).add(option, 1);
+
+            boolean rejected = act(() -> {
+                try {
+                    inventory.reserve(option, "1-1");
+                    return false;
+                } catch (IllegalArgumentException e) {
+                    return true;
+                }
+            });
+
+            asserting(rejected && inventory.available(option) == 1);
+        });
+    }
+
+    @Test
+    void canExpireUnpaidHolds() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            TicketHolds holds = new TicketHolds(new TicketInventory(event).add(option, 2), Duration.ofMillis(1));
+            TicketHolds.Hold paid = holds.hold(option, Duration.ofMillis(1)),
+                    abandoned = holds.hold(option, Duration.ofMillis(1));
+            int[] expired = new int[1];
+
+            act(() -> {
+                holds.confirm(paid, UUID.randomUUID());
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                expired[0] = holds.advance();
+            });
+
+            asserting(paid != null && abandoned != null && holds.hold(option, Duration.ofMillis(1)) == null);
+            asserting(expired[0] == 1);
+            asserting(abandoned.get_reservation().get_status() == TicketInventory.Reservation.Status.RELEASED);
+            asserting(holds.get_inventory().available(option) == 1);
+        });
+    }
+
+    @Test
+    void canDeduplicateRetriedPurchases() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            TicketInventory inventory = new TicketInventory(event).add(option, 100);
+            TicketPurchases purchases = new TicketPurchases(inventory, 1000, Duration.ofMinutes(1));
+            UUID participantId = UUID.randomUUID();
+            Ticket[] tickets = new Ticket[64];
+            Thread[] retries = new Thread[tickets.length];
+            for (int i = 0; i < retries.length; i++) {
+                int retry = i;
+                retries[i] = new Thread(() ->
+                        tickets[retry] = purchases.purchase(retry % 2 == 0 ? "client" : "client " + retry, option, participantId)
+                );
+            }
+
+            act(() -> {
+                for (Thread retry : retries)
+                    retry.start();
+                for (Thread retry : retries)
+                    try {
+                        retry.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+            });
+
+            for (Ticket ticket : tickets)
+                asserting(ticket != null && ticket == tickets[0]);
+            asserting(inventory.confirmed(option) == 1);
+            asserting(purchases.purchase("another client", option, UUID.randomUUID()) != tickets[0]);
+            asserting(inventory.confirmed(option) == 2);
+        });
+    }
+
+    @Test
+    void canForgetOldestPurchasesFirst() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            TicketInventory inventory = new TicketInventory(event).add(option, 100);
+            TicketPurchases limited = new TicketPurchases(inventory, 2, Duration.ofMinutes(1)),
+                    expiring = new TicketPurchases(inventory, 1000, Duration.ofMillis(1));
+            UUID[] participants = new UUID[]{ UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID() };
+            Ticket[] tickets = new Ticket[participants.length];
+            int[] remembered = new int[1];
+
+            act(() -> {
+                for (int i = 0; i < participants.length; i++)
+                    tickets[i] = limited.purchase("client " + i, option, participants[i]);
+
+                expiring.purchase("expired", option, UUID.randomUUID());
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                expiring.purchase("remembered", option, UUID.randomUUID());
+                remembered[0] = expiring.size();
+            });
+
+            asserting(limited.size() == 2 && remembered[0] == 1);
+            asserting(limited.purchase("client 2", option, participants[2]) == tickets[2]);
+            asserting(limited.purchase("client 1", option, participants[1]) == tickets[1]);
+            asserting(limited.purchase("client 0", option, participants[0]) != tickets[0]);
+        });
+    }
+
+    @Test
+    void canSumTicketPricesAsMoney() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            Money[] money = new Money[2];
+
+            act(() -> {
+                money[0] = Money.sum(event.get_tickets(), "DKK");
+                option.set(Money.of(12550, "DKK"));
+                money[1] = Money.of(new Ticket.Option.DTO(option));
+            });
+
+            Money expected = Money.of(0, "DKK");
+            for (Ticket ticket : event.get_tickets())
+                expected = expected.plus(ticket.toMoney());
+            asserting(money[0].equals(expected));
+            asserting(money[1].toString(), "125.50 DKK");
+            asserting(option.get_price().compareTo(new BigDecimal("125.5")) == 0);
+            asserting(Money.of(1, "DKK").get_currency() == Money.of(new BigDecimal("1.005"), "DKK").get_currency());
+
+            boolean overflowed = false;
+            try {
+                Money.of(Long.MAX_VALUE, "DKK").plus(Money.of(1, "DKK"));
+            } catch (ArithmeticException e) {
+                overflowed = true;
+            }
+            asserting(overflowed);
+        });
+    }
+
+    @Test
+    void canKeepMoneyOfTicketUntilPriceIsSet() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            option.set(Money.of(12550, "DKK"));
+            Money[] money = new Money[3];
+
+            act(() -> {
+                money[0] = option.toMoney();
+                money[1] = option.toMoney();
+                option.set_price(new BigDecimal("99.995"));
+                money[2] = Money.sum(List.of(option, option), "DKK");
+            });
+
+            asserting(money[0] == money[1] && money[0].equals(Money.of(12550, "DKK")));
+            asserting(money[2].equals(Money.of(20000, "DKK")));
+        });
+    }
+
+    @Test
+    void canPatchChangedVersion() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Event before = new Event(new Event.DTO(event)),
+                    after = new Event(new Event.DTO(event));
+            after.set_description(RandomCreatorService.generateString());
+            Event.Gig removed = after.get_gigs().isEmpty() ? null : after.get_gigs().Get(1);
+            if (removed != null)
+                after.get_gigs().remove(removed);
+
+            Patch patch = Patch.between(before, after);
+
+            Event patched = act(() -> patch.apply(before));
+
+            asserting(patch.get_changes().containsKey(Event.Fields._description));
+            asserting(removed == null || patch.get_removals().get(Event.Fields._gigs).contains(new Reference(removed)));
+            asserting(patched.get_description(), after.get_description());
+            asserting(patched.get_gigs().size() == after.get_gigs().size());
+        });
+    }
+
     @Override @Test
     protected void toStringTest() {
         Event event = _items.get_events().get(_random.nextInt(_items.get_events().size()));
@@ -206,15 +552,196 @@ class EventTest extends ModelTester<Event, Event.DTO> {
         });
     }
 
+    @Test
+    void canRejectOverlappingGigs() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{
+                _items.get_bands().get(_random.nextInt(_items.get_bands().size()))
+            });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            Event.Gig first = new Event.Gig(event, act, start, start.plusHours(2)),
+                    overlapping = new Event.Gig(event, act, start.plusHours(1), start.plusHours(3)),
+                    following = new Event.Gig(event, act, start.plusHours(2), start.plusHours(3));
+            int previousSize = event.get_gigs().size();
+
+            act(() -> {
+                event.add(first);
+                event.add(overlapping);
+                event.add(following);
+                return event;
+            });
+
+            asserting(
+                event.get_gigs().size() == previousSize + 2 &&
+                        event.get_gigs().contains(new Event.Gig[]{ first, following }) &&
+                        !event.get_gigs().contains(overlapping) &&
+                        event.get_end().isEqual(start.plusHours(3))
+            );
+        });
+    }
+
+    @Test
+    void canReadGigsAndTicketsWhileChanging() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            event.set_soldOut(null);
+            TicketInventory inventory = new TicketInventory(event);
+            Ticket.Option option = event.get_ticketOptions().getFirst();
+            inventory.add(option, 1000);
+            Performer performer = _items.get_artists().get(_random.nextInt(_items.get_artists().size()));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{ performer });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            int amount = 500;
+            AtomicInteger inconsistencies = new AtomicInteger();
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < amount; i++) {
+                    event.add(new Event.Gig(event, act, start.plusMinutes(i * 30L), start.plusMinutes(i * 30L + 30)));
+                    inventory.buy(option, UUID.randomUUID());
+                    inventory.collect();
+                }
+            });
+            Thread reader = new Thread(() -> {
+                while (writer.isAlive()) {
+                    Entities<Event.Gig> gigs = event.get_gigs().snapshot();
+                    Entities<Ticket> tickets = event.get_tickets().snapshot();
+                    int counted = 0;
+                    for (Event.Gig gig : gigs)
+                        counted += gig != null ? 1 : 0;
+                    for (Ticket ticket : tickets)
+                        counted += ticket != null ? 1 : 0;
+
+                    if (counted != gigs.size() + tickets.size() || gigs.toArray().length != gigs.size())
+                        inconsistencies.incrementAndGet();
+                }
+            });
+            int gigs = event.get_gigs().size(), tickets = event.get_tickets().size();
+
+            act(() -> {
+                writer.start();
+                reader.start();
+                try {
+                    writer.join();
+                    reader.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            asserting(inconsistencies.get() == 0);
+            asserting(event.get_gigs().size() == gigs + amount && event.get_tickets().size() == tickets + amount);
+        });
+    }
+
+    @Test
+    void canKeepTimesWhileAddingManyGigs() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Performer performer = _items.get_artists().get(_random.nextInt(_items.get_artists().size()));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{ performer });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            int amount = 1000;
+
+            act(() -> {
+                for (int i = 0; i < amount; i++)
+                    event.add(new Event.Gig(event, act, start.plusMinutes(i * 30L), start.plusMinutes(i * 30L + 30)));
+                return event;
+            });
+
+            asserting(event.get_end().isEqual(start.plusMinutes(amount * 30L)) && event.countGigs(performer) >= amount);
+            assureTimes(event);
+        });
+    }
+
+    @Test
+    void canReportRejectedGigsOfImport() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{
+                _items.get_bands().get(_random.nextInt(_items.get_bands().size()))
+            });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            Event.Gig later = new Event.Gig(event, act, start.plusHours(2), start.plusHours(3)),
+                    first = new Event.Gig(event, act, start, start.plusHours(2)),
+                    overlapping = new Event.Gig(event, act, start.plusHours(1), start.plusHours(2)),
+                    reversed = new Event.Gig(event, act, start.plusHours(5), start.plusHours(4));
+            int previousSize = event.get_gigs().size();
+            Event.Import[] result = new Event.Import[1];
+
+            act(() -> {
+                result[0] = event.importGigs(new Liszt<>(new Event.Gig[]{ later, first, overlapping, reversed }));
+                return event;
+            });
+
+            asserting(
+                event.get_gigs().size() == previousSize + 2 &&
+                        result[0].get_accepted().getFirst() == first &&
+                        result[0].get_rejections().get(overlapping) == Event.Import.Rejection.OVERLAPPING &&
+                        result[0].get_rejections().get(reversed) == Event.Import.Rejection.ENDS_BEFORE_START &&
+                        !result[0].isComplete()
+            );
+        });
+    }
+
+    @Test
+    void canKeepRequestOfPerformerWithGigWithoutTimes() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Performer performer = _items.get_bands().get(_random.nextInt(_items.get_bands().size()));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{ performer });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            Event.Gig untimed = new Event.Gig(event, act, start, start.plusHours(1)),
+                    timed = new Event.Gig(event, act, start, start.plusHours(1));
+
+            act(() -> {
+                event.add(untimed);
+                event.set(new Event.Gig(event, act, null, null));
+                event.add(timed);
+                event.remove(timed);
+                return event;
+            });
+
+            asserting(
+                event.countGigs(performer) >= 1 &&
+                        event.get_requests().find(performer.get_primaryId()) != null
+            );
+        });
+    }
+
+    @Test
+    void canCountGigsOfPerformer() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Performer performer = _items.get_bands().get(_random.nextInt(_items.get_bands().size()));
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            Event.Gig first = new Event.Gig(event, new Seszt<>(new Performer[]{ performer }), start, start.plusHours(1)),
+                    second = new Event.Gig(event, new Seszt<>(new Performer[]{ performer }), start.plusHours(1), start.plusHours(2));
+            int previousCount = event.countGigs(performer);
+
+            act(() -> {
+                event.add(new Event.Gig[]{ first, second });
+                event.remove(first);
+                return event;
+            });
+
+            asserting(
+                event.countGigs(performer) == previousCount + 1 &&
+                        event.get_requests().find(performer.get_primaryId()) != null
+            );
+        });
+    }
+
     private void canAddRequests() {
         test(() -> {
             Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
             int previousSize = event.get_requests().size();
+            UUID firstId = UUID.randomUUID(),
+                secondId = UUID.randomUUID();
             Request[] requests = _items.generateRequests(
                 new Seszt<>(
                     new Performer[]{
-                        _items.get_bands().get(_random.nextInt(_items.get_bands().size())),
-                        _items.get_artists().get(_random.nextInt(_items.get_artists().size()))
+                        _items.generateBand(firstId, new Seszt<>(), new Seszt<>(), _items.setupSubscription(firstId)),
+                        _items.generateBand(secondId, new Seszt<>(), new Seszt<>(), _items.setupSubscription(secondId))
                 }),
                 event
             );
@@ -232,7 +759,10 @@ class EventTest extends ModelTester<Event, Event.DTO> {
         test(() -> {
             Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
             int previousSize = event.get_participations().size();
-            Event.Participation participation = _items.generateParticipations(event).getFirst();
+            Event.Participation participation = new Event.Participation(
+                _items.generateParticipant(UUID.randomUUID()),
+                _items.generateParticipationType()
+            );
 
             act(() -> event.add(participation));
 
@@ -243,6 +773,30 @@ class EventTest extends ModelTester<Event, Event.DTO> {
         });
     }
 
+    @Test
+    void canIgnoreAddedRequestsAndParticipationsOfSameIds() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Participant participant = _items.generateParticipant(UUID.randomUUID());
+            Performer performer = _items.get_artists().get(_random.nextInt(_items.get_artists().size()));
+            event.add(new Request(performer, event));
+            event.add(new Event.Participation(participant, _items.generateParticipationType()));
+            int previousRequests = event.get_requests().size(),
+                previousParticipations = event.get_participations().size();
+
+            act(() -> {
+                event.add(new Request(performer, event));
+                event.add(new Event.Participation(participant, _items.generateParticipationType()));
+            });
+
+            asserting(
+                event.get_requests().size() == previousRequests &&
+                        event.get_participations().size() == previousParticipations &&
+                        event.get_requests().find(performer.get_primaryId()) != null
+            );
+        });
+    }
+
     private void canAddBulletin() {
         test(() -> {
             Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
@@ -357,6 +911,53 @@ class EventTest extends ModelTester<Event, Event.DTO> {
 
     @Override @Test
     protected void canRemove() {
+        canRemoveGigThroughOtherVersion();
+    }
 
+    private void canRemoveGigThroughOtherVersion() {
+        test(() -> {
+            Event event = arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            Performer performer = _items.get_artists().get(_random.nextInt(_items.get_artists().size()));
+            Seszt<Performer> act = new Seszt<>(new Performer[]{ performer });
+            LocalDateTime start = LocalDateTime.now().plusYears(100);
+            int previousSize = event.get_gigs().size(),
+                previousCount = event.countGigs(performer);
+            Event.Gig gig = new Event.Gig(UUID.randomUUID(), event, act, start, start.plusHours(1), new History(), LocalDateTime.now());
+            event.add(gig);
+            Event.Gig copy = new Event.Gig(
+                gig.get_primaryId(), event, act, gig.get_start(), gig.get_end(), new History(), gig.get_timestamp()
+            );
+
+            act(() -> event.remove(copy));
+
+            asserting(
+                event.get_gigs().size() == previousSize &&
+                        event.countGigs(performer) == previousCount &&
+                        event.importGigs(List.of(new Event.Gig(event, act, start, start.plusHours(1)))).isComplete()
+            );
+        });
+    }
+
+    @Test
+    void canConvertGigBeforeItsEvent() {
+        test(() -> {
+            Event event = arrange(() -> {
+                Event arrangement = _items.get_events().get(_random.nextInt(_items.get_events().size()));
+                for (Event.Gig gig : arrangement.get_gigs())
+                    gig.set_event(arrangement);
+
+                return arrangement;
+            });
+            Event.Gig.DTO dto = new Event.Gig.DTO(event.get_gigs().Get(1));
+
+            Event.Gig gig = act(() -> new Event.Gig(dto));
+
+            asserting(
+                gig.get_event().get_gigs().find(gig) == gig &&
+                        Objects.equals(gig.get_event().get_start(), event.get_start()) &&
+                        Objects.equals(gig.get_event().get_end(), event.get_end()) &&
+                        gig.get_event().countGigs(gig.get_act().Get(1)) > 0
+            );
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package laustrup.models.users;
+
+import laustrup.ModelTester;
+import laustrup.models.Event;
+import laustrup.models.Model;
+import laustrup.models.User;
+import laustrup.models.chats.Request;
+import laustrup.services.ConversionContext;
+import laustrup.utilities.collections.lists.Liszt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static laustrup.assertions.Asserter.asserting;
+
+class ArtistTests extends ModelTester<Artist, Artist.DTO> {
+
+    @Override @Test
+    protected void dataTransportObjectTranslate() {
+        test(() -> {
+            Artist expected = arrange(() -> {
+                Artist artist = _items.get_artists().getFirst();
+
+                _dto = new Artist.DTO(artist);
+                return artist;
+            });
+
+            Artist actual = act(() -> new Artist(_dto));
+
+            asserting(expected.toString(), actual.toString());
+
+            addToPrint("The two Artists are:\n \n" + expected + "\n" + actual);
+        });
+    }
+
+    @Override @Test
+    protected void toStringTest() {
+        Artist arrangement = _items.get_artists().getFirst();
+
+        testToString(arrangement, new String[]{
+                Model.Fields._primaryId,
+                User.Fields._username,
+                User.Fields._description,
+                Model.Fields._timestamp
+        }, new String[]{
+                String.valueOf(arrangement.get_primaryId()),
+                arrangement.get_username(),
+                arrangement.get_description(),
+                String.valueOf(arrangement.get_timestamp())
+        });
+    }
+
+    @Test
+    void canPostponeConversionOfFields() {
+        test(() -> {
+            Artist expected = arrange(() -> {
+                Artist artist = memberOfBand();
+
+                _dto = new Artist.DTO(artist);
+                return artist;
+            });
+
+            Artist actual = act(() -> new Artist(_dto, new ConversionContext(true)));
+
+            asserting(!actual.isHydrated(Artist.Fields._bands) && !actual.isHydrated(Artist.Fields._requests));
+
+            int bands = actual.get_bands().size();
+
+            asserting(actual.isHydrated(Artist.Fields._bands) && !actual.isHydrated(Artist.Fields._requests));
+            asserting(bands == expected.get_bands().size());
+        });
+    }
+
+    @Test
+    void canKeepIdentityOfPostponedFields() {
+        test(() -> {
+            arrange(() -> {
+                _dto = new Artist.DTO(memberOfBand());
+                return null;
+            });
+
+            Artist actual = act(() -> new Artist(_dto, new ConversionContext(true)));
+
+            boolean isSame = false;
+            for (Band band : actual.get_bands())
+                for (Artist member : band.get_members())
+                    isSame |= member == actual;
+
+            asserting(isSame);
+        });
+    }
+
+    @Test
+    void canPostponeConversionFromSeveralThreads() {
+        test(() -> {
+            arrange(() -> {
+                _dto = new Artist.DTO(memberOfBand());
+                return null;
+            });
+            Artist actual = new Artist(_dto, new ConversionContext(true));
+            Band[][] bands = new Band[2][];
+            Thread[] readers = new Thread[bands.length];
+            for (int i = 0; i < readers.length; i++) {
+                int reader = i;
+                readers[i] = new Thread(() -> {
+                    bands[reader] = new Band[actual.get_bands().size()];
+                    for (int j = 0; j < bands[reader].length; j++) {
+                        bands[reader][j] = actual.get_bands().Get(j + 1);
+                        bands[reader][j].get_gigs();
+                    }
+                });
+            }
+
+            act(() -> {
+                for (Thread reader : readers)
+                    reader.start();
+                actual.get_requests();
+                for (Thread reader : readers)
+                    try {
+                        reader.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+            });
+
+            boolean isSame = bands[0].length == bands[1].length && bands[0].length > 0;
+            for (int i = 0; isSame && i < bands[0].length; i++)
+                isSame = bands[0][i] == bands[1][i] && bands[0][i].isHydrated(Performer.Fields._gigs);
+
+            asserting(isSame && actual.isHydrated(Artist.Fields._requests));
+        });
+    }
+
+    @Test
+    void canReadLastPostponedFieldFromSeveralThreads() {
+        test(() -> {
+            Artist expected = arrange(() -> {
+                Artist artist = memberOfBand();
+
+                _dto = new Artist.DTO(artist);
+                return artist;
+            });
+            Artist actual = new Artist(_dto, new ConversionContext(true));
+            actual.get_albums();
+            actual.get_ratings();
+            actual.get_events();
+            actual.get_chatRooms();
+            actual.get_posts();
+            actual.get_gigs();
+            actual.get_fans();
+            actual.get_bands();
+            int[] sizes = new int[8];
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] readers = new Thread[sizes.length];
+            for (int i = 0; i < readers.length; i++) {
+                int reader = i;
+                readers[i] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    Liszt<Request> requests = actual.get_requests();
+                    sizes[reader] = requests != null ? requests.size() : -1;
+                });
+                readers[i].start();
+            }
+
+            act(() -> {
+                start.countDown();
+                for (Thread reader : readers)
+                    try {
+                        reader.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+            });
+
+            for (int size : sizes)
+                asserting(size == expected.get_requests().size());
+            asserting(actual.isHydrated(Artist.Fields._requests));
+        });
+    }
+
+    /**
+     * Finds an Artist, that is a member of at least one Band.
+     * @return The Artist.
+     */
+    private Artist memberOfBand() {
+        for (Artist artist : _items.get_artists())
+            if (artist.get_bands().size() > 0)
+                return artist;
+
+        return _items.get_artists().getFirst();
+    }
+
+    @Override @Test
+    protected void canAdd() {
+        test(() -> {
+            Artist artist = arrange(() -> _items.get_artists().getFirst());
+            Event event = _items.get_events().getFirst();
+            int previousSize = artist.get_requests().size();
+
+            act(() -> artist.add(new Request(artist, event)));
+
+            asserting(artist.get_requests().size() == previousSize + 1);
+        });
+    }
+
+    @Override @Test
+    protected void canSet() {
+        test(() -> {
+            Artist artist = arrange(() -> _items.get_artists().getFirst());
+            String runner = "Gear of " + artist.get_username();
+
+            act(() -> artist.set_runner(runner));
+
+            asserting(runner, artist.get_runner());
+        });
+    }
+
+    @Override @Test
+    protected void canRemove() {
+        test(() -> {
+            Artist artist = arrange(() -> _items.get_artists().getFirst());
+            Request request = new Request(artist, _items.get_events().getFirst());
+            artist.add(request);
+            int previousSize = artist.get_requests().size();
+
+            act(() -> artist.remove(request));
+
+            asserting(artist.get_requests().size() == previousSize - 1);
+        });
+    }
+}
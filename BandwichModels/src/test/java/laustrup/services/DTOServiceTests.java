@@ -0,0 +1,146 @@
+package laustrup.services;
+
+import laustrup.ServiceTester;
+
+import laustrup.items.TestItems;
+import laustrup.models.Event;
+import laustrup.models.Model;
+import laustrup.models.users.Band;
+import laustrup.models.users.Venue;
+import laustrup.utilities.collections.sets.Seszt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static laustrup.assertions.Asserter.asserting;
+
+class DTOServiceTests extends ServiceTester {
+
+    /** Contains generated models to convert. */
+    private final TestItems _items = new TestItems();
+
+    /** Sets the Service as a DTOService for testing. */
+    protected DTOServiceTests() {
+        super(new DTOService());
+    }
+
+    @Test
+    void canConvertModelsByTheirClass() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            Model.ModelDTO dto = (Model.ModelDTO) act(() -> DTOService.convert(event));
+
+            asserting(dto instanceof Event.DTO);
+            asserting(dto.getPrimaryId().equals(event.get_primaryId()));
+        });
+    }
+
+    @Test
+    void canConvertUsersBothWays() {
+        test(() -> {
+            Band band = (Band) arrange(() -> _items.get_bands().get(_random.nextInt(_items.get_bands().size())));
+
+            Model model = (Model) act(() -> DTOService.convert(DTOService.convert(band)));
+
+            asserting(model instanceof Band);
+            asserting(model.get_primaryId().equals(band.get_primaryId()));
+        });
+    }
+
+    @Test
+    void canConvertSubclassOfUserIntoItsOwnDTO() {
+        test(() -> {
+            Venue venue = (Venue) arrange(() -> _items.get_venues().get(_random.nextInt(_items.get_venues().size())));
+
+            Object dto = act(() -> DTOService.convert(venue));
+
+            asserting(dto instanceof Venue.DTO);
+        });
+    }
+
+    @Test
+    void canConvertAllInParallelAndKeepOrder() {
+        test(() -> {
+            Seszt<Event> events = (Seszt<Event>) arrange(() -> _items.get_events());
+
+            Event.DTO[] dtos = (Event.DTO[]) act(() -> DTOService.convertAll(
+                    events, Event.DTO[]::new, Event.DTO::new, new ConversionContext(), 2
+            ));
+
+            asserting(dtos.length == events.size());
+            for (int i = 0; i < dtos.length; i++)
+                asserting(dtos[i].getPrimaryId().equals(events.Get(i+1).get_primaryId()));
+        });
+    }
+
+    @Test
+    void canConvertSharedModelOnceInParallel() {
+        test(() -> {
+            List<Event> events = (List<Event>) arrange(() -> {
+                List<Event> arrangement = new ArrayList<>();
+                for (Event event : _items.get_events())
+                    arrangement.add(event);
+                arrangement.add(arrangement.get(0));
+
+                return arrangement;
+            });
+            ConversionContext context = new ConversionContext();
+
+            Event.DTO[] dtos = (Event.DTO[]) act(() -> DTOService.convertAll(
+                    events, Event.DTO[]::new, Event.DTO::new, context, 1
+            ));
+
+            asserting(dtos.length == events.size() && dtos.length > 2);
+            asserting(dtos[0] == dtos[dtos.length - 1]);
+            asserting(context.conversions().get(events.get(0)) == dtos[0]);
+        });
+    }
+
+    @Test
+    void canRecordConversionsPerType() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            ConversionMetrics metrics = new ConversionMetrics();
+
+            try {
+                act(() -> {
+                    DTOService.set_metrics(metrics);
+                    return DTOService.convert(event);
+                });
+            } finally {
+                DTOService.set_metrics(null);
+            }
+
+            ConversionMetrics.Snapshot snapshot = metrics.snapshot(Event.class);
+            asserting(snapshot.get_conversions() == 1);
+            asserting(snapshot.get_objects() > event.get_gigs().size());
+            asserting(snapshot.get_maxNanos() <= snapshot.get_totalNanos());
+            if (!event.get_gigs().isEmpty())
+                asserting(metrics.snapshot(Event.Gig.class).get_conversions() >= event.get_gigs().size());
+        });
+    }
+
+    @Test
+    void canNormalizeAndResolve() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            Normalized<Model.ModelDTO> normalized = (Normalized<Model.ModelDTO>) act(() -> DTOService.normalize(event));
+
+            Event.DTO data = (Event.DTO) normalized.get_data();
+            for (Event.Gig.DTO gig : data.getGigs()) {
+                asserting(gig.getAct() == null);
+                asserting(normalized.get_included().containsKey(new Reference(gig)));
+            }
+
+            Event resolved = (Event) normalized.resolve();
+            asserting(resolved.get_primaryId().equals(event.get_primaryId()));
+            asserting(resolved.get_gigs().size() == event.get_gigs().size());
+            for (int i = 1; i <= resolved.get_gigs().size(); i++)
+                asserting(resolved.get_gigs().Get(i).get_act().size() == event.get_gigs().Get(i).get_act().size());
+        });
+    }
+}
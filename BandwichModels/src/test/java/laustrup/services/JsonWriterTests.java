@@ -0,0 +1,116 @@
+package laustrup.services;
+
+import laustrup.ServiceTester;
+
+import laustrup.items.TestItems;
+import laustrup.models.Event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import static laustrup.assertions.Asserter.asserting;
+
+class JsonWriterTests extends ServiceTester {
+
+    /** Contains generated models to write. */
+    private final TestItems _items = new TestItems();
+
+    /** Sets the Service as a DTOService, since the JsonWriter is an alternative to its conversions. */
+    protected JsonWriterTests() {
+        super(new DTOService());
+    }
+
+    @Test
+    void canWriteEventWithTheFieldsOfItsDTO() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            String json = (String) act(() -> write(event));
+
+            asserting(json.startsWith("{\"primaryId\":\"" + event.get_primaryId() + "\""));
+            asserting(json.contains("\"gigs\":["));
+            asserting(json.contains("\"ticketOptions\":["));
+            asserting(json.endsWith("}"));
+        });
+    }
+
+    @Test
+    void canWriteCircularReferencesOnce() {
+        test(() -> {
+            Event event = (Event) arrange(() -> {
+                Event arrangement = _items.get_events().get(_random.nextInt(_items.get_events().size()));
+                for (Event.Gig gig : arrangement.get_gigs())
+                    gig.set_event(arrangement);
+
+                return arrangement;
+            });
+
+            String json = (String) act(() -> write(event));
+
+            asserting(json.contains("\"event\":{\"primaryId\":\"" + event.get_primaryId() + "\""));
+        });
+    }
+
+    @Test
+    void canWriteNormalized() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+
+            String json = (String) act(() -> {
+                StringWriter destination = new StringWriter();
+                try {
+                    new JsonWriter(destination, true).write(event);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return destination.toString();
+            });
+
+            asserting(json.startsWith("{\"data\":{\"primaryId\":\"" + event.get_primaryId() + "\""));
+            asserting(json.contains("\"included\":["));
+            for (Event.Gig gig : event.get_gigs())
+                asserting(json.contains("{\"type\":\"Gig\",\"id\":\"" + gig.get_primaryId() + "\""));
+        });
+    }
+
+    @Test
+    void canWriteSeveralTimesWithTheSameWriter() {
+        test(() -> {
+            Event event = (Event) arrange(() -> _items.get_events().get(_random.nextInt(_items.get_events().size())));
+            String once = write(event);
+
+            String json = (String) act(() -> {
+                StringWriter destination = new StringWriter();
+                try {
+                    JsonWriter writer = new JsonWriter(destination);
+                    writer.write(event);
+                    writer.write(event);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return destination.toString();
+            });
+
+            asserting(json, once + once);
+        });
+    }
+
+    /**
+     * Writes the Event into a String.
+     * @param event The Event to be written.
+     * @return The written JSON.
+     */
+    private String write(Event event) {
+        StringWriter destination = new StringWriter();
+        try {
+            new JsonWriter(destination).write(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return destination.toString();
+    }
+}